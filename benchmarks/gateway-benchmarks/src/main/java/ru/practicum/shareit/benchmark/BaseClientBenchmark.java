@@ -0,0 +1,107 @@
+package ru.practicum.shareit.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.server.HttpServer;
+import ru.practicum.shareit.item.ItemClient;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BaseClientBenchmark {
+    private static final String ITEM_JSON = "{\"id\":%d,\"name\":\"drill %d\",\"description\":\"cordless drill\"," +
+            "\"available\":true,\"requestId\":null,\"lastBooking\":{\"id\":%d,\"bookerId\":7}," +
+            "\"nextBooking\":null,\"comments\":[{\"id\":%d,\"text\":\"works fine\",\"authorName\":\"Ann\"," +
+            "\"created\":\"2023-01-01T10:00:00\"}]}";
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final int MAX_IN_MEMORY_SIZE = 16 * 1024 * 1024;
+
+    // the owner's item list, from a single card up to a large catalogue page
+    @Param({"1", "100", "5000"})
+    public int items;
+
+    private byte[] body;
+    private DisposableServer server;
+    private WebClient rawClient;
+    private ItemClient passThroughClient;
+    private ItemClient parsingClient;
+
+    @Setup
+    public void setUp() {
+        StringBuilder json = new StringBuilder("[");
+        for (int id = 1; id <= items; id++) {
+            json.append(id == 1 ? "" : ",").append(String.format(ITEM_JSON, id, id, id, id));
+        }
+        body = json.append("]").toString().getBytes(StandardCharsets.UTF_8);
+        // stub of the shareit server on a random port, so only the gateway side of the round trip differs
+        server = HttpServer.create()
+                .port(0)
+                .route(routes -> routes.get("/items", (request, response) -> response
+                        .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .sendByteArray(Mono.just(body))))
+                .bindNow();
+        String serverUrl = "http://localhost:" + server.port();
+        rawClient = builder()
+                .baseUrl(serverUrl)
+                .clientConnector(new ReactorClientHttpConnector(HttpClient.create()))
+                .build();
+        passThroughClient = new ItemClient(serverUrl, true, builder(),
+                new ReactorClientHttpConnector(HttpClient.create()));
+        parsingClient = new ItemClient(serverUrl, false, builder(),
+                new ReactorClientHttpConnector(HttpClient.create()));
+    }
+
+    // same limit as spring.codec.max-in-memory-size in the gateway
+    private static WebClient.Builder builder() {
+        return WebClient.builder()
+                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(MAX_IN_MEMORY_SIZE));
+    }
+
+    @TearDown
+    public void tearDown() {
+        server.disposeNow();
+    }
+
+    @Benchmark
+    public byte[] rawWebClient() {
+        return rawClient.get()
+                .uri("/items?from=0&size={size}", items)
+                .header("X-Sharer-User-Id", "1")
+                .retrieve()
+                .toEntity(byte[].class)
+                .block()
+                .getBody();
+    }
+
+    // each mode ends with the bytes the controller writes, a parsed body is serialized back to json
+    @Benchmark
+    public byte[] itemClientPassThrough() throws JsonProcessingException {
+        return responseBody(passThroughClient.getAll(1, 0, items, null).block());
+    }
+
+    @Benchmark
+    public byte[] itemClientParsed() throws JsonProcessingException {
+        return responseBody(parsingClient.getAll(1, 0, items, null).block());
+    }
+
+    private static byte[] responseBody(ResponseEntity<Object> response) throws JsonProcessingException {
+        Object body = response.getBody();
+        return body instanceof byte[] ? (byte[]) body : MAPPER.writeValueAsBytes(body);
+    }
+}
@@ -0,0 +1,45 @@
+package ru.practicum.shareit.load;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+class EndpointStats {
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private final String name;
+    private final Recorder recorder = new Recorder(HIGHEST_TRACKABLE_MICROS, 3);
+    private final LongAdder errors = new LongAdder();
+
+    EndpointStats(String name) {
+        this.name = name;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    void recordSuccess(long micros) {
+        recorder.recordValue(Math.min(micros, HIGHEST_TRACKABLE_MICROS));
+    }
+
+    void recordError() {
+        errors.increment();
+    }
+
+    // drops everything recorded so far, used when the warmup ends
+    void reset() {
+        recorder.getIntervalHistogram();
+        errors.reset();
+    }
+
+    Histogram takeHistogram() {
+        return recorder.getIntervalHistogram();
+    }
+
+    long getErrors() {
+        return errors.sum();
+    }
+}
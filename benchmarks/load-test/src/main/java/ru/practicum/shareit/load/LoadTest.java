@@ -0,0 +1,237 @@
+package ru.practicum.shareit.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+// closed loop: every client sends its next request as soon as the previous one is answered
+public class LoadTest {
+    private static final String[] ADJECTIVES = {"cordless", "electric", "folding", "portable", "heavy", "compact",
+            "vintage", "inflatable", "waterproof", "professional"};
+    private static final String[] NOUNS = {"drill", "saw", "ladder", "tent", "kayak", "projector", "mixer",
+            "scooter", "bicycle", "camera", "speaker", "grill"};
+    private static final String[] LIST_STATES = {"ALL", "FUTURE", "WAITING"};
+
+    private final ShareItApi api;
+    private final Map<String, String> options;
+    private final int clients;
+    private final int[] mix;
+    private final List<Long> owners = new ArrayList<>();
+    private final List<Long> bookers = new ArrayList<>();
+    private final List<long[]> items = new ArrayList<>();
+    // every new booking gets its own hour, so concurrent clients never ask for overlapping periods
+    private final AtomicLong bookingSlot = new AtomicLong();
+    private final LocalDateTime bookingsFrom = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+
+    private volatile boolean running = true;
+
+    LoadTest(String gatewayUrl, Map<String, String> options) {
+        this.api = new ShareItApi(gatewayUrl);
+        this.options = options;
+        this.clients = intOption("clients", 16);
+        this.mix = parseMix(options.getOrDefault("mix", "40,25,20,15"));
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseOptions(args);
+        Path output = Path.of(options.getOrDefault("output", "target/load-test"));
+        if (options.containsKey("local")) {
+            try (LocalStack stack = LocalStack.start(Path.of(options.get("server-jar")),
+                    Path.of(options.get("gateway-jar")), output)) {
+                new LoadTest(stack.getGatewayUrl(), options).run(output);
+            }
+        } else {
+            new LoadTest(options.getOrDefault("target", "http://localhost:8080"), options).run(output);
+        }
+    }
+
+    void run(Path output) throws Exception {
+        Duration warmup = Duration.parse("PT" + options.getOrDefault("warmup", "30s"));
+        Duration duration = Duration.parse("PT" + options.getOrDefault("duration", "60s"));
+        long seed = Long.parseLong(options.getOrDefault("seed", "42"));
+        setUp(new SplittableRandom(seed));
+
+        ExecutorService executor = Executors.newFixedThreadPool(clients);
+        List<Future<?>> loops = new ArrayList<>();
+        for (int client = 0; client < clients; client++) {
+            SplittableRandom random = new SplittableRandom(seed + client + 1);
+            loops.add(executor.submit(() -> clientLoop(random)));
+        }
+        System.out.println("LoadTest: " + clients + " clients, warming up for " + warmup + ".");
+        Thread.sleep(warmup.toMillis());
+        api.getEndpoints().forEach(EndpointStats::reset);
+        long measureStarted = System.nanoTime();
+        System.out.println("LoadTest: measuring for " + duration + ".");
+        Thread.sleep(duration.toMillis());
+        running = false;
+        for (Future<?> loop : loops) {
+            loop.get();
+        }
+        double seconds = (System.nanoTime() - measureStarted) / 1e9;
+        executor.shutdown();
+        report(seconds, output);
+    }
+
+    private void setUp(SplittableRandom random) {
+        int ownerCount = intOption("owners", 50);
+        int bookerCount = intOption("bookers", 200);
+        int itemCount = intOption("items", 1000);
+        String run = Long.toString(System.currentTimeMillis(), 36);
+        for (int i = 0; i < ownerCount; i++) {
+            owners.add(api.addUser("owner" + i, "owner" + i + "-" + run + "@load.test"));
+        }
+        for (int i = 0; i < bookerCount; i++) {
+            bookers.add(api.addUser("booker" + i, "booker" + i + "-" + run + "@load.test"));
+        }
+        for (int i = 0; i < itemCount; i++) {
+            long ownerId = owners.get(i % ownerCount);
+            String noun = pick(random, NOUNS);
+            long itemId = api.addItem(ownerId, pick(random, ADJECTIVES) + " " + noun,
+                    "Rent a " + noun + " for the weekend");
+            items.add(new long[]{itemId, ownerId});
+        }
+        // a booking history to list from the first request on
+        for (int i = 0; i < bookerCount * 2; i++) {
+            bookAndApprove(random);
+        }
+        System.out.println("LoadTest: created " + ownerCount + " owners, " + bookerCount + " bookers, " +
+                itemCount + " items and " + bookingSlot.get() + " bookings.");
+    }
+
+    private void clientLoop(SplittableRandom random) {
+        while (running) {
+            int roll = random.nextInt(100);
+            if (roll < mix[0]) {
+                api.search(pick(random, bookers), pick(random, NOUNS));
+            } else if (roll < mix[0] + mix[1]) {
+                long[] item = items.get(random.nextInt(items.size()));
+                api.getItem(random.nextInt(5) == 0 ? item[1] : pick(random, bookers), item[0]);
+            } else if (roll < mix[0] + mix[1] + mix[2]) {
+                if (random.nextBoolean()) {
+                    api.getBookerBookings(pick(random, bookers), pick(random, LIST_STATES));
+                } else {
+                    api.getOwnerBookings(pick(random, owners), pick(random, LIST_STATES));
+                }
+            } else {
+                bookAndApprove(random);
+            }
+        }
+    }
+
+    private void bookAndApprove(SplittableRandom random) {
+        long[] item = items.get(random.nextInt(items.size()));
+        LocalDateTime start = bookingsFrom.plusHours(bookingSlot.getAndIncrement());
+        JsonNode booking = api.addBooking(pick(random, bookers), item[0], start, start.plusMinutes(30));
+        if (booking != null) {
+            api.approveBooking(item[1], booking.get("id").asLong());
+        }
+    }
+
+    private void report(double seconds, Path output) throws IOException {
+        Files.createDirectories(output);
+        ObjectMapper mapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+        ArrayNode summary = mapper.createArrayNode();
+        System.out.printf("%n%-22s %9s %7s %9s %9s %9s %9s %9s%n", "endpoint", "count", "errors", "ops/s",
+                "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+        long total = 0;
+        for (EndpointStats stats : api.getEndpoints()) {
+            Histogram histogram = stats.takeHistogram();
+            long count = histogram.getTotalCount();
+            total += count;
+            System.out.printf("%-22s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f%n", stats.getName(), count,
+                    stats.getErrors(), count / seconds, millis(histogram, 50), millis(histogram, 99),
+                    millis(histogram, 99.9), histogram.getMaxValue() / 1000.0);
+            summary.addObject()
+                    .put("endpoint", stats.getName())
+                    .put("count", count)
+                    .put("errors", stats.getErrors())
+                    .put("throughput", count / seconds)
+                    .put("p50", millis(histogram, 50))
+                    .put("p99", millis(histogram, 99))
+                    .put("p999", millis(histogram, 99.9))
+                    .put("max", histogram.getMaxValue() / 1000.0)
+                    .put("unit", "ms");
+            // full distributions, plotted with the hdrhistogram plotter or diffed between runs
+            try (PrintStream file = new PrintStream(output.resolve(fileName(stats.getName()) + ".hgrm").toFile())) {
+                histogram.outputPercentileDistribution(file, 1000.0);
+            }
+        }
+        System.out.printf("%-22s %9d %7s %9.1f%n", "total", total, "", total / seconds);
+        mapper.writeValue(output.resolve("summary.json").toFile(), summary);
+        System.out.println("LoadTest: histograms and summary.json written to " + output.toAbsolutePath() + ".");
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    private static String fileName(String endpoint) {
+        return endpoint.replaceAll("[^A-Za-z]+", "-").replaceAll("-$", "").toLowerCase();
+    }
+
+    private int intOption(String name, int defaultValue) {
+        return Integer.parseInt(options.getOrDefault(name, String.valueOf(defaultValue)));
+    }
+
+    private static int[] parseMix(String value) {
+        String[] parts = value.split(",");
+        if (parts.length != 4) {
+            throw new IllegalArgumentException("LoadTest: mix needs four shares for search, item card, " +
+                    "booking lists and booking creation, got " + value + ".");
+        }
+        int[] mix = new int[4];
+        int sum = 0;
+        for (int i = 0; i < 4; i++) {
+            mix[i] = Integer.parseInt(parts[i].trim());
+            sum += mix[i];
+        }
+        if (sum != 100) {
+            throw new IllegalArgumentException("LoadTest: mix shares must add up to 100, got " + value + ".");
+        }
+        return mix;
+    }
+
+    // --name=value pairs, a bare --name is a flag
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("LoadTest: unexpected argument " + arg + ".");
+            }
+            int separator = arg.indexOf('=');
+            if (separator < 0) {
+                options.put(arg.substring(2), "true");
+            } else {
+                options.put(arg.substring(2, separator), arg.substring(separator + 1));
+            }
+        }
+        return options;
+    }
+
+    private static <T> T pick(SplittableRandom random, List<T> values) {
+        return values.get(random.nextInt(values.size()));
+    }
+
+    private static String pick(SplittableRandom random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+}
@@ -0,0 +1,109 @@
+package ru.practicum.shareit.load;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+// server on h2 and gateway as two local jvms, like in the docker-compose stack but without a database container
+class LocalStack implements AutoCloseable {
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(3);
+
+    private final List<Process> processes = new ArrayList<>();
+    private final HttpClient client = HttpClient.newHttpClient();
+    private String gatewayUrl;
+
+    static LocalStack start(Path serverJar, Path gatewayJar, Path logDirectory) throws IOException,
+            InterruptedException {
+        LocalStack stack = new LocalStack();
+        try {
+            Files.createDirectories(logDirectory);
+            int serverPort = freePort();
+            int gatewayPort = freePort();
+            String serverUrl = "http://localhost:" + serverPort;
+            stack.gatewayUrl = "http://localhost:" + gatewayPort;
+            stack.launch(serverJar, logDirectory.resolve("server.log"),
+                    "--spring.profiles.active=test",
+                    "--server.port=" + serverPort,
+                    "--spring.jpa.show-sql=false",
+                    "--logging.level.org.springframework.transaction.interceptor=WARN",
+                    "--logging.level.org.springframework.orm.jpa.JpaTransactionManager=WARN");
+            stack.launch(gatewayJar, logDirectory.resolve("gateway.log"),
+                    "--server.port=" + gatewayPort,
+                    "--shareit-server.url=" + serverUrl,
+                    "--logging.level.org.springframework.web.reactive.function.client.ExchangeFunctions=WARN");
+            stack.awaitHealthy(serverUrl);
+            stack.awaitHealthy(stack.gatewayUrl);
+            return stack;
+        } catch (IOException | InterruptedException | RuntimeException exception) {
+            stack.close();
+            throw exception;
+        }
+    }
+
+    String getGatewayUrl() {
+        return gatewayUrl;
+    }
+
+    @Override
+    public void close() {
+        processes.forEach(Process::destroy);
+        for (Process process : processes) {
+            try {
+                process.waitFor();
+            } catch (InterruptedException exception) {
+                process.destroyForcibly();
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void launch(Path jar, Path log, String... arguments) throws IOException {
+        if (!Files.isRegularFile(jar)) {
+            throw new IllegalStateException("LocalStack: " + jar + " not found, build it with " +
+                    "mvn -P benchmarks -DskipTests package.");
+        }
+        List<String> command = new ArrayList<>();
+        command.add(ProcessHandle.current().info().command().orElse("java"));
+        command.add("-jar");
+        command.add(jar.toString());
+        command.addAll(List.of(arguments));
+        processes.add(new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start());
+    }
+
+    private void awaitHealthy(String baseUrl) throws InterruptedException {
+        HttpRequest health = HttpRequest.newBuilder(URI.create(baseUrl + "/actuator/health")).build();
+        long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (processes.stream().anyMatch(process -> !process.isAlive())) {
+                throw new IllegalStateException("LocalStack: a process exited during startup, see its log.");
+            }
+            try {
+                if (client.send(health, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException exception) {
+                // not listening yet
+            }
+            Thread.sleep(500);
+        }
+        throw new IllegalStateException("LocalStack: " + baseUrl + " did not become healthy in " + STARTUP_TIMEOUT +
+                ".");
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package ru.practicum.shareit.load;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+class ShareItApi {
+    static final String SEARCH = "GET /items/search";
+    static final String ITEM_CARD = "GET /items/{id}";
+    static final String BOOKER_BOOKINGS = "GET /bookings";
+    static final String OWNER_BOOKINGS = "GET /bookings/owner";
+    static final String ADD_BOOKING = "POST /bookings";
+    static final String APPROVE_BOOKING = "PATCH /bookings/{id}";
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private final String baseUrl;
+    private final HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final ObjectMapper mapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    private final Map<String, EndpointStats> endpoints = new LinkedHashMap<>();
+
+    ShareItApi(String baseUrl) {
+        this.baseUrl = baseUrl;
+        for (String endpoint : new String[]{SEARCH, ITEM_CARD, BOOKER_BOOKINGS, OWNER_BOOKINGS, ADD_BOOKING,
+                APPROVE_BOOKING}) {
+            endpoints.put(endpoint, new EndpointStats(endpoint));
+        }
+    }
+
+    Collection<EndpointStats> getEndpoints() {
+        return endpoints.values();
+    }
+
+    long addUser(String name, String email) {
+        return id(send(null, "POST", "/users", null, Map.of("name", name, "email", email)));
+    }
+
+    long addItem(long ownerId, String name, String description) {
+        return id(send(null, "POST", "/items", ownerId, Map.of("name", name, "description", description,
+                "available", true)));
+    }
+
+    JsonNode search(long userId, String text) {
+        return send(SEARCH, "GET", "/items/search?from=0&size=20&text=" + text, userId, null);
+    }
+
+    JsonNode getItem(long userId, long itemId) {
+        return send(ITEM_CARD, "GET", "/items/" + itemId, userId, null);
+    }
+
+    JsonNode getBookerBookings(long userId, String state) {
+        return send(BOOKER_BOOKINGS, "GET", "/bookings?from=0&size=20&state=" + state, userId, null);
+    }
+
+    JsonNode getOwnerBookings(long userId, String state) {
+        return send(OWNER_BOOKINGS, "GET", "/bookings/owner?from=0&size=20&state=" + state, userId, null);
+    }
+
+    JsonNode addBooking(long bookerId, long itemId, LocalDateTime start, LocalDateTime end) {
+        return send(ADD_BOOKING, "POST", "/bookings", bookerId,
+                Map.of("itemId", itemId, "start", start, "end", end));
+    }
+
+    JsonNode approveBooking(long ownerId, long bookingId) {
+        return send(APPROVE_BOOKING, "PATCH", "/bookings/" + bookingId + "?approved=true", ownerId, null);
+    }
+
+    // null endpoint means setup traffic, which is not measured and must not fail
+    private JsonNode send(String endpoint, String method, String path, Long userId, Object body) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(TIMEOUT)
+                .header("Accept", "application/json")
+                .method(method, body == null ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofString(json(body)));
+        if (body != null) {
+            request.header("Content-Type", "application/json");
+        }
+        if (userId != null) {
+            request.header("X-Sharer-User-Id", String.valueOf(userId));
+        }
+        EndpointStats stats = endpoint == null ? null : endpoints.get(endpoint);
+        long started = System.nanoTime();
+        try {
+            HttpResponse<String> response = client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+            long micros = (System.nanoTime() - started) / 1000;
+            if (response.statusCode() >= 300) {
+                if (stats == null) {
+                    throw new IllegalStateException("ShareItApi: " + method + " " + path + " returned " +
+                            response.statusCode() + ": " + response.body());
+                }
+                stats.recordError();
+                return null;
+            }
+            if (stats != null) {
+                stats.recordSuccess(micros);
+            }
+            return response.body().isEmpty() ? null : mapper.readTree(response.body());
+        } catch (IOException exception) {
+            if (stats == null) {
+                throw new UncheckedIOException(exception);
+            }
+            stats.recordError();
+            return null;
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    private String json(Object body) {
+        try {
+            return mapper.writeValueAsString(body);
+        } catch (JsonProcessingException exception) {
+            throw new IllegalArgumentException(exception);
+        }
+    }
+
+    private static long id(JsonNode node) {
+        return node.get("id").asLong();
+    }
+}
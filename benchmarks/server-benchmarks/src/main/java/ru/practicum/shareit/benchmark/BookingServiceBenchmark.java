@@ -0,0 +1,33 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import ru.practicum.shareit.booking.dto.BookingDtoResponse;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.service.BookingService;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookingServiceBenchmark {
+    @Param({"ALL", "CURRENT", "FUTURE", "WAITING"})
+    private BookingState state;
+
+    private BookingService bookingService;
+    private int call;
+
+    @Setup
+    public void setUp(SeededServer server) {
+        bookingService = server.getBean(BookingService.class);
+    }
+
+    @Benchmark
+    public List<BookingDtoResponse> getAllBookingsByOwner(SeededServer server) {
+        return bookingService.getAllBookingsByOwner(server.ownerId(call++), state, 0, 20);
+    }
+}
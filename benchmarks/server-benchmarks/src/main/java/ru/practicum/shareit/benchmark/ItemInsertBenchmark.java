@@ -0,0 +1,84 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+// one operation inserts ITEMS items through ItemService.importBatch, the path of POST /items/import
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ItemInsertBenchmark {
+    static final int ITEMS = 100_000;
+    static final int IMPORT_BATCH_SIZE = 500;
+
+    // 1 turns jdbc batching off, 50 is the configured batch size
+    @Param({"1", "50"})
+    private int jdbcBatchSize;
+
+    private ConfigurableApplicationContext context;
+    private ItemService itemService;
+    private final List<List<ItemDto>> batches = new ArrayList<>();
+    private long ownerId;
+    private int iteration;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(ShareItServer.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .run("--spring.jpa.show-sql=false",
+                        "--spring.jpa.properties.hibernate.jdbc.batch_size=" + jdbcBatchSize,
+                        "--logging.level.org.springframework.transaction.interceptor=WARN",
+                        "--logging.level.org.springframework.orm.jpa.JpaTransactionManager=WARN");
+        itemService = context.getBean(ItemService.class);
+        for (int from = 0; from < ITEMS; from += IMPORT_BATCH_SIZE) {
+            List<ItemDto> batch = new ArrayList<>(IMPORT_BATCH_SIZE);
+            for (int i = from; i < from + IMPORT_BATCH_SIZE; i++) {
+                batch.add(new ItemDto(null, SeededServer.WORDS[i % SeededServer.WORDS.length] + " " + i,
+                        "rent a " + SeededServer.WORDS[(i / 7) % SeededServer.WORDS.length] + " for the weekend",
+                        i % 10 != 0, null));
+            }
+            batches.add(batch);
+        }
+    }
+
+    // a fresh owner per iteration, so every run inserts into the same kind of table
+    @Setup(Level.Iteration)
+    public void createOwner() {
+        String name = "importer" + iteration++;
+        ownerId = context.getBean(UserService.class).add(new UserDto(null, name, name + "@mail.ru")).getId();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public long importItems() {
+        long imported = 0;
+        long firstRow = 1;
+        for (List<ItemDto> batch : batches) {
+            imported += itemService.importBatch(batch, firstRow, ownerId).stream()
+                    .filter(row -> Objects.nonNull(row.getId()))
+                    .count();
+            firstRow += batch.size();
+        }
+        return imported;
+    }
+}
@@ -0,0 +1,79 @@
+package ru.practicum.shareit.benchmark;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// one page of item search on embedded postgres with the 2M items of the seed profile, the search cache is off;
+// the data directory survives the trials, so only the first one seeds, mvn clean drops it
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ItemSearchQueryBenchmark {
+    static final File DATA_DIRECTORY = new File("target/item-search-postgres");
+    static final int ITEMS = 2_000_000;
+
+    // in ~6% of the items, in ~0.5% of them, in none
+    @Param({"drill", "vintage kayak", "theodolite"})
+    private String text;
+
+    @Param({"0", "2000"})
+    private long from;
+
+    // 1 sends every text through the trigram lookup, as before the selectivity estimate
+    @Param({"0.01", "1"})
+    private double trigramMaxSelectivity;
+
+    private EmbeddedPostgres postgres;
+    private ConfigurableApplicationContext context;
+    private ItemService itemService;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        postgres = EmbeddedPostgres.builder()
+                .setDataDirectory(DATA_DIRECTORY)
+                .setCleanDataDirectory(false)
+                .start();
+        context = new SpringApplicationBuilder(ShareItServer.class)
+                .web(WebApplicationType.NONE)
+                .profiles("prod")
+                .run("--spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres") +
+                                "&reWriteBatchedInserts=true",
+                        "--spring.datasource.username=postgres",
+                        "--spring.datasource.password=postgres",
+                        "--shareit.item.search.cache.maximum-size=0",
+                        "--shareit.item.search.trigram-max-selectivity=" + trigramMaxSelectivity,
+                        "--shareit.seed.enabled=true",
+                        "--shareit.seed.users=10000",
+                        "--shareit.seed.requests=0",
+                        "--shareit.seed.items=" + ITEMS,
+                        "--shareit.seed.bookings=0");
+        context.getBean(JdbcTemplate.class).execute("ANALYZE items");
+        itemService = context.getBean(ItemService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        context.close();
+        postgres.close();
+    }
+
+    @Benchmark
+    public List<ItemDto> search() {
+        return itemService.search(text, from, 20);
+    }
+}
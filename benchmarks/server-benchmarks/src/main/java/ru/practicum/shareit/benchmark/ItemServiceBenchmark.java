@@ -0,0 +1,41 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemDtoResponse;
+import ru.practicum.shareit.item.service.ItemService;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ItemServiceBenchmark {
+    private ItemService itemService;
+    private int call;
+
+    @Setup
+    public void setUp(SeededServer server) {
+        itemService = server.getBean(ItemService.class);
+    }
+
+    @Benchmark
+    public List<ItemDtoResponse> getAll(SeededServer server) {
+        return itemService.getAll(server.ownerId(call++), 0, 20);
+    }
+
+    @Benchmark
+    public List<ItemDto> search(SearchText search) {
+        return itemService.search(search.text, 0, 20);
+    }
+
+    @State(Scope.Benchmark)
+    public static class SearchText {
+        @Param({"drill", "weekend"})
+        private String text;
+    }
+}
@@ -0,0 +1,144 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import ru.practicum.shareit.booking.dto.BookingDtoResponse;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.mapper.BookingMapperImpl;
+import ru.practicum.shareit.booking.mapper.BookingShortMapperImpl;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.dto.ItemDtoResponse;
+import ru.practicum.shareit.item.mapper.CommentMapperImpl;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.mapper.ItemMapperImpl;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.mapper.ItemRequestMapper;
+import ru.practicum.shareit.request.mapper.ItemRequestMapperImpl;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.mapper.UserMapperImpl;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+    private static final LocalDateTime NOW = LocalDateTime.of(2030, 1, 1, 12, 0);
+
+    @Param({"10", "100"})
+    private int size;
+
+    private AnnotationConfigApplicationContext context;
+    private ItemMapper itemMapper;
+    private BookingMapper bookingMapper;
+    private ItemRequestMapper itemRequestMapper;
+
+    private Item item;
+    private List<Comment> comments;
+    private Booking lastBooking;
+    private Booking nextBooking;
+    private List<Booking> bookings;
+    private ItemRequest itemRequest;
+    private List<Item> requestItems;
+
+    @Setup
+    public void setUp() {
+        context = new AnnotationConfigApplicationContext(ItemMapperImpl.class, BookingMapperImpl.class,
+                BookingShortMapperImpl.class, CommentMapperImpl.class, ItemRequestMapperImpl.class,
+                UserMapperImpl.class);
+        itemMapper = context.getBean(ItemMapper.class);
+        bookingMapper = context.getBean(BookingMapper.class);
+        itemRequestMapper = context.getBean(ItemRequestMapper.class);
+
+        User owner = user(1);
+        User booker = user(2);
+        itemRequest = new ItemRequest();
+        itemRequest.setId(1L);
+        itemRequest.setDescription("need a drill");
+        itemRequest.setRequester(booker);
+        itemRequest.setCreated(NOW);
+        item = item(1, owner, itemRequest);
+        comments = IntStream.range(0, size)
+                .mapToObj(i -> comment(i, item, booker))
+                .collect(Collectors.toList());
+        lastBooking = booking(1, item, booker, NOW.minusDays(2));
+        nextBooking = booking(2, item, booker, NOW.plusDays(2));
+        bookings = IntStream.range(0, size)
+                .mapToObj(i -> booking(i, item(i, owner, null), booker, NOW.plusDays(i)))
+                .collect(Collectors.toList());
+        requestItems = IntStream.range(0, size)
+                .mapToObj(i -> item(i, owner, itemRequest))
+                .collect(Collectors.toList());
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public ItemDtoResponse itemToDtoResponse() {
+        return itemMapper.toDtoResponse(item, comments, lastBooking, nextBooking);
+    }
+
+    @Benchmark
+    public List<BookingDtoResponse> bookingsToDto() {
+        return bookingMapper.toDto(bookings);
+    }
+
+    @Benchmark
+    public ItemRequestDto itemRequestToRequestDto() {
+        return itemRequestMapper.toRequestDto(itemRequest, requestItems);
+    }
+
+    private static User user(long id) {
+        User user = new User();
+        user.setId(id);
+        user.setName("user" + id);
+        user.setEmail("user" + id + "@mail.ru");
+        return user;
+    }
+
+    private static Item item(long id, User owner, ItemRequest request) {
+        Item item = new Item();
+        item.setId(id);
+        item.setName("item" + id);
+        item.setDescription("cordless drill " + id);
+        item.setAvailable(true);
+        item.setOwner(owner);
+        item.setRequest(request);
+        return item;
+    }
+
+    private static Comment comment(long id, Item item, User author) {
+        Comment comment = new Comment();
+        comment.setId(id);
+        comment.setText("works fine " + id);
+        comment.setItem(item);
+        comment.setAuthor(author);
+        comment.setCreated(NOW.minusHours(id));
+        return comment;
+    }
+
+    private static Booking booking(long id, Item item, User booker, LocalDateTime start) {
+        Booking booking = new Booking();
+        booking.setId(id);
+        booking.setStart(start);
+        booking.setEnd(start.plusDays(1));
+        booking.setItem(item);
+        booking.setBooker(booker);
+        booking.setStatus(BookingStatus.APPROVED);
+        return booking;
+    }
+}
@@ -0,0 +1,107 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@State(Scope.Benchmark)
+public class SeededServer {
+    static final int OWNERS = 50;
+    static final int ITEMS_PER_OWNER = 40;
+    static final int BOOKERS = 150;
+    static final int BOOKINGS_PER_ITEM = 10;
+    static final String[] WORDS = {"drill", "saw", "ladder", "tent", "kayak", "projector", "mixer", "scooter"};
+
+    private ConfigurableApplicationContext context;
+    private final List<Long> ownerIds = new ArrayList<>();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // h2 stand-in for the database, the search cache is off so every call reaches the repository
+        context = new SpringApplicationBuilder(ShareItServer.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .run("--spring.jpa.show-sql=false",
+                        "--shareit.item.search.cache.maximum-size=0",
+                        "--logging.level.org.springframework.transaction.interceptor=WARN",
+                        "--logging.level.org.springframework.orm.jpa.JpaTransactionManager=WARN");
+        EntityManager entityManager = SharedEntityManagerCreator.createSharedEntityManager(
+                context.getBean(EntityManagerFactory.class));
+        context.getBean(TransactionTemplate.class).executeWithoutResult(status -> seed(entityManager));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    long ownerId(int index) {
+        return ownerIds.get(index % ownerIds.size());
+    }
+
+    private void seed(EntityManager entityManager) {
+        LocalDateTime now = LocalDateTime.now();
+        List<User> bookers = new ArrayList<>();
+        for (int i = 0; i < BOOKERS; i++) {
+            User booker = user("booker" + i);
+            entityManager.persist(booker);
+            bookers.add(booker);
+        }
+        int itemNumber = 0;
+        for (int i = 0; i < OWNERS; i++) {
+            User owner = user("owner" + i);
+            entityManager.persist(owner);
+            ownerIds.add(owner.getId());
+            for (int j = 0; j < ITEMS_PER_OWNER; j++, itemNumber++) {
+                Item item = new Item();
+                item.setName(WORDS[itemNumber % WORDS.length] + " " + itemNumber);
+                item.setDescription("rent a " + WORDS[(itemNumber / WORDS.length) % WORDS.length] + " for the weekend");
+                item.setAvailable(itemNumber % 10 != 0);
+                item.setOwner(owner);
+                entityManager.persist(item);
+                // bookings spread from the past into the future, one week apart, so every state has rows
+                for (int k = 0; k < BOOKINGS_PER_ITEM; k++) {
+                    Booking booking = new Booking();
+                    booking.setStart(now.plusWeeks(k - BOOKINGS_PER_ITEM / 2).plusHours(j));
+                    booking.setEnd(booking.getStart().plusDays(2));
+                    booking.setItem(item);
+                    booking.setBooker(bookers.get((itemNumber + k) % BOOKERS));
+                    booking.setStatus(BookingStatus.values()[k % BookingStatus.values().length]);
+                    entityManager.persist(booking);
+                }
+            }
+            entityManager.flush();
+            entityManager.clear();
+            bookers.replaceAll(booker -> entityManager.getReference(User.class, booker.getId()));
+        }
+    }
+
+    private static User user(String name) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(name + "@mail.ru");
+        return user;
+    }
+}
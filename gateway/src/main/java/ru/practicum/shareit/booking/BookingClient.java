@@ -3,13 +3,16 @@ package ru.practicum.shareit.booking;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.lang.Nullable;
+import org.springframework.http.client.reactive.ClientHttpConnector;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.booking.dto.BookingDtoRequest;
+import ru.practicum.shareit.booking.dto.BookingStatusBatchDto;
 import ru.practicum.shareit.booking.model.BookingState;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
 
 import java.util.Map;
@@ -20,47 +23,63 @@ public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
 
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public BookingClient(@Value("${shareit-server.url}") String serverUrl,
+                         @Value("${shareit-server.pass-through:true}") boolean passThrough,
+                         WebClient.Builder builder,
+                         ClientHttpConnector connector) {
         super(
                 builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .uriBuilderFactory(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
+                        .clientConnector(connector)
+                        .build(),
+                passThrough
         );
     }
 
-    public ResponseEntity<Object> getBookingById(long bookingId, long userId) {
+    public Mono<ResponseEntity<Object>> getBookingById(long bookingId, long userId) {
         log.debug("BookingClient: get booking by bookingId=" + bookingId + " and userId=" + userId + ".");
         return get("/" + bookingId, userId);
     }
 
-    public ResponseEntity<Object> getAllBookingsByBooker(long userId, BookingState state, long from, int size) {
-        Map<String, Object> parameters = Map.of(
-                "state", state.toString(),
-                "from", from,
-                "size", size
-        );
+    public Mono<ResponseEntity<Object>> getAllBookingsByBooker(long userId, BookingState state, long from, int size,
+                                                               @Nullable String cursor) {
+        Map<String, Object> parameters = pageParameters(from, size, cursor);
+        parameters.put("state", state.toString());
         log.debug("BookingClient: get all bookings by bookerId=" + userId + ".");
-        return get("?state={state}&from={from}&size={size}", userId, parameters);
+        return get("?state={state}&" + pageQuery(cursor), userId, parameters);
     }
 
-    public ResponseEntity<Object> getAllBookingsByOwner(long userId, BookingState state, long from, int size) {
-        Map<String, Object> parameters = Map.of(
-                "state", state.toString(),
-                "from", from,
-                "size", size
-        );
+    public Mono<ResponseEntity<Object>> getAllBookingsByOwner(long userId, BookingState state, long from, int size,
+                                                              @Nullable String cursor) {
+        Map<String, Object> parameters = pageParameters(from, size, cursor);
+        parameters.put("state", state.toString());
         log.debug("BookingClient: get all bookings by bookerId=" + userId + ".");
-        return get("/owner?state={state}&from={from}&size={size}", userId, parameters);
+        return get("/owner?state={state}&" + pageQuery(cursor), userId, parameters);
+    }
+
+    public Mono<ResponseEntity<Object>> getBookingCountsByBooker(long userId) {
+        log.debug("BookingClient: get booking counts by bookerId=" + userId + ".");
+        return get("/counts", userId);
     }
 
-    public ResponseEntity<Object> add(BookingDtoRequest bookingDto, long userId) {
+    public Mono<ResponseEntity<Object>> getBookingCountsByOwner(long userId) {
+        log.debug("BookingClient: get booking counts by ownerId=" + userId + ".");
+        return get("/owner/counts", userId);
+    }
+
+    public Mono<ResponseEntity<Object>> add(BookingDtoRequest bookingDto, long userId) {
         log.debug("BookingClient: add booking by userId=" + userId + " and itemId=" + bookingDto.getItemId() + ".");
         return post("", userId, bookingDto);
     }
 
-    public ResponseEntity<Object> bookingStatus(long bookingId, long userId, boolean approved) {
+    public Mono<ResponseEntity<Object>> bookingStatus(long bookingId, long userId, boolean approved) {
         Map<String, Object> parameters = Map.of("approved", approved);
         return patch("/" + bookingId + "?approved={approved}", userId, parameters, null);
     }
+
+    public Mono<ResponseEntity<Object>> bookingStatuses(BookingStatusBatchDto batchDto, long userId) {
+        log.debug("BookingClient: set status of " + batchDto.getBookingIds().size() + " bookings by userId=" +
+                userId + ".");
+        return patch("", userId, batchDto);
+    }
 }
@@ -5,8 +5,10 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.booking.BookingClient;
 import ru.practicum.shareit.booking.dto.BookingDtoRequest;
+import ru.practicum.shareit.booking.dto.BookingStatusBatchDto;
 import ru.practicum.shareit.booking.model.BookingState;
 
 import javax.validation.Valid;
@@ -22,39 +24,57 @@ public class BookingController {
     private final BookingClient bookingClient;
 
     @GetMapping("/{bookingId}")
-    public ResponseEntity<Object> getBookingById(@PathVariable long bookingId,
+    public Mono<ResponseEntity<Object>> getBookingById(@PathVariable long bookingId,
                                          @RequestHeader("X-Sharer-User-Id") long userId) {
         return bookingClient.getBookingById(bookingId, userId);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getAllBookingsByBooker(
+    public Mono<ResponseEntity<Object>> getAllBookingsByBooker(
             @RequestParam(defaultValue = "ALL") String state,
             @RequestHeader("X-Sharer-User-Id") long userId,
             @RequestParam(defaultValue = "0") @PositiveOrZero Long from,
-            @RequestParam(defaultValue = "10") @Positive Integer size) {
-        return bookingClient.getAllBookingsByBooker(userId, BookingState.converter(state), from, size);
+            @RequestParam(defaultValue = "10") @Positive Integer size,
+            @RequestParam(required = false) String cursor) {
+        return bookingClient.getAllBookingsByBooker(userId, BookingState.converter(state), from, size, cursor);
     }
 
     @GetMapping("/owner")
-    public ResponseEntity<Object> getAllBookingsByOwner(
+    public Mono<ResponseEntity<Object>> getAllBookingsByOwner(
             @RequestParam(defaultValue = "ALL") String state,
             @RequestHeader("X-Sharer-User-Id") long userId,
             @RequestParam(defaultValue = "0") @PositiveOrZero Long from,
-            @RequestParam(defaultValue = "10") @Positive Integer size) {
-        return bookingClient.getAllBookingsByOwner(userId, BookingState.converter(state), from, size);
+            @RequestParam(defaultValue = "10") @Positive Integer size,
+            @RequestParam(required = false) String cursor) {
+        return bookingClient.getAllBookingsByOwner(userId, BookingState.converter(state), from, size, cursor);
+    }
+
+    @GetMapping("/counts")
+    public Mono<ResponseEntity<Object>> getBookingCountsByBooker(@RequestHeader("X-Sharer-User-Id") long userId) {
+        return bookingClient.getBookingCountsByBooker(userId);
+    }
+
+    @GetMapping("/owner/counts")
+    public Mono<ResponseEntity<Object>> getBookingCountsByOwner(@RequestHeader("X-Sharer-User-Id") long userId) {
+        return bookingClient.getBookingCountsByOwner(userId);
     }
 
     @PostMapping
-    public ResponseEntity<Object> add(@RequestBody @Valid BookingDtoRequest bookingDto,
+    public Mono<ResponseEntity<Object>> add(@RequestBody @Valid BookingDtoRequest bookingDto,
                                   @RequestHeader("X-Sharer-User-Id") long userId) {
         return bookingClient.add(bookingDto, userId);
     }
 
     @PatchMapping("/{bookingId}")
-    public ResponseEntity<Object> bookingStatus(@PathVariable long bookingId,
+    public Mono<ResponseEntity<Object>> bookingStatus(@PathVariable long bookingId,
                                             @RequestParam boolean approved,
                                             @RequestHeader("X-Sharer-User-Id") long userId) {
         return bookingClient.bookingStatus(bookingId, userId, approved);
     }
-}
\ No newline at end of file
+
+    @PatchMapping
+    public Mono<ResponseEntity<Object>> bookingStatuses(@RequestBody @Valid BookingStatusBatchDto batchDto,
+                                                        @RequestHeader("X-Sharer-User-Id") long userId) {
+        return bookingClient.bookingStatuses(batchDto, userId);
+    }
+}
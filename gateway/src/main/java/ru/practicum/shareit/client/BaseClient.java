@@ -1,118 +1,211 @@
 package ru.practicum.shareit.client;
 
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
 import org.springframework.http.*;
 import org.springframework.lang.Nullable;
-import org.springframework.web.client.HttpStatusCodeException;
-import org.springframework.web.client.RestTemplate;
-
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 
 public class BaseClient {
-    protected final RestTemplate restTemplate;
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final List<String> PASS_THROUGH_HEADERS = List.of(
+            HttpHeaders.CONTENT_TYPE,
+            HttpHeaders.CONTENT_LANGUAGE,
+            NEXT_CURSOR_HEADER
+    );
+    private static final List<String> OBJECT_HEADERS = List.of(NEXT_CURSOR_HEADER);
+
+    protected final WebClient webClient;
+    private final boolean passThrough;
+
+    public BaseClient(WebClient webClient) {
+        this(webClient, false);
+    }
+
+    public BaseClient(WebClient webClient, boolean passThrough) {
+        this.webClient = webClient;
+        this.passThrough = passThrough;
+    }
 
-    public BaseClient(RestTemplate restTemplate) {
-        this.restTemplate = restTemplate;
+    protected static Map<String, Object> pageParameters(long from, int size, @Nullable String cursor) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("from", from);
+        parameters.put("size", size);
+        if (cursor != null) {
+            parameters.put("cursor", cursor);
+        }
+        return parameters;
     }
 
-    protected ResponseEntity<Object> get(String path) {
+    protected static String pageQuery(@Nullable String cursor) {
+        return cursor == null ? "from={from}&size={size}" : "from={from}&size={size}&cursor={cursor}";
+    }
+
+    protected Mono<ResponseEntity<Object>> get(String path) {
         return get(path, null, null);
     }
 
-    protected ResponseEntity<Object> get(String path, long userId) {
+    protected Mono<ResponseEntity<Object>> get(String path, long userId) {
         return get(path, userId, null);
     }
 
-    protected ResponseEntity<Object> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
+    protected Mono<ResponseEntity<Object>> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
         return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, T body) {
+    protected <T> Mono<ResponseEntity<Object>> post(String path, T body) {
         return post(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<Object>> post(String path, long userId, T body) {
         return post(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, Long userId,
-                                              @Nullable Map<String, Object> parameters, T body) {
+    protected <T> Mono<ResponseEntity<Object>> post(String path, Long userId,
+                                                    @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, T body) {
+    // the answer is relayed chunk by chunk as it arrives, so a long import never sits in the gateway's memory
+    protected Mono<ResponseEntity<StreamingResponseBody>> postStream(String path, long userId, MediaType contentType,
+                                                                     Flux<DataBuffer> body) {
+        return webClient.post()
+                .uri(path)
+                .headers(headers -> {
+                    defaultHeaders(headers, userId);
+                    headers.setContentType(contentType);
+                    headers.setAccept(List.of(MediaType.APPLICATION_NDJSON, MediaType.APPLICATION_JSON));
+                })
+                .body(BodyInserters.fromDataBuffers(body))
+                .retrieve()
+                .onStatus(HttpStatus::isError, response -> Mono.empty())
+                .toEntityFlux(DataBuffer.class)
+                .map(entity -> {
+                    ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(entity.getStatusCode());
+                    copyHeaders(responseBuilder, entity.getHeaders(), PASS_THROUGH_HEADERS);
+                    return responseBuilder.body(output -> relay(entity.getBody(), output));
+                });
+    }
+
+    protected <T> Mono<ResponseEntity<Object>> put(String path, long userId, T body) {
         return put(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId,
-                                             @Nullable Map<String, Object> parameters, T body) {
+    protected <T> Mono<ResponseEntity<Object>> put(String path, long userId,
+                                                   @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.PUT, path, userId, parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, T body) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, T body) {
         return patch(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, long userId) {
         return patch(path, userId, null, null);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, long userId, T body) {
         return patch(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, Long userId,
-                                               @Nullable Map<String, Object> parameters, T body) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, Long userId,
+                                                     @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.PATCH, path, userId, parameters, body);
     }
 
-    protected ResponseEntity<Object> delete(String path) {
+    protected Mono<ResponseEntity<Object>> delete(String path) {
         return delete(path, null, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, long userId) {
+    protected Mono<ResponseEntity<Object>> delete(String path, long userId) {
         return delete(path, userId, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
+    protected Mono<ResponseEntity<Object>> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
         return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
     }
 
-    private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId,
-                                                          @Nullable Map<String, Object> parameters, @Nullable T body) {
-        HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
-        ResponseEntity<Object> shareItServerResponse;
-        try {
-            if (parameters != null) {
-                shareItServerResponse = restTemplate.exchange(path, method, requestEntity, Object.class, parameters);
-            } else {
-                shareItServerResponse = restTemplate.exchange(path, method, requestEntity, Object.class);
-            }
-        } catch (HttpStatusCodeException e) {
-            return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
-        }
-        return prepareGatewayResponse(shareItServerResponse);
+    private <T> Mono<ResponseEntity<Object>> makeAndSendRequest(HttpMethod method, String path, Long userId,
+                                                                @Nullable Map<String, Object> parameters,
+                                                                @Nullable T body) {
+        WebClient.RequestBodySpec request = webClient.method(method)
+                .uri(path, Objects.requireNonNullElse(parameters, Map.of()))
+                .headers(headers -> defaultHeaders(headers, userId));
+        WebClient.RequestHeadersSpec<?> requestWithBody = body != null ? request.bodyValue(body) : request;
+        return requestWithBody.exchangeToMono(this::prepareGatewayResponse);
     }
 
-    private HttpHeaders defaultHeaders(Long userId) {
-        HttpHeaders headers = new HttpHeaders();
+    private void defaultHeaders(HttpHeaders headers, Long userId) {
         headers.setContentType(MediaType.APPLICATION_JSON);
         headers.setAccept(List.of(MediaType.APPLICATION_JSON));
         if (userId != null) {
             headers.set("X-Sharer-User-Id", String.valueOf(userId));
         }
-        return headers;
     }
 
-    private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<Object> response) {
-        if (response.getStatusCode().is2xxSuccessful()) {
-            return response;
+    private Mono<ResponseEntity<Object>> prepareGatewayResponse(ClientResponse response) {
+        if (passThrough || response.statusCode().isError()) {
+            return response.toEntity(byte[].class)
+                    .map(entity -> prepareRawResponse(entity.getStatusCode(), entity.getHeaders(), entity.getBody()));
+        }
+        return response.toEntity(Object.class)
+                .map(entity -> {
+                    ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(entity.getStatusCode());
+                    copyHeaders(responseBuilder, entity.getHeaders(), OBJECT_HEADERS);
+                    if (entity.hasBody()) {
+                        return responseBuilder.body(entity.getBody());
+                    }
+                    return responseBuilder.build();
+                });
+    }
+
+    private static void relay(@Nullable Flux<DataBuffer> body, OutputStream output) {
+        if (body == null) {
+            return;
         }
+        DataBufferUtils.write(body, output)
+                .doOnNext(buffer -> {
+                    DataBufferUtils.release(buffer);
+                    flush(output);
+                })
+                .blockLast();
+    }
 
-        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
-        if (response.hasBody()) {
-            return responseBuilder.body(response.getBody());
+    private static void flush(OutputStream output) {
+        try {
+            output.flush();
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    private static ResponseEntity<Object> prepareRawResponse(HttpStatus status, HttpHeaders serverHeaders,
+                                                             @Nullable byte[] body) {
+        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(status);
+        copyHeaders(responseBuilder, serverHeaders, PASS_THROUGH_HEADERS);
+        if (body != null) {
+            return responseBuilder.body(body);
         }
         return responseBuilder.build();
     }
-}
\ No newline at end of file
+
+    private static void copyHeaders(ResponseEntity.BodyBuilder responseBuilder, HttpHeaders serverHeaders,
+                                    List<String> headers) {
+        headers.stream()
+                .filter(serverHeaders::containsKey)
+                .forEach(header -> responseBuilder.header(header, serverHeaders.getFirst(header)));
+    }
+}
@@ -0,0 +1,22 @@
+package ru.practicum.shareit.client;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "shareit-server.http-client")
+@Getter
+@Setter
+public class ShareItServerClientProperties {
+    private int maxConnections = 1000;
+    private int pendingAcquireMaxCount = 50000;
+    private int eventLoopThreads = 4;
+    private Duration connectTimeout = Duration.ofSeconds(2);
+    private Duration readTimeout = Duration.ofSeconds(30);
+    private Duration leaseTimeout = Duration.ofSeconds(30);
+    private Duration maxIdleTime = Duration.ofSeconds(30);
+    private Duration maxLifeTime = Duration.ofMinutes(5);
+    private Duration idleEviction = Duration.ofSeconds(30);
+}
@@ -8,6 +8,7 @@ import org.springframework.web.bind.MissingRequestHeaderException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
 
 import javax.validation.ConstraintViolationException;
 import java.util.Map;
@@ -68,6 +69,16 @@ public class ErrorHandler {
         return result;
     }
 
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public Map<String, String> handleWebClientRequestException(WebClientRequestException exception) {
+        String message = exception.getMessage();
+        Map<String, String> result = Map.of("Service Unavailable",
+                Objects.isNull(message) ? "Details unknown" : message);
+        log.warn(String.valueOf(result), exception);
+        return result;
+    }
+
     @ExceptionHandler
     @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
     public Map<String, String> handleUnexpectedException(Throwable exception) {
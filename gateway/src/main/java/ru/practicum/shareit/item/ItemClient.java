@@ -2,69 +2,102 @@ package ru.practicum.shareit.item;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.http.client.reactive.ClientHttpConnector;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import ru.practicum.shareit.item.dto.CommentDtoRequest;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemPatchDto;
 
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 @Service
 @Slf4j
 public class ItemClient extends BaseClient {
     private static final String API_PREFIX = "/items";
 
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemClient(@Value("${shareit-server.url}") String serverUrl,
+                      @Value("${shareit-server.pass-through:true}") boolean passThrough,
+                      WebClient.Builder builder,
+                      ClientHttpConnector connector) {
         super(
                 builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .uriBuilderFactory(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
+                        .clientConnector(connector)
+                        .build(),
+                passThrough
         );
     }
 
-    public ResponseEntity<Object> getById(long itemId, long userId) {
+    public Mono<ResponseEntity<Object>> getById(long itemId, long userId) {
         log.debug("ItemClient: get item by itemId=" + itemId + " and userId=" + userId + ".");
         return get("/" + itemId, userId);
     }
 
-    public ResponseEntity<Object> getAll(long userId, long from, int size) {
-        Map<String, Object> parameters = Map.of(
-                "from", from,
-                "size", size
-        );
+    public Mono<ResponseEntity<Object>> getAll(long userId, long from, int size, @Nullable String cursor) {
+        Map<String, Object> parameters = pageParameters(from, size, cursor);
         log.debug("ItemClient: get all item by userId=" + userId + ".");
-        return get("?from={from}&size={size}", userId, parameters);
+        return get("?" + pageQuery(cursor), userId, parameters);
+    }
+
+    public Mono<ResponseEntity<Object>> getAvailability(long itemId, LocalDateTime from, LocalDateTime to) {
+        log.debug("ItemClient: get availability of itemId=" + itemId + " from " + from + " to " + to + ".");
+        return get("/" + itemId + "/availability?from={from}&to={to}", null, rangeParameters(from, to));
+    }
+
+    public Mono<ResponseEntity<Object>> getAvailability(List<Long> itemIds, LocalDateTime from, LocalDateTime to) {
+        Map<String, Object> parameters = rangeParameters(from, to);
+        parameters.put("ids", itemIds.stream().map(String::valueOf).collect(Collectors.joining(",")));
+        log.debug("ItemClient: get availability of itemIds=" + itemIds + " from " + from + " to " + to + ".");
+        return get("/availability?ids={ids}&from={from}&to={to}", null, parameters);
     }
 
-    public ResponseEntity<Object> add(ItemDto itemDto, long userId) {
+    public Mono<ResponseEntity<Object>> add(ItemDto itemDto, long userId) {
         log.debug("ItemClient: add item by userId=" + userId + " and itemId=" + itemDto.getId() + ".");
         return super.post("", userId, itemDto);
     }
 
-    public ResponseEntity<Object> addComment(CommentDtoRequest dto, long itemId, long userId) {
+    public Mono<ResponseEntity<StreamingResponseBody>> importItems(Flux<DataBuffer> body, MediaType contentType,
+                                                                   long userId) {
+        log.debug("ItemClient: import items by userId=" + userId + ".");
+        return postStream("/import", userId, contentType, body);
+    }
+
+    public Mono<ResponseEntity<Object>> addComment(CommentDtoRequest dto, long itemId, long userId) {
         log.debug("ItemClient: add comment by userId=" + userId + " and itemId=" + itemId +
                 "and comment=" + dto.getText() + ".");
         return post("/" + itemId + "/comment", userId, dto);
     }
 
-    public ResponseEntity<Object> patch(long itemId, ItemPatchDto patchDto, long userId) {
+    public Mono<ResponseEntity<Object>> patch(long itemId, ItemPatchDto patchDto, long userId) {
         log.debug("ItemClient: patch item by userId=" + userId + " and itemId=" + itemId + ".");
         return patch("/" + itemId, userId, patchDto);
     }
 
-    public ResponseEntity<Object> search(String text, long from, int size) {
-        Map<String, Object> parameters = Map.of(
-                "from", from,
-                "size", size,
-                "text", text
-        );
+    public Mono<ResponseEntity<Object>> search(String text, long from, int size, @Nullable String cursor) {
+        Map<String, Object> parameters = pageParameters(from, size, cursor);
+        parameters.put("text", text);
         log.debug("ItemClient: search item by text=" + text + ".");
-        return get("/search?from={from}&size={size}&text={text}", null, parameters);
+        return get("/search?" + pageQuery(cursor) + "&text={text}", null, parameters);
+    }
+
+    private static Map<String, Object> rangeParameters(LocalDateTime from, LocalDateTime to) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("from", from);
+        parameters.put("to", to);
+        return parameters;
     }
 }
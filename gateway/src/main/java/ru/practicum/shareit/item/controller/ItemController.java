@@ -2,63 +2,127 @@ package ru.practicum.shareit.item.controller;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import ru.practicum.shareit.exception.CustomValidationException;
 import ru.practicum.shareit.item.ItemClient;
 import ru.practicum.shareit.item.dto.CommentDtoRequest;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemPatchDto;
 
+import javax.servlet.http.HttpServletRequest;
 import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import javax.validation.constraints.Size;
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.Collections;
+import java.util.List;
 
 @RestController
 @RequestMapping("/items")
 @RequiredArgsConstructor(onConstructor = @__(@Autowired))
 @Validated
 public class ItemController {
+    private static final int IMPORT_BUFFER_SIZE = 8192;
+    private static final Duration MAX_AVAILABILITY_RANGE = Duration.ofDays(366);
+
     private final ItemClient itemClient;
 
     @GetMapping("/{id}")
-    public ResponseEntity<Object> getById(@PathVariable long id,
-                                          @RequestHeader("X-Sharer-User-Id") long userId) {
+    public Mono<ResponseEntity<Object>> getById(@PathVariable long id,
+                                                @RequestHeader("X-Sharer-User-Id") long userId) {
         return itemClient.getById(id, userId);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getAll(@RequestHeader("X-Sharer-User-Id") long userId,
+    public Mono<ResponseEntity<Object>> getAll(@RequestHeader("X-Sharer-User-Id") long userId,
                                         @RequestParam(defaultValue = "0") @PositiveOrZero Long from,
-                                        @RequestParam(defaultValue = "10") @Positive Integer size) {
-        return itemClient.getAll(userId, from, size);
+                                        @RequestParam(defaultValue = "10") @Positive Integer size,
+                                        @RequestParam(required = false) String cursor) {
+        return itemClient.getAll(userId, from, size, cursor);
+    }
+
+    @GetMapping("/{id}/availability")
+    public Mono<ResponseEntity<Object>> getAvailability(
+            @PathVariable long id,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        validateAvailabilityRange(from, to);
+        return itemClient.getAvailability(id, from, to);
+    }
+
+    @GetMapping("/availability")
+    public Mono<ResponseEntity<Object>> getAvailability(
+            @RequestParam @NotEmpty @Size(max = 100) List<@NotNull Long> ids,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        validateAvailabilityRange(from, to);
+        return itemClient.getAvailability(ids, from, to);
     }
 
     @PostMapping
-    public ResponseEntity<Object> add(@RequestBody @Valid ItemDto itemDto,
+    public Mono<ResponseEntity<Object>> add(@RequestBody @Valid ItemDto itemDto,
                        @RequestHeader("X-Sharer-User-Id") long userId) {
         return itemClient.add(itemDto, userId);
     }
 
+    @PostMapping(value = "/import", consumes = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public Mono<ResponseEntity<StreamingResponseBody>> importItems(
+            HttpServletRequest request,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+            @RequestHeader("X-Sharer-User-Id") long userId) {
+        Flux<DataBuffer> body = DataBufferUtils.readInputStream(request::getInputStream,
+                        DefaultDataBufferFactory.sharedInstance, IMPORT_BUFFER_SIZE)
+                .subscribeOn(Schedulers.boundedElastic());
+        return itemClient.importItems(body, contentType, userId);
+    }
+
     @PostMapping("/{itemId}/comment")
-    public ResponseEntity<Object> addComment(@RequestBody @Valid CommentDtoRequest commentDtoRequest,
+    public Mono<ResponseEntity<Object>> addComment(@RequestBody @Valid CommentDtoRequest commentDtoRequest,
                                          @PathVariable long itemId,
                                          @RequestHeader("X-Sharer-User-Id") long userId) {
         return itemClient.addComment(commentDtoRequest, itemId, userId);
     }
 
     @PatchMapping("/{id}")
-    public ResponseEntity<Object> patch(@PathVariable long id,
+    public Mono<ResponseEntity<Object>> patch(@PathVariable long id,
                          @RequestBody @Valid ItemPatchDto patchDto,
                          @RequestHeader("X-Sharer-User-Id") long userId) {
         return itemClient.patch(id, patchDto, userId);
     }
 
     @GetMapping("/search")
-    public ResponseEntity<Object> search(@RequestParam String text,
+    public Mono<ResponseEntity<Object>> search(@RequestParam String text,
                                 @RequestParam(defaultValue = "0") @PositiveOrZero Long from,
-                                @RequestParam(defaultValue = "10") @Positive Integer size) {
-        return text.isBlank() ? ResponseEntity.ok(Collections.emptyList()) : itemClient.search(text, from, size);
+                                @RequestParam(defaultValue = "10") @Positive Integer size,
+                                @RequestParam(required = false) String cursor) {
+        return text.isBlank()
+                ? Mono.just(ResponseEntity.ok(Collections.emptyList()))
+                : itemClient.search(text, from, size, cursor);
+    }
+
+    private static void validateAvailabilityRange(LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            throw new CustomValidationException("Availability range start is not earlier than end.");
+        }
+        if (Duration.between(from, to).compareTo(MAX_AVAILABILITY_RANGE) > 0) {
+            throw new CustomValidationException("Availability range is longer than " +
+                    MAX_AVAILABILITY_RANGE.toDays() + " days.");
+        }
     }
 }
@@ -5,6 +5,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.request.ItemRequestClient;
 import ru.practicum.shareit.request.dto.ItemRequestDtoRequest;
 
@@ -21,27 +22,28 @@ public class ItemRequestController {
     private final ItemRequestClient itemRequestClient;
 
     @GetMapping("/{requestId}")
-    public ResponseEntity<Object> findById(@PathVariable long requestId,
-                                           @RequestHeader("X-Sharer-User-Id") long userId) {
+    public Mono<ResponseEntity<Object>> findById(@PathVariable long requestId,
+                                                 @RequestHeader("X-Sharer-User-Id") long userId) {
         return itemRequestClient.findById(requestId, userId);
     }
 
     @GetMapping("/all")
-    public ResponseEntity<Object> findAllByOtherUsers(
+    public Mono<ResponseEntity<Object>> findAllByOtherUsers(
             @RequestParam(defaultValue = "0") @PositiveOrZero Long from,
             @RequestParam(defaultValue = "10") @Positive Integer size,
+            @RequestParam(required = false) String cursor,
             @RequestHeader("X-Sharer-User-Id") long userId) {
-        return itemRequestClient.findByOtherUsers(userId, from, size);
+        return itemRequestClient.findByOtherUsers(userId, from, size, cursor);
     }
 
     @GetMapping
-    public ResponseEntity<Object> findByUser(@RequestHeader("X-Sharer-User-Id") long userId) {
+    public Mono<ResponseEntity<Object>> findByUser(@RequestHeader("X-Sharer-User-Id") long userId) {
         return itemRequestClient.findByRequester(userId);
     }
 
     @PostMapping
-    public ResponseEntity<Object> add(@RequestBody @Valid ItemRequestDtoRequest itemRequestDtoRequest,
-                                      @RequestHeader("X-Sharer-User-Id") long userId) {
+    public Mono<ResponseEntity<Object>> add(@RequestBody @Valid ItemRequestDtoRequest itemRequestDtoRequest,
+                                            @RequestHeader("X-Sharer-User-Id") long userId) {
         return itemRequestClient.add(itemRequestDtoRequest, userId);
     }
 }
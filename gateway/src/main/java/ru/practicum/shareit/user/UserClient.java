@@ -3,11 +3,12 @@ package ru.practicum.shareit.user;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.reactive.ClientHttpConnector;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserPatchDto;
@@ -18,36 +19,40 @@ public class UserClient extends BaseClient {
     private static final String API_PREFIX = "/users";
 
     @Autowired
-    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public UserClient(@Value("${shareit-server.url}") String serverUrl,
+                      @Value("${shareit-server.pass-through:true}") boolean passThrough,
+                      WebClient.Builder builder,
+                      ClientHttpConnector connector) {
         super(
                 builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .uriBuilderFactory(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
+                        .clientConnector(connector)
+                        .build(),
+                passThrough
         );
     }
 
-    public ResponseEntity<Object> getById(long userId) {
+    public Mono<ResponseEntity<Object>> getById(long userId) {
         log.debug("UserClient: get user by userId=" + userId + ".");
         return get("/" + userId);
     }
 
-    public ResponseEntity<Object> getAll() {
+    public Mono<ResponseEntity<Object>> getAll() {
         log.debug("UserClient: get all users.");
         return get("");
     }
 
-    public ResponseEntity<Object> add(UserDto userDto) {
+    public Mono<ResponseEntity<Object>> add(UserDto userDto) {
         log.debug("UserClient: add user by userId=" + userDto.getId() + ".");
         return post("", userDto);
     }
 
-    public ResponseEntity<Object> patch(long id, UserPatchDto patchDto) {
+    public Mono<ResponseEntity<Object>> patch(long id, UserPatchDto patchDto) {
         log.debug("UserClient: patch user by userId=" + id + ".");
         return patch("/" + id, patchDto);
     }
 
-    public ResponseEntity<Object> delete(long id) {
+    public Mono<ResponseEntity<Object>> delete(long id) {
         log.debug("UserClient: delete user by userId=" + id + ".");
         return delete("/" + id);
     }
@@ -4,6 +4,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.user.UserClient;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserPatchDto;
@@ -17,27 +18,27 @@ public class UserController {
     private final UserClient userClient;
 
     @GetMapping("/{id}")
-    public ResponseEntity<Object> getById(@PathVariable long id) {
+    public Mono<ResponseEntity<Object>> getById(@PathVariable long id) {
         return userClient.getById(id);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getAll() {
+    public Mono<ResponseEntity<Object>> getAll() {
         return userClient.getAll();
     }
 
     @PostMapping
-    public ResponseEntity<Object> add(@RequestBody @Valid UserDto userDto) {
+    public Mono<ResponseEntity<Object>> add(@RequestBody @Valid UserDto userDto) {
         return userClient.add(userDto);
     }
 
     @PatchMapping("/{id}")
-    public ResponseEntity<Object> patch(@PathVariable long id, @RequestBody @Valid UserPatchDto patchDto) {
+    public Mono<ResponseEntity<Object>> patch(@PathVariable long id, @RequestBody @Valid UserPatchDto patchDto) {
         return userClient.patch(id, patchDto);
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<Object> delete(@PathVariable long id) {
+    public Mono<ResponseEntity<Object>> delete(@PathVariable long id) {
         return userClient.delete(id);
     }
 }
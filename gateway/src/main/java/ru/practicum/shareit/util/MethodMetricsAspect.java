@@ -0,0 +1,86 @@
+package ru.practicum.shareit.util;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.booking.model.BookingState;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+@Aspect
+@Component
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+public class MethodMetricsAspect {
+    private static final String NONE = "none";
+
+    private final MeterRegistry meterRegistry;
+
+    @Around("execution(public * ru.practicum.shareit..controller.*Controller.*(..))")
+    public Object timeController(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time("controller.calls", "Controller method latency", joinPoint);
+    }
+
+    @Around("execution(public * ru.practicum.shareit..*Client.*(..))")
+    public Object timeClient(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time("client.calls", "Upstream call latency per client method", joinPoint);
+    }
+
+    // methods only build the mono, the time that matters is until the upstream answers
+    private Object time(String name, String description, ProceedingJoinPoint joinPoint) throws Throwable {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        Object result;
+        try {
+            result = joinPoint.proceed();
+        } catch (Throwable throwable) {
+            stop(sample, name, description, joinPoint, throwable.getClass().getSimpleName());
+            throw throwable;
+        }
+        if (!(result instanceof Mono)) {
+            stop(sample, name, description, joinPoint, NONE);
+            return result;
+        }
+        return ((Mono<?>) result)
+                .doOnSuccess(value -> stop(sample, name, description, joinPoint, NONE))
+                .doOnError(error -> stop(sample, name, description, joinPoint, error.getClass().getSimpleName()))
+                .doOnCancel(() -> stop(sample, name, description, joinPoint, "cancelled"));
+    }
+
+    private void stop(Timer.Sample sample, String name, String description, ProceedingJoinPoint joinPoint,
+                      String exception) {
+        sample.stop(Timer.builder(name)
+                .description(description)
+                .tag("class", joinPoint.getSignature().getDeclaringType().getSimpleName())
+                .tag("method", joinPoint.getSignature().getName())
+                .tag("state", state(joinPoint))
+                .tag("exception", exception)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofSeconds(30))
+                .register(meterRegistry));
+    }
+
+    // controllers get the raw request parameter, so only known states become tag values
+    static String state(ProceedingJoinPoint joinPoint) {
+        Object[] args = joinPoint.getArgs();
+        String[] names = ((MethodSignature) joinPoint.getSignature()).getParameterNames();
+        for (int i = 0; i < args.length; i++) {
+            if (args[i] instanceof BookingState) {
+                return ((BookingState) args[i]).name();
+            }
+            if (args[i] instanceof String && names != null && "state".equals(names[i])) {
+                String state = (String) args[i];
+                return Arrays.stream(BookingState.values()).anyMatch(known -> known.name().equals(state))
+                        ? state : "UNKNOWN";
+            }
+        }
+        return NONE;
+    }
+}
@@ -15,11 +15,17 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.booking.BookingClient;
 import ru.practicum.shareit.booking.dto.BookingDtoRequest;
+import ru.practicum.shareit.booking.dto.BookingStatusBatchDto;
 import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.model.BookingStatus;
 
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -106,7 +112,7 @@ class BookingControllerTest {
                         .header("X-Sharer-User-Id", bookingBuilder.bookerId()))
                 .andExpect(status().isBadRequest());
 
-        verify(bookingClient, never()).getAllBookingsByBooker(anyLong(), any(), anyLong(), anyInt());
+        verify(bookingClient, never()).getAllBookingsByBooker(anyLong(), any(), anyLong(), anyInt(), any());
     }
 
     @Test
@@ -117,7 +123,7 @@ class BookingControllerTest {
                         .header("X-Sharer-User-Id", bookingBuilder.bookerId()))
                 .andExpect(status().isBadRequest());
 
-        verify(bookingClient, never()).getAllBookingsByBooker(anyLong(), any(), anyLong(), anyInt());
+        verify(bookingClient, never()).getAllBookingsByBooker(anyLong(), any(), anyLong(), anyInt(), any());
     }
 
     @Test
@@ -128,7 +134,7 @@ class BookingControllerTest {
                         .header("X-Sharer-User-Id", bookingBuilder.bookerId()))
                 .andExpect(status().isBadRequest());
 
-        verify(bookingClient, never()).getAllBookingsByBooker(anyLong(), any(), anyLong(), anyInt());
+        verify(bookingClient, never()).getAllBookingsByBooker(anyLong(), any(), anyLong(), anyInt(), any());
     }
 
     @Test
@@ -139,7 +145,7 @@ class BookingControllerTest {
                         .header("X-Sharer-User-Id", bookingBuilder.bookerId()))
                 .andExpect(status().isBadRequest());
 
-        verify(bookingClient, never()).getAllBookingsByBooker(anyLong(), any(), anyLong(), anyInt());
+        verify(bookingClient, never()).getAllBookingsByBooker(anyLong(), any(), anyLong(), anyInt(), any());
     }
 
     @Test
@@ -149,7 +155,7 @@ class BookingControllerTest {
                         .header("X-Sharer-User-Id", bookingBuilder.itemOwnerId()))
                 .andExpect(status().isBadRequest());
 
-        verify(bookingClient, never()).getAllBookingsByOwner(anyLong(), any(), anyLong(), anyInt());
+        verify(bookingClient, never()).getAllBookingsByOwner(anyLong(), any(), anyLong(), anyInt(), any());
     }
 
     @Test
@@ -160,7 +166,7 @@ class BookingControllerTest {
                         .header("X-Sharer-User-Id", bookingBuilder.itemOwnerId()))
                 .andExpect(status().isBadRequest());
 
-        verify(bookingClient, never()).getAllBookingsByOwner(anyLong(), any(), anyLong(), anyInt());
+        verify(bookingClient, never()).getAllBookingsByOwner(anyLong(), any(), anyLong(), anyInt(), any());
     }
 
     @Test
@@ -171,7 +177,7 @@ class BookingControllerTest {
                         .header("X-Sharer-User-Id", bookingBuilder.itemOwnerId()))
                 .andExpect(status().isBadRequest());
 
-        verify(bookingClient, never()).getAllBookingsByOwner(anyLong(), any(), anyLong(), anyInt());
+        verify(bookingClient, never()).getAllBookingsByOwner(anyLong(), any(), anyLong(), anyInt(), any());
     }
 
     @Test
@@ -182,6 +188,49 @@ class BookingControllerTest {
                         .header("X-Sharer-User-Id", bookingBuilder.itemOwnerId()))
                 .andExpect(status().isBadRequest());
 
-        verify(bookingClient, never()).getAllBookingsByOwner(anyLong(), any(), anyLong(), anyInt());
+        verify(bookingClient, never()).getAllBookingsByOwner(anyLong(), any(), anyLong(), anyInt(), any());
     }
-}
\ No newline at end of file
+
+    @Test
+    void givenEmptyBatch_whenBookingStatuses_thenStatusBadRequest() throws Exception {
+        mvc.perform(patch("/bookings")
+                        .content(objectMapper.writeValueAsString(
+                                new BookingStatusBatchDto(Collections.emptyList(), true)))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("X-Sharer-User-Id", bookingBuilder.itemOwnerId()))
+                .andExpect(status().isBadRequest());
+
+        verify(bookingClient, never()).bookingStatuses(any(), anyLong());
+    }
+
+    @Test
+    void givenBatchWithNullIdOrDecision_whenBookingStatuses_thenStatusBadRequest() throws Exception {
+        mvc.perform(patch("/bookings")
+                        .content(objectMapper.writeValueAsString(
+                                new BookingStatusBatchDto(Arrays.asList(1L, null), true)))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("X-Sharer-User-Id", bookingBuilder.itemOwnerId()))
+                .andExpect(status().isBadRequest());
+
+        mvc.perform(patch("/bookings")
+                        .content(objectMapper.writeValueAsString(new BookingStatusBatchDto(List.of(1L), null)))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("X-Sharer-User-Id", bookingBuilder.itemOwnerId()))
+                .andExpect(status().isBadRequest());
+
+        verify(bookingClient, never()).bookingStatuses(any(), anyLong());
+    }
+
+    @Test
+    void givenTooLargeBatch_whenBookingStatuses_thenStatusBadRequest() throws Exception {
+        List<Long> bookingIds = LongStream.rangeClosed(1, 1001).boxed().collect(Collectors.toList());
+
+        mvc.perform(patch("/bookings")
+                        .content(objectMapper.writeValueAsString(new BookingStatusBatchDto(bookingIds, true)))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("X-Sharer-User-Id", bookingBuilder.itemOwnerId()))
+                .andExpect(status().isBadRequest());
+
+        verify(bookingClient, never()).bookingStatuses(any(), anyLong());
+    }
+}
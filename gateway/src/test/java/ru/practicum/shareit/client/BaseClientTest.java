@@ -0,0 +1,157 @@
+package ru.practicum.shareit.client;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.http.client.reactive.MockClientHttpRequest;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeStrategies;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BaseClientTest {
+    private static final String NEXT_CURSOR = "fDI";
+    private static final String BODY = "[{\"id\":1,\"name\":\"Дрель\"},{\"id\":2,\"name\":\"Отвертка\"}]";
+
+    private static final String IMPORT_RESULT = "{\"row\":1,\"id\":10}\n{\"imported\":1,\"failed\":0}\n";
+
+    private final AtomicReference<ClientRequest> lastRequest = new AtomicReference<>();
+
+    private final AtomicReference<String> lastRequestBody = new AtomicReference<>();
+
+    private static class TestClient extends BaseClient {
+        TestClient(WebClient webClient, boolean passThrough) {
+            super(webClient, passThrough);
+        }
+
+        ResponseEntity<Object> getItems(long userId, int from) {
+            return get("/items?from={from}", userId, Map.of("from", from)).block();
+        }
+
+        ResponseEntity<Object> getItemsPage(long userId, int size, String cursor) {
+            return get("/items?" + pageQuery(cursor), userId, pageParameters(0, size, cursor)).block();
+        }
+
+        ResponseEntity<StreamingResponseBody> importItems(long userId, MediaType contentType,
+                                                          Flux<DataBuffer> body) {
+            return postStream("/items/import", userId, contentType, body).block();
+        }
+    }
+
+    private TestClient client(boolean passThrough, HttpStatus status, String body) {
+        WebClient webClient = WebClient.builder()
+                .exchangeFunction(request -> {
+                    lastRequest.set(request);
+                    MockClientHttpRequest upstreamRequest = new MockClientHttpRequest(request.method(), request.url());
+                    return request.writeTo(upstreamRequest, ExchangeStrategies.withDefaults())
+                            .then(Mono.defer(upstreamRequest::getBodyAsString))
+                            .doOnNext(lastRequestBody::set)
+                            .thenReturn(ClientResponse.create(status)
+                                    .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                                    .header(BaseClient.NEXT_CURSOR_HEADER, NEXT_CURSOR)
+                                    .body(body)
+                                    .build());
+                })
+                .build();
+        return new TestClient(webClient, passThrough);
+    }
+
+    @Test
+    void givenPassThroughMode_whenGet_thenReturnUpstreamBytesAndContentType() {
+        ResponseEntity<Object> response = client(true, HttpStatus.OK, BODY).getItems(1, 20);
+
+        assertEquals(HttpMethod.GET, lastRequest.get().method());
+        assertEquals("/items?from=20", lastRequest.get().url().toString());
+        assertEquals("1", lastRequest.get().headers().getFirst("X-Sharer-User-Id"));
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+        assertArrayEquals(BODY.getBytes(StandardCharsets.UTF_8), (byte[]) response.getBody());
+    }
+
+    @Test
+    void givenPassThroughModeAndUpstreamError_whenGet_thenReturnUpstreamStatusAndBytes() {
+        String error = "{\"Not Found Error\":\"item not found\"}";
+
+        ResponseEntity<Object> response = client(true, HttpStatus.NOT_FOUND, error).getItems(1, 0);
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+        assertArrayEquals(error.getBytes(StandardCharsets.UTF_8), (byte[]) response.getBody());
+    }
+
+    @Test
+    void givenObjectMode_whenGet_thenReturnDeserializedBody() {
+        ResponseEntity<Object> response = client(false, HttpStatus.OK, BODY).getItems(1, 0);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertTrue(response.getBody() instanceof List);
+        assertEquals("Дрель", ((Map<?, ?>) ((List<?>) response.getBody()).get(0)).get("name"));
+    }
+
+    @Test
+    void givenCursor_whenGetPage_thenForwardCursorAndReturnNextCursorInBothModes() {
+        ResponseEntity<Object> rawResponse = client(true, HttpStatus.OK, BODY).getItemsPage(1, 2, "fDA");
+
+        assertEquals("/items?from=0&size=2&cursor=fDA", lastRequest.get().url().toString());
+        assertEquals(NEXT_CURSOR, rawResponse.getHeaders().getFirst(BaseClient.NEXT_CURSOR_HEADER));
+
+        ResponseEntity<Object> objectResponse = client(false, HttpStatus.OK, BODY).getItemsPage(1, 2, null);
+
+        assertEquals("/items?from=0&size=2", lastRequest.get().url().toString());
+        assertEquals(NEXT_CURSOR, objectResponse.getHeaders().getFirst(BaseClient.NEXT_CURSOR_HEADER));
+    }
+
+    private static String written(ResponseEntity<StreamingResponseBody> response) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        Objects.requireNonNull(response.getBody()).writeTo(output);
+        return output.toString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void givenStreamedBody_whenPostStream_thenForwardChunksWithContentType() throws IOException {
+        DefaultDataBufferFactory bufferFactory = DefaultDataBufferFactory.sharedInstance;
+        Flux<DataBuffer> body = Flux.just("{\"name\":\"Дрель\"}\n", "{\"name\":\"Отвертка\"}\n")
+                .map(chunk -> bufferFactory.wrap(chunk.getBytes(StandardCharsets.UTF_8)));
+
+        ResponseEntity<StreamingResponseBody> response = client(true, HttpStatus.OK, IMPORT_RESULT)
+                .importItems(1, MediaType.APPLICATION_NDJSON, body);
+
+        assertEquals(HttpMethod.POST, lastRequest.get().method());
+        assertEquals("/items/import", lastRequest.get().url().toString());
+        assertEquals(MediaType.APPLICATION_NDJSON, lastRequest.get().headers().getContentType());
+        assertEquals("1", lastRequest.get().headers().getFirst("X-Sharer-User-Id"));
+        assertEquals("{\"name\":\"Дрель\"}\n{\"name\":\"Отвертка\"}\n", lastRequestBody.get());
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+        assertEquals(IMPORT_RESULT, written(response));
+    }
+
+    @Test
+    void givenUpstreamError_whenPostStream_thenRelayStatusAndBody() throws IOException {
+        String error = "{\"error\":\"user not found\"}";
+
+        ResponseEntity<StreamingResponseBody> response = client(false, HttpStatus.NOT_FOUND, error)
+                .importItems(1, MediaType.APPLICATION_NDJSON, Flux.empty());
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        assertEquals(error, written(response));
+    }
+}
@@ -0,0 +1,166 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.netty.handler.timeout.ReadTimeoutException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.internal.shaded.reactor.pool.PoolAcquirePendingLimitException;
+import reactor.netty.internal.shaded.reactor.pool.PoolAcquireTimeoutException;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.netty.resources.LoopResources;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ShareItServerClientConfigTest {
+    private static final Duration SLOW_RESPONSE = Duration.ofMillis(500);
+
+    private final ShareItServerClientConfig config = new ShareItServerClientConfig();
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private DisposableServer server;
+
+    private ConnectionProvider connectionProvider;
+
+    private LoopResources loopResources;
+
+    @BeforeEach
+    void setUp() {
+        Metrics.addRegistry(meterRegistry);
+        server = HttpServer.create()
+                .port(0)
+                .route(routes -> routes
+                        .get("/fast", (request, response) -> response.sendString(Mono.just("ok")))
+                        .get("/slow", (request, response) -> response.sendString(
+                                Mono.delay(SLOW_RESPONSE).thenReturn("ok"))))
+                .bindNow();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (connectionProvider != null) {
+            connectionProvider.disposeLater().block();
+        }
+        if (loopResources != null) {
+            loopResources.disposeLater().block();
+        }
+        server.disposeNow();
+        Metrics.removeRegistry(meterRegistry);
+    }
+
+    private WebClient client(ShareItServerClientProperties properties) {
+        connectionProvider = config.shareItServerConnectionProvider(properties);
+        loopResources = config.shareItServerLoopResources(properties);
+        return WebClient.builder()
+                .baseUrl("http://localhost:" + server.port())
+                .clientConnector(config.shareItServerConnector(connectionProvider, loopResources, properties))
+                .build();
+    }
+
+    private static Mono<String> get(WebClient client, String path) {
+        return client.get().uri(path).retrieve().bodyToMono(String.class);
+    }
+
+    // the global registry keeps gauges of pools from earlier tests, so only this server's pool counts
+    private double poolGauge(String name) {
+        return meterRegistry.get(name)
+                .tag("name", "shareit-server")
+                .gauges().stream()
+                .filter(gauge -> gauge.getId().getTag("remote.address").endsWith(":" + server.port()))
+                .findFirst()
+                .orElseThrow()
+                .value();
+    }
+
+    @Test
+    void givenHttpClientProperties_whenBound_thenConfigUsesThem() {
+        new ApplicationContextRunner()
+                .withUserConfiguration(ShareItServerClientConfig.class)
+                .withPropertyValues(
+                        "shareit-server.http-client.max-connections=8",
+                        "shareit-server.http-client.pending-acquire-max-count=16",
+                        "shareit-server.http-client.event-loop-threads=2",
+                        "shareit-server.http-client.connect-timeout=500ms",
+                        "shareit-server.http-client.read-timeout=3s",
+                        "shareit-server.http-client.lease-timeout=1s")
+                .run(context -> {
+                    ShareItServerClientProperties properties = context.getBean(ShareItServerClientProperties.class);
+                    assertEquals(8, properties.getMaxConnections());
+                    assertEquals(16, properties.getPendingAcquireMaxCount());
+                    assertEquals(2, properties.getEventLoopThreads());
+                    assertEquals(Duration.ofMillis(500), properties.getConnectTimeout());
+                    assertEquals(Duration.ofSeconds(3), properties.getReadTimeout());
+                    assertEquals(Duration.ofSeconds(1), properties.getLeaseTimeout());
+                    assertEquals(8, context.getBean(ConnectionProvider.class).maxConnections());
+                });
+    }
+
+    @Test
+    void givenPoolExhausted_whenLeaseTimeoutPasses_thenRequestFailsWithoutWaitingForUpstream() {
+        ShareItServerClientProperties properties = new ShareItServerClientProperties();
+        properties.setMaxConnections(1);
+        properties.setLeaseTimeout(Duration.ofMillis(100));
+        WebClient client = client(properties);
+
+        Mono<String> slow = get(client, "/slow").cache();
+        slow.subscribe();
+        WebClientRequestException exception = assertThrows(WebClientRequestException.class,
+                () -> get(client, "/fast").block());
+
+        assertInstanceOf(PoolAcquireTimeoutException.class, exception.getCause());
+        assertEquals("ok", slow.block());
+    }
+
+    @Test
+    void givenPendingQueueFull_whenMoreRequestsWait_thenExtraRequestRejected() {
+        ShareItServerClientProperties properties = new ShareItServerClientProperties();
+        properties.setMaxConnections(1);
+        properties.setPendingAcquireMaxCount(1);
+        WebClient client = client(properties);
+
+        List<Mono<String>> accepted = List.of(get(client, "/slow").cache(), get(client, "/slow").cache());
+        accepted.forEach(Mono::subscribe);
+        WebClientRequestException exception = assertThrows(WebClientRequestException.class,
+                () -> get(client, "/fast").block());
+
+        assertInstanceOf(PoolAcquirePendingLimitException.class, exception.getCause());
+        accepted.forEach(response -> assertEquals("ok", response.block()));
+    }
+
+    @Test
+    void givenSlowUpstream_whenReadTimeoutPasses_thenRequestFails() {
+        ShareItServerClientProperties properties = new ShareItServerClientProperties();
+        properties.setReadTimeout(Duration.ofMillis(100));
+        WebClient client = client(properties);
+
+        WebClientRequestException exception = assertThrows(WebClientRequestException.class,
+                () -> get(client, "/slow").block());
+
+        assertInstanceOf(ReadTimeoutException.class, exception.getCause());
+    }
+
+    @Test
+    void givenPool_whenConnectionUsed_thenPoolMetricsPublishedUnderPoolName() {
+        ShareItServerClientProperties properties = new ShareItServerClientProperties();
+        properties.setMaxConnections(7);
+        WebClient client = client(properties);
+
+        assertEquals("ok", get(client, "/fast").block());
+
+        assertEquals(7, poolGauge("reactor.netty.connection.provider.max.connections"));
+        assertEquals(1, poolGauge("reactor.netty.connection.provider.total.connections"));
+    }
+}
@@ -7,18 +7,32 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.mockito.ArgumentCaptor;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.item.ItemClient;
 import ru.practicum.shareit.item.dto.*;
 
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(controllers = ItemController.class)
@@ -102,7 +116,7 @@ class ItemControllerTest {
                         .param("from", "-1"))
                 .andExpect(status().isBadRequest());
 
-        verify(itemClient, never()).getAll(anyLong(), anyLong(), anyInt());
+        verify(itemClient, never()).getAll(anyLong(), anyLong(), anyInt(), any());
     }
 
     @Test
@@ -112,7 +126,7 @@ class ItemControllerTest {
                         .param("size", "-1"))
                 .andExpect(status().isBadRequest());
 
-        verify(itemClient, never()).getAll(anyLong(), anyLong(), anyInt());
+        verify(itemClient, never()).getAll(anyLong(), anyLong(), anyInt(), any());
     }
 
     @Test
@@ -122,7 +136,7 @@ class ItemControllerTest {
                         .param("size", "0"))
                 .andExpect(status().isBadRequest());
 
-        verify(itemClient, never()).getAll(anyLong(), anyLong(), anyInt());
+        verify(itemClient, never()).getAll(anyLong(), anyLong(), anyInt(), any());
     }
 
     @Test
@@ -132,7 +146,7 @@ class ItemControllerTest {
                         .param("from", "-1"))
                 .andExpect(status().isBadRequest());
 
-        verify(itemClient, never()).search(any(), anyLong(), anyInt());
+        verify(itemClient, never()).search(any(), anyLong(), anyInt(), any());
     }
 
     @Test
@@ -142,7 +156,7 @@ class ItemControllerTest {
                         .param("size", "-1"))
                 .andExpect(status().isBadRequest());
 
-        verify(itemClient, never()).search(any(), anyLong(), anyInt());
+        verify(itemClient, never()).search(any(), anyLong(), anyInt(), any());
     }
 
     @Test
@@ -152,7 +166,31 @@ class ItemControllerTest {
                         .param("size", "0"))
                 .andExpect(status().isBadRequest());
 
-        verify(itemClient, never()).search(any(), anyLong(), anyInt());
+        verify(itemClient, never()).search(any(), anyLong(), anyInt(), any());
+    }
+
+    @Test
+    void givenAvailabilityRangeEndBeforeStart_whenGetAvailability_thenStatusBadRequest() throws Exception {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 10, 0, 0);
+        mvc.perform(get("/items/1/availability")
+                        .param("from", from.toString())
+                        .param("to", from.minusDays(1).toString()))
+                .andExpect(status().isBadRequest());
+
+        verify(itemClient, never()).getAvailability(anyLong(), any(), any());
+    }
+
+    @Test
+    void givenAvailabilityWithTooManyIds_whenGetAvailability_thenStatusBadRequest() throws Exception {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 10, 0, 0);
+        String ids = LongStream.rangeClosed(1, 101).mapToObj(String::valueOf).collect(Collectors.joining(","));
+        mvc.perform(get("/items/availability")
+                        .param("ids", ids)
+                        .param("from", from.toString())
+                        .param("to", from.plusDays(1).toString()))
+                .andExpect(status().isBadRequest());
+
+        verify(itemClient, never()).getAvailability(anyList(), any(), any());
     }
 
     @Test
@@ -206,6 +244,40 @@ class ItemControllerTest {
         verify(itemClient, never()).add(any(), anyLong());
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    void givenNdjsonBody_whenImportItems_thenStreamBodyToClientAndRowsBack() throws Exception {
+        long userId = 1000L;
+        String body = "{\"name\":\"Дрель\",\"description\":\"Ударная\",\"available\":true}\n" +
+                "{\"name\":\"\",\"available\":true}\n";
+        String rows = "{\"row\":1,\"id\":10}\n{\"row\":2,\"error\":\"item name is blank.\"}\n" +
+                "{\"imported\":1,\"failed\":1}\n";
+        ArgumentCaptor<Flux<DataBuffer>> bodyCaptor = ArgumentCaptor.forClass(Flux.class);
+        StreamingResponseBody response = output -> output.write(rows.getBytes(StandardCharsets.UTF_8));
+        when(itemClient.importItems(any(), any(), anyLong())).thenReturn(Mono.just(ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(response)));
+
+        MvcResult result = mvc.perform(post("/items/import")
+                        .content(body.getBytes(StandardCharsets.UTF_8))
+                        .contentType(new MediaType(MediaType.APPLICATION_NDJSON, StandardCharsets.UTF_8))
+                        .header("X-Sharer-User-Id", String.valueOf(userId)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        MvcResult streamed = mvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn();
+        // the body is written by a second async task, wait for it before reading
+        streamed.getAsyncResult();
+        assertEquals(rows, streamed.getResponse().getContentAsString(StandardCharsets.UTF_8));
+
+        verify(itemClient).importItems(bodyCaptor.capture(),
+                eq(new MediaType(MediaType.APPLICATION_NDJSON, StandardCharsets.UTF_8)), eq(userId));
+        DataBuffer forwarded = DataBufferUtils.join(bodyCaptor.getValue()).block();
+        assertEquals(body, forwarded.toString(StandardCharsets.UTF_8));
+    }
+
     @Test
     void givenPatchWithBlankName_whenPatch_thenStatusOkAndJsonBody() throws Exception {
         itemBuilder.name("  ");
@@ -91,7 +91,7 @@ class ItemRequestControllerTest {
                         .header("X-Sharer-User-Id", String.valueOf(userId)))
                 .andExpect(status().isBadRequest());
 
-        verify(itemRequestClient, never()).findByOtherUsers(anyLong(), anyLong(), anyInt());
+        verify(itemRequestClient, never()).findByOtherUsers(anyLong(), anyLong(), anyInt(), any());
     }
 
     @Test
@@ -103,7 +103,7 @@ class ItemRequestControllerTest {
                         .header("X-Sharer-User-Id", String.valueOf(userId)))
                 .andExpect(status().isBadRequest());
 
-        verify(itemRequestClient, never()).findByOtherUsers(anyLong(), anyLong(), anyInt());
+        verify(itemRequestClient, never()).findByOtherUsers(anyLong(), anyLong(), anyInt(), any());
     }
 
     @Test
@@ -115,6 +115,6 @@ class ItemRequestControllerTest {
                         .header("X-Sharer-User-Id", String.valueOf(userId)))
                 .andExpect(status().isBadRequest());
 
-        verify(itemRequestClient, never()).findByOtherUsers(anyLong(), anyLong(), anyInt());
+        verify(itemRequestClient, never()).findByOtherUsers(anyLong(), anyLong(), anyInt(), any());
     }
 }
\ No newline at end of file
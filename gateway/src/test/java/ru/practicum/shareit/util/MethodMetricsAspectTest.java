@@ -0,0 +1,60 @@
+package ru.practicum.shareit.util;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import ru.practicum.shareit.booking.model.BookingState;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MethodMetricsAspectTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    public static class StubClient {
+        private final Sinks.One<ResponseEntity<Object>> upstream = Sinks.one();
+
+        public Mono<ResponseEntity<Object>> getAll(long userId, BookingState state) {
+            return upstream.asMono();
+        }
+
+        public Mono<ResponseEntity<Object>> fail(long userId) {
+            return Mono.error(new IllegalStateException("upstream down"));
+        }
+    }
+
+    private StubClient proxy(StubClient client) {
+        AspectJProxyFactory factory = new AspectJProxyFactory(client);
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new MethodMetricsAspect(meterRegistry));
+        return factory.getProxy();
+    }
+
+    @Test
+    void givenMonoResult_whenUpstreamAnswers_thenClientTimerStoppedOnCompletion() {
+        StubClient client = new StubClient();
+        Mono<ResponseEntity<Object>> response = proxy(client).getAll(1L, BookingState.FUTURE);
+        response.subscribe();
+
+        assertNull(meterRegistry.find("client.calls").timer());
+
+        client.upstream.tryEmitValue(ResponseEntity.ok().build());
+
+        assertEquals(1, meterRegistry.get("client.calls")
+                .tags("class", "StubClient", "method", "getAll", "state", "FUTURE", "exception", "none")
+                .timer().count());
+    }
+
+    @Test
+    void givenFailingMono_whenSubscribed_thenClientTimerTaggedWithException() {
+        assertThrows(IllegalStateException.class, () -> proxy(new StubClient()).fail(1L).block());
+
+        assertEquals(1, meterRegistry.get("client.calls")
+                .tags("method", "fail", "state", "none", "exception", "IllegalStateException")
+                .timer().count());
+    }
+}
@@ -2,13 +2,18 @@ package ru.practicum.shareit.booking.controller;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.booking.dto.BookingDtoRequest;
 import ru.practicum.shareit.booking.dto.BookingDtoResponse;
+import ru.practicum.shareit.booking.dto.BookingStatusBatchDto;
+import ru.practicum.shareit.booking.dto.BookingStatusResultDto;
 import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.util.PageCursor;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping(path = "/bookings")
@@ -24,21 +29,45 @@ public class BookingController {
     }
 
     @GetMapping
-    public List<BookingDtoResponse> getAllBookingsByBooker(
+    public ResponseEntity<List<BookingDtoResponse>> getAllBookingsByBooker(
             @RequestParam String state,
             @RequestHeader("X-Sharer-User-Id") long userId,
             @RequestParam Long from,
-            @RequestParam Integer size) {
-        return bookingService.getAllBookingsByBooker(userId, BookingState.converter(state), from, size);
+            @RequestParam Integer size,
+            @RequestParam(required = false) String cursor) {
+        BookingState bookingState = BookingState.converter(state);
+        if (cursor == null) {
+            return ResponseEntity.ok(bookingService.getAllBookingsByBooker(userId, bookingState, from, size));
+        }
+        return PageCursor.toResponse(
+                bookingService.getAllBookingsByBooker(userId, bookingState, PageCursor.decodeWithTime(cursor), size),
+                size, booking -> PageCursor.of(booking.getStart(), booking.getId()));
     }
 
     @GetMapping("/owner")
-    public List<BookingDtoResponse> getAllBookingsByOwner(
+    public ResponseEntity<List<BookingDtoResponse>> getAllBookingsByOwner(
             @RequestParam String state,
             @RequestHeader("X-Sharer-User-Id") long userId,
             @RequestParam Long from,
-            @RequestParam Integer size) {
-        return bookingService.getAllBookingsByOwner(userId, BookingState.converter(state), from, size);
+            @RequestParam Integer size,
+            @RequestParam(required = false) String cursor) {
+        BookingState bookingState = BookingState.converter(state);
+        if (cursor == null) {
+            return ResponseEntity.ok(bookingService.getAllBookingsByOwner(userId, bookingState, from, size));
+        }
+        return PageCursor.toResponse(
+                bookingService.getAllBookingsByOwner(userId, bookingState, PageCursor.decodeWithTime(cursor), size),
+                size, booking -> PageCursor.of(booking.getStart(), booking.getId()));
+    }
+
+    @GetMapping("/counts")
+    public Map<BookingState, Long> getBookingCountsByBooker(@RequestHeader("X-Sharer-User-Id") long userId) {
+        return bookingService.getBookingCountsByBooker(userId);
+    }
+
+    @GetMapping("/owner/counts")
+    public Map<BookingState, Long> getBookingCountsByOwner(@RequestHeader("X-Sharer-User-Id") long userId) {
+        return bookingService.getBookingCountsByOwner(userId);
     }
 
     @PostMapping
@@ -53,4 +82,10 @@ public class BookingController {
                                             @RequestHeader("X-Sharer-User-Id") long userId) {
         return bookingService.bookingStatus(bookingId, userId, approved);
     }
-}
\ No newline at end of file
+
+    @PatchMapping
+    public List<BookingStatusResultDto> bookingStatuses(@RequestBody BookingStatusBatchDto batchDto,
+                                                        @RequestHeader("X-Sharer-User-Id") long userId) {
+        return bookingService.bookingStatuses(batchDto.getBookingIds(), userId, batchDto.getApproved());
+    }
+}
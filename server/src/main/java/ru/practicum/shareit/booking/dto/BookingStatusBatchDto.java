@@ -0,0 +1,13 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.Value;
+
+import java.util.List;
+
+@Value
+public class BookingStatusBatchDto {
+
+    List<Long> bookingIds;
+
+    Boolean approved;
+}
@@ -0,0 +1,8 @@
+package ru.practicum.shareit.booking.event;
+
+import lombok.Value;
+
+@Value
+public class BookingChangedEvent {
+    long itemId;
+}
@@ -0,0 +1,48 @@
+package ru.practicum.shareit.booking.partition;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.storage.BookingRepository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Component
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+@Slf4j
+@ConditionalOnProperty(name = "shareit.booking.partition.enabled", havingValue = "true")
+public class BookingPartitionJob {
+    private final BookingRepository bookingRepository;
+
+    @Value("${shareit.booking.partition.months-ahead:3}")
+    private int monthsAhead;
+
+    @Value("${shareit.booking.partition.archive-after-months:12}")
+    private int archiveAfterMonths;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${shareit.booking.partition.cron:0 30 3 * * *}")
+    public void maintainPartitions() {
+        LocalDateTime archiveBefore = LocalDate.now().withDayOfMonth(1).minusMonths(archiveAfterMonths)
+                .atStartOfDay();
+        try {
+            // separate transactions: archiving detaches partitions and holds an exclusive lock on bookings
+            int created = bookingRepository.createPartitions(monthsAhead);
+            int split = bookingRepository.splitArchivePartitions();
+            int archived = bookingRepository.archivePartitions(archiveBefore);
+            log.info("BookingPartitionJob: created " + created + " booking partitions, split " + split +
+                    " backfilled months out of the archive, archived " + archived + " partitions before " +
+                    archiveBefore + ".");
+        } catch (DataAccessException exception) {
+            log.warn("BookingPartitionJob: booking partition maintenance failed, will retry on next run.", exception);
+        }
+    }
+}
@@ -2,9 +2,12 @@ package ru.practicum.shareit.booking.service;
 
 import ru.practicum.shareit.booking.dto.BookingDtoRequest;
 import ru.practicum.shareit.booking.dto.BookingDtoResponse;
+import ru.practicum.shareit.booking.dto.BookingStatusResultDto;
 import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.util.PageCursor;
 
 import java.util.List;
+import java.util.Map;
 
 public interface BookingService {
 
@@ -12,9 +15,19 @@ public interface BookingService {
 
     List<BookingDtoResponse> getAllBookingsByBooker(long bookerId, BookingState state, long from, int size);
 
+    List<BookingDtoResponse> getAllBookingsByBooker(long bookerId, BookingState state, PageCursor after, int size);
+
     List<BookingDtoResponse> getAllBookingsByOwner(long ownerId, BookingState state, long from, int size);
 
+    List<BookingDtoResponse> getAllBookingsByOwner(long ownerId, BookingState state, PageCursor after, int size);
+
+    Map<BookingState, Long> getBookingCountsByBooker(long bookerId);
+
+    Map<BookingState, Long> getBookingCountsByOwner(long ownerId);
+
     BookingDtoResponse add(BookingDtoRequest dto, long userId);
 
     BookingDtoResponse bookingStatus(long bookingId, long userId, boolean approved);
+
+    List<BookingStatusResultDto> bookingStatuses(List<Long> bookingIds, long userId, boolean approved);
 }
\ No newline at end of file
@@ -3,36 +3,56 @@ package ru.practicum.shareit.booking.service;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Sort;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.dto.BookingDtoRequest;
+import ru.practicum.shareit.booking.event.BookingChangedEvent;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.dto.BookingDtoResponse;
+import ru.practicum.shareit.booking.dto.BookingStatusResultDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.storage.BookingRepository;
+import ru.practicum.shareit.booking.storage.BookingStateCounts;
+import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.CustomValidationException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.user.event.UserDeletedEvent;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.storage.UserRepository;
+import ru.practicum.shareit.util.OffsetPageRequest;
+import ru.practicum.shareit.util.PageCursor;
 
 import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor(onConstructor = @__(@Autowired))
 @Slf4j
 @Transactional(readOnly = true)
 public class BookingServiceImpl implements BookingService {
+    private static final Set<BookingStatus> OCCUPYING_STATUSES = EnumSet.of(BookingStatus.WAITING,
+            BookingStatus.APPROVED);
+
     private final BookingRepository bookingRepository;
     private final UserRepository userRepository;
     private final ItemRepository itemRepository;
     private final BookingMapper bookingMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public BookingDtoResponse getBookingById(long bookingId, long userId) {
@@ -45,68 +65,48 @@ public class BookingServiceImpl implements BookingService {
 
     @Override
     public List<BookingDtoResponse> getAllBookingsByBooker(long bookerId, BookingState state, long from, int size) {
-        User booker = getUser(bookerId);
-        List<Booking> bookings;
-        LocalDateTime now = LocalDateTime.now();
-        PageRequest pageable = formPageable(from, size, Sort.by(Sort.Direction.DESC, "start"));
-        switch (state) {
-            case PAST:
-                bookings = bookingRepository.findByBookerAndEndIsBeforeOrderByStartDesc(booker, now, pageable);
-                break;
-            case FUTURE:
-                bookings = bookingRepository.findByBookerAndStartIsAfterOrderByStartDesc(booker, now, pageable);
-                break;
-            case CURRENT:
-                bookings = bookingRepository.findByBookerAndStartIsBeforeAndEndIsAfterOrderByStartDesc(
-                        booker, now, now, pageable);
-                break;
-            case WAITING:
-                bookings = bookingRepository.findByBookerAndStatusIsOrderByStartDesc(
-                        booker, BookingStatus.WAITING, pageable);
-                break;
-            case REJECTED:
-                bookings = bookingRepository.findByBookerAndStatusIsOrderByStartDesc(
-                        booker, BookingStatus.REJECTED, pageable);
-                break;
-            case ALL:
-            default:
-                bookings = bookingRepository.findByBookerOrderByStartDesc(booker, pageable);
-                break;
-        }
-        return bookingMapper.toDto(bookings);
+        checkUserExists(bookerId);
+        return bookingMapper.toDto(bookingRepository.findByBookerIdAndState(
+                bookerId, state, LocalDateTime.now(), formPageable(from, size)));
+    }
+
+    @Override
+    public List<BookingDtoResponse> getAllBookingsByBooker(long bookerId, BookingState state, PageCursor after,
+                                                           int size) {
+        checkUserExists(bookerId);
+        return bookingMapper.toDto(
+                bookingRepository.findByBookerIdAndStateAfter(bookerId, state, LocalDateTime.now(), after, size));
     }
 
     @Override
     public List<BookingDtoResponse> getAllBookingsByOwner(long ownerId, BookingState state, long from, int size) {
-        User owner = getUser(ownerId);
-        List<Booking> bookings;
-        LocalDateTime now = LocalDateTime.now();
-        PageRequest pageable = formPageable(from, size, Sort.by(Sort.Direction.DESC, "start"));
-        switch (state) {
-            case PAST:
-                bookings = bookingRepository.findByItemOwnerAndEndIsBeforeOrderByStartDesc(owner, now, pageable);
-                break;
-            case FUTURE:
-                bookings = bookingRepository.findByItemOwnerAndStartIsAfterOrderByStartDesc(owner, now, pageable);
-                break;
-            case CURRENT:
-                bookings = bookingRepository.findByItemOwnerAndStartIsBeforeAndEndIsAfterOrderByStartDesc(
-                        owner, now, now, pageable);
-                break;
-            case WAITING:
-                bookings = bookingRepository.findByItemOwnerAndStatusIsOrderByStartDesc(
-                        owner, BookingStatus.WAITING, pageable);
-                break;
-            case REJECTED:
-                bookings = bookingRepository.findByItemOwnerAndStatusIsOrderByStartDesc(
-                        owner, BookingStatus.REJECTED, pageable);
-                break;
-            case ALL:
-            default:
-                bookings = bookingRepository.findByItemOwnerOrderByStartDesc(owner, pageable);
-                break;
-        }
-        return bookingMapper.toDto(bookings);
+        checkUserExists(ownerId);
+        return bookingMapper.toDto(bookingRepository.findByItemOwnerIdAndState(
+                ownerId, state, LocalDateTime.now(), formPageable(from, size)));
+    }
+
+    @Override
+    public List<BookingDtoResponse> getAllBookingsByOwner(long ownerId, BookingState state, PageCursor after,
+                                                          int size) {
+        checkUserExists(ownerId);
+        return bookingMapper.toDto(
+                bookingRepository.findByItemOwnerIdAndStateAfter(ownerId, state, LocalDateTime.now(), after, size));
+    }
+
+    @Override
+    public Map<BookingState, Long> getBookingCountsByBooker(long bookerId) {
+        return bookingRepository.countByBookerId(bookerId, LocalDateTime.now())
+                .map(BookingServiceImpl::toStateCounts)
+                .orElseThrow(() -> new NotFoundException("BookingServiceImpl: user with id=" +
+                        bookerId + " not found."));
+    }
+
+    @Override
+    public Map<BookingState, Long> getBookingCountsByOwner(long ownerId) {
+        return bookingRepository.countByItemOwnerId(ownerId, LocalDateTime.now())
+                .map(BookingServiceImpl::toStateCounts)
+                .orElseThrow(() -> new NotFoundException("BookingServiceImpl: user with id=" +
+                        ownerId + " not found."));
     }
 
     @Override
@@ -120,12 +120,19 @@ public class BookingServiceImpl implements BookingService {
             throw new CustomValidationException("BookingServiceImpl: item id=" + item.getId() + " isn't available.");
         }
         Booking booking = bookingMapper.fromDto(bookingDtoRequest);
+        if (bookingRepository.existsByItemAndStatusInAndStartBeforeAndEndAfter(
+                item, OCCUPYING_STATUSES, booking.getEnd(), booking.getStart())) {
+            throw new ConflictException("BookingServiceImpl: item id=" + item.getId() + " is already booked between " +
+                    booking.getStart() + " and " + booking.getEnd() + ".");
+        }
         User booker = getUser(userId);
 
         booking.setBooker(booker);
         booking.setItem(item);
         booking = bookingRepository.save(booking);
+        updateCounters(item.getOwner().getId(), Map.of(userId, 1L), 1, 0);
         log.debug("BookingServiceImpl: add booking " + booking + ".");
+        eventPublisher.publishEvent(new BookingChangedEvent(item.getId()));
         return bookingMapper.toDto(booking);
     }
 
@@ -140,18 +147,114 @@ public class BookingServiceImpl implements BookingService {
             throw new CustomValidationException("BookingServiceImpl: bookingServiceImpl: booking " +
                     "already has been approved/rejected");
         }
-        booking.setStatus(approved ? BookingStatus.APPROVED : BookingStatus.REJECTED);
-        log.debug("BookingServiceImpl: approved booking " + booking + ".");
+        BookingStatus status = approved ? BookingStatus.APPROVED : BookingStatus.REJECTED;
+        if (bookingRepository.updateStatus(bookingId, BookingStatus.WAITING, status) == 0) {
+            throw new ConflictException("BookingServiceImpl: booking id=" + bookingId +
+                    " has been approved/rejected concurrently.");
+        }
+        booking.setStatus(status);
+        updateCounters(userId, Map.of(booking.getBooker().getId(), 1L), -1, approved ? 0 : 1);
+        log.debug("BookingServiceImpl: set status " + status + " of booking id=" + bookingId + ".");
+        eventPublisher.publishEvent(new BookingChangedEvent(booking.getItem().getId()));
         return bookingMapper.toDto(booking);
     }
 
+    @Override
+    @Transactional
+    public List<BookingStatusResultDto> bookingStatuses(List<Long> bookingIds, long userId, boolean approved) {
+        Map<Long, Booking> bookingsByIds = bookingRepository.findAllByIdInAndItemOwnerIdOrderByIdAsc(bookingIds, userId)
+                .stream()
+                .collect(Collectors.toMap(Booking::getId, Function.identity()));
+        List<Booking> waitingBookings = bookingsByIds.values().stream()
+                .filter(booking -> BookingStatus.WAITING.equals(booking.getStatus()))
+                .collect(Collectors.toList());
+        BookingStatus status = approved ? BookingStatus.APPROVED : BookingStatus.REJECTED;
+        if (!waitingBookings.isEmpty()) {
+            List<Long> waitingIds = waitingBookings.stream()
+                    .map(Booking::getId)
+                    .collect(Collectors.toList());
+            if (bookingRepository.updateStatuses(waitingIds, BookingStatus.WAITING, status) != waitingIds.size()) {
+                throw new ConflictException("BookingServiceImpl: bookings " + waitingIds +
+                        " have been approved/rejected concurrently.");
+            }
+            updateCounters(userId, waitingBookings.stream()
+                            .collect(Collectors.groupingBy(booking -> booking.getBooker().getId(),
+                                    Collectors.counting())),
+                    -1, approved ? 0 : 1);
+        }
+        List<BookingStatusResultDto> results = bookingIds.stream()
+                .distinct()
+                .map(bookingId -> formStatusResult(bookingsByIds.get(bookingId), bookingId, userId, status))
+                .collect(Collectors.toList());
+        waitingBookings.stream()
+                .map(booking -> booking.getItem().getId())
+                .distinct()
+                .forEach(itemId -> eventPublisher.publishEvent(new BookingChangedEvent(itemId)));
+        log.debug("BookingServiceImpl: set status " + status + " of " + waitingBookings.size() + " of " +
+                results.size() + " bookings by owner id=" + userId + ".");
+        return results;
+    }
+
+    @EventListener
+    @Transactional
+    public void onUserDeleted(UserDeletedEvent event) {
+        int owners = bookingRepository.subtractOwnerCountersOfBooker(event.getUserId());
+        int bookers = bookingRepository.subtractBookerCountersOfOwner(event.getUserId());
+        log.debug("BookingServiceImpl: update booking counters of " + owners + " owners and " + bookers +
+                " bookers of deleted user id=" + event.getUserId() + ".");
+    }
+
+    private void updateCounters(long ownerId, Map<Long, Long> bookingCountsByBookerIds, long waitingDelta,
+                                long rejectedDelta) {
+        long bookingCount = bookingCountsByBookerIds.values().stream()
+                .mapToLong(Long::longValue)
+                .sum();
+        NavigableMap<Long, Runnable> updates = new TreeMap<>();
+        updates.put(ownerId, () -> bookingRepository.updateOwnerCounters(ownerId,
+                waitingDelta * bookingCount, rejectedDelta * bookingCount));
+        bookingCountsByBookerIds.forEach((bookerId, count) -> updates.put(bookerId,
+                () -> bookingRepository.updateBookerCounters(bookerId, waitingDelta * count, rejectedDelta * count)));
+        // counter rows are locked in user id order, so bookers and owners updating each other can't deadlock
+        updates.values().forEach(Runnable::run);
+    }
+
+    private static Map<BookingState, Long> toStateCounts(BookingStateCounts counts) {
+        Map<BookingState, Long> stateCounts = new EnumMap<>(BookingState.class);
+        stateCounts.put(BookingState.ALL, counts.getAllCount());
+        stateCounts.put(BookingState.CURRENT, counts.getCurrentCount());
+        stateCounts.put(BookingState.PAST, counts.getPastCount());
+        stateCounts.put(BookingState.FUTURE, counts.getFutureCount());
+        stateCounts.put(BookingState.WAITING, counts.getWaitingCount());
+        stateCounts.put(BookingState.REJECTED, counts.getRejectedCount());
+        return stateCounts;
+    }
+
+    private static BookingStatusResultDto formStatusResult(Booking booking, long bookingId, long userId,
+                                                           BookingStatus status) {
+        if (booking == null) {
+            return new BookingStatusResultDto(bookingId, null, "BookingServiceImpl: booking with id=" + bookingId +
+                    " and owner id=" + userId + " not found.");
+        }
+        if (!BookingStatus.WAITING.equals(booking.getStatus())) {
+            return new BookingStatusResultDto(bookingId, booking.getStatus(),
+                    "BookingServiceImpl: booking already has been approved/rejected.");
+        }
+        return new BookingStatusResultDto(bookingId, status, null);
+    }
+
     private User getUser(long userId) {
         return userRepository.findById(userId)
                 .orElseThrow(() -> new NotFoundException("BookingServiceImpl: user with id=" +
                         userId + " not found."));
     }
 
-    private static PageRequest formPageable(long from, Integer size, Sort sort) {
-        return PageRequest.of((int) (from / size), size, sort);
+    private void checkUserExists(long userId) {
+        if (!userRepository.existsById(userId)) {
+            throw new NotFoundException("BookingServiceImpl: user with id=" + userId + " not found.");
+        }
+    }
+
+    private static Pageable formPageable(long from, int size) {
+        return OffsetPageRequest.of(from, size);
     }
 }
\ No newline at end of file
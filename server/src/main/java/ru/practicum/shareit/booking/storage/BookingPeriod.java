@@ -0,0 +1,12 @@
+package ru.practicum.shareit.booking.storage;
+
+import java.time.LocalDateTime;
+
+public interface BookingPeriod {
+
+    Long getItemId();
+
+    LocalDateTime getStart();
+
+    LocalDateTime getEnd();
+}
@@ -1,20 +1,26 @@
 package ru.practicum.shareit.booking.storage;
 
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
 
+import javax.persistence.LockModeType;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
-public interface BookingRepository extends JpaRepository<Booking, Long> {
+public interface BookingRepository extends JpaRepository<Booking, Long>, BookingRepositoryCustom {
 
+    @EntityGraph(attributePaths = {"item", "booker"})
     @Query(value = "SELECT b " +
             "FROM Booking AS b " +
             "JOIN b.item AS item " +
@@ -23,41 +29,145 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
             "WHERE b.id = :bookingId AND (owner.id = :userId OR booker.id = :userId)")
     Optional<Booking> findByIdAndItemOwnerIdOrBookerId(@Param("bookingId") Long id, @Param("userId") Long userId);
 
+    @EntityGraph(attributePaths = {"item", "booker"})
     Optional<Booking> findByIdAndItemOwnerId(Long id, Long ownerId);
 
-    Optional<Booking> findFirstByItemAndStartAfterAndStatusIsOrderByStartDesc(
-            Item item, LocalDateTime minStart, BookingStatus status);
-
-    Optional<Booking> findFirstByItemAndStartLessThanEqualAndStatusIsOrderByStartDesc(
-            Item item, LocalDateTime maxStart, BookingStatus status);
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE Booking AS b " +
+            "SET b.status = :newStatus " +
+            "WHERE b.id = :id AND b.status = :currentStatus")
+    int updateStatus(@Param("id") long id,
+                     @Param("currentStatus") BookingStatus currentStatus,
+                     @Param("newStatus") BookingStatus newStatus);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query(value = "SELECT b FROM Booking AS b " +
+            "WHERE b.id IN (:ids) AND b.item.owner.id = :ownerId " +
+            "ORDER BY b.id")
+    List<Booking> findAllByIdInAndItemOwnerIdOrderByIdAsc(@Param("ids") Collection<Long> ids,
+                                                         @Param("ownerId") Long ownerId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE Booking AS b " +
+            "SET b.status = :newStatus " +
+            "WHERE b.id IN (:ids) AND b.status = :currentStatus")
+    int updateStatuses(@Param("ids") Collection<Long> ids,
+                       @Param("currentStatus") BookingStatus currentStatus,
+                       @Param("newStatus") BookingStatus newStatus);
+
+    @Modifying
+    @Query(value = "UPDATE users " +
+            "SET booker_waiting_count = booker_waiting_count + :waitingDelta, " +
+            "booker_rejected_count = booker_rejected_count + :rejectedDelta " +
+            "WHERE id = :bookerId",
+            nativeQuery = true)
+    int updateBookerCounters(@Param("bookerId") long bookerId,
+                             @Param("waitingDelta") long waitingDelta,
+                             @Param("rejectedDelta") long rejectedDelta);
+
+    @Modifying
+    @Query(value = "UPDATE users " +
+            "SET owner_waiting_count = owner_waiting_count + :waitingDelta, " +
+            "owner_rejected_count = owner_rejected_count + :rejectedDelta " +
+            "WHERE id = :ownerId",
+            nativeQuery = true)
+    int updateOwnerCounters(@Param("ownerId") long ownerId,
+                            @Param("waitingDelta") long waitingDelta,
+                            @Param("rejectedDelta") long rejectedDelta);
+
+    @Modifying
+    @Query(value = "UPDATE users AS u " +
+            "SET owner_waiting_count = u.owner_waiting_count - (" +
+            "SELECT COUNT(*) FROM bookings AS b JOIN items AS i ON i.id = b.item_id " +
+            "WHERE i.owner_id = u.id AND b.booker_id = :bookerId AND b.status = 'WAITING'), " +
+            "owner_rejected_count = u.owner_rejected_count - (" +
+            "SELECT COUNT(*) FROM bookings AS b JOIN items AS i ON i.id = b.item_id " +
+            "WHERE i.owner_id = u.id AND b.booker_id = :bookerId AND b.status = 'REJECTED') " +
+            "WHERE u.id IN (SELECT i.owner_id FROM bookings AS b JOIN items AS i ON i.id = b.item_id " +
+            "WHERE b.booker_id = :bookerId)",
+            nativeQuery = true)
+    int subtractOwnerCountersOfBooker(@Param("bookerId") long bookerId);
+
+    @Modifying
+    @Query(value = "UPDATE users AS u " +
+            "SET booker_waiting_count = u.booker_waiting_count - (" +
+            "SELECT COUNT(*) FROM bookings AS b JOIN items AS i ON i.id = b.item_id " +
+            "WHERE b.booker_id = u.id AND i.owner_id = :ownerId AND b.status = 'WAITING'), " +
+            "booker_rejected_count = u.booker_rejected_count - (" +
+            "SELECT COUNT(*) FROM bookings AS b JOIN items AS i ON i.id = b.item_id " +
+            "WHERE b.booker_id = u.id AND i.owner_id = :ownerId AND b.status = 'REJECTED') " +
+            "WHERE u.id IN (SELECT b.booker_id FROM bookings AS b JOIN items AS i ON i.id = b.item_id " +
+            "WHERE i.owner_id = :ownerId)",
+            nativeQuery = true)
+    int subtractBookerCountersOfOwner(@Param("ownerId") long ownerId);
+
+    @Query(value = "SELECT u.booker_waiting_count AS \"waitingCount\", " +
+            "u.booker_rejected_count AS \"rejectedCount\", " +
+            "COUNT(b.id) AS \"allCount\", " +
+            "COUNT(CASE WHEN b.start_time < :now AND b.end_time > :now THEN 1 END) AS \"currentCount\", " +
+            "COUNT(CASE WHEN b.end_time < :now THEN 1 END) AS \"pastCount\", " +
+            "COUNT(CASE WHEN b.start_time > :now THEN 1 END) AS \"futureCount\" " +
+            "FROM users AS u " +
+            "LEFT JOIN bookings AS b ON b.booker_id = u.id " +
+            "WHERE u.id = :bookerId " +
+            "GROUP BY u.id, u.booker_waiting_count, u.booker_rejected_count",
+            nativeQuery = true)
+    Optional<BookingStateCounts> countByBookerId(@Param("bookerId") long bookerId, @Param("now") LocalDateTime now);
+
+    @Query(value = "SELECT u.owner_waiting_count AS \"waitingCount\", " +
+            "u.owner_rejected_count AS \"rejectedCount\", " +
+            "COUNT(b.id) AS \"allCount\", " +
+            "COUNT(CASE WHEN b.start_time < :now AND b.end_time > :now THEN 1 END) AS \"currentCount\", " +
+            "COUNT(CASE WHEN b.end_time < :now THEN 1 END) AS \"pastCount\", " +
+            "COUNT(CASE WHEN b.start_time > :now THEN 1 END) AS \"futureCount\" " +
+            "FROM users AS u " +
+            "LEFT JOIN items AS i ON i.owner_id = u.id " +
+            "LEFT JOIN bookings AS b ON b.item_id = i.id " +
+            "WHERE u.id = :ownerId " +
+            "GROUP BY u.id, u.owner_waiting_count, u.owner_rejected_count",
+            nativeQuery = true)
+    Optional<BookingStateCounts> countByItemOwnerId(@Param("ownerId") long ownerId, @Param("now") LocalDateTime now);
+
+    boolean existsByItemAndStatusInAndStartBeforeAndEndAfter(
+            Item item, Collection<BookingStatus> statuses, LocalDateTime maxStart, LocalDateTime minEnd);
+
+    @Query(value = "SELECT b.item.id AS itemId, b.start AS start, b.end AS end " +
+            "FROM Booking AS b " +
+            "WHERE b.item.id IN (:itemIds) AND b.status IN (:statuses) AND b.start < :to AND b.end > :from " +
+            "ORDER BY b.item.id, b.start")
+    List<BookingPeriod> findPeriodsByItemIds(@Param("itemIds") Collection<Long> itemIds,
+                                             @Param("statuses") Collection<BookingStatus> statuses,
+                                             @Param("from") LocalDateTime from,
+                                             @Param("to") LocalDateTime to);
 
     Optional<Booking> findFirstByItemAndBookerAndEndBefore(Item item, User booker, LocalDateTime maxEnd);
 
-    List<Booking> findByBookerOrderByStartDesc(User booker, Pageable pageable);
-
-    List<Booking> findByItemOwnerOrderByStartDesc(User booker, Pageable pageable);
-
-    List<Booking> findByBookerAndStartIsAfterOrderByStartDesc(User booker, LocalDateTime minStart, Pageable pageable);
-
-    List<Booking> findByBookerAndEndIsBeforeOrderByStartDesc(User booker, LocalDateTime maxEnd, Pageable pageable);
-
-    List<Booking> findByBookerAndStatusIsOrderByStartDesc(User booker, BookingStatus status, Pageable pageable);
-
-    List<Booking> findByItemOwnerAndStartIsAfterOrderByStartDesc(User booker, LocalDateTime minStart, Pageable pageable);
-
-    List<Booking> findByItemOwnerAndEndIsBeforeOrderByStartDesc(User booker, LocalDateTime maxEnd, Pageable pageable);
-
-    List<Booking> findByItemOwnerAndStatusIsOrderByStartDesc(User booker, BookingStatus status, Pageable pageable);
-
-    List<Booking> findByBookerAndStartIsBeforeAndEndIsAfterOrderByStartDesc(
-            User booker, LocalDateTime maxStart, LocalDateTime minEnd, Pageable pageable);
-
-    List<Booking> findByItemOwnerAndStartIsBeforeAndEndIsAfterOrderByStartDesc(
-            User booker, LocalDateTime maxStart, LocalDateTime minEnd, Pageable pageable);
-
-    List<Booking> findAllByItemInAndStartAfterAndStatusIsOrderByStartAsc(
-            List<Item> items, LocalDateTime minStart, BookingStatus status);
-
-    List<Booking> findAllByItemInAndStartLessThanEqualAndStatusIsOrderByStartDesc(
-            List<Item> items, LocalDateTime maxStart, BookingStatus status);
+    @Query(value = "SELECT b.* " +
+            "FROM bookings AS b " +
+            "WHERE b.id IN (" +
+            "SELECT (SELECT l.id FROM bookings AS l " +
+            "WHERE l.item_id = i.id AND l.status = :status AND l.start_time <= :now " +
+            "ORDER BY l.start_time DESC FETCH FIRST 1 ROWS ONLY) " +
+            "FROM items AS i WHERE i.id IN (:itemIds) " +
+            "UNION ALL " +
+            "SELECT (SELECT n.id FROM bookings AS n " +
+            "WHERE n.item_id = i.id AND n.status = :status AND n.start_time > :now " +
+            "ORDER BY n.start_time ASC FETCH FIRST 1 ROWS ONLY) " +
+            "FROM items AS i WHERE i.id IN (:itemIds))",
+            nativeQuery = true)
+    List<Booking> findLastAndNextByItemIds(@Param("itemIds") List<Long> itemIds,
+                                           @Param("now") LocalDateTime now,
+                                           @Param("status") String status);
+
+    @Transactional
+    @Query(value = "SELECT create_booking_partitions(:monthsAhead)", nativeQuery = true)
+    int createPartitions(@Param("monthsAhead") int monthsAhead);
+
+    @Transactional
+    @Query(value = "SELECT split_booking_archive()", nativeQuery = true)
+    int splitArchivePartitions();
+
+    @Transactional
+    @Query(value = "SELECT archive_booking_partitions(:archiveBefore)", nativeQuery = true)
+    int archivePartitions(@Param("archiveBefore") LocalDateTime archiveBefore);
 }
\ No newline at end of file
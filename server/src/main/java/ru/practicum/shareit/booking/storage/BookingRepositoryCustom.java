@@ -0,0 +1,22 @@
+package ru.practicum.shareit.booking.storage;
+
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.util.PageCursor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface BookingRepositoryCustom {
+
+    List<Booking> findByBookerIdAndState(long bookerId, BookingState state, LocalDateTime now, Pageable pageable);
+
+    List<Booking> findByItemOwnerIdAndState(long ownerId, BookingState state, LocalDateTime now, Pageable pageable);
+
+    List<Booking> findByBookerIdAndStateAfter(long bookerId, BookingState state, LocalDateTime now,
+                                              PageCursor after, int size);
+
+    List<Booking> findByItemOwnerIdAndStateAfter(long ownerId, BookingState state, LocalDateTime now,
+                                                 PageCursor after, int size);
+}
@@ -0,0 +1,98 @@
+package ru.practicum.shareit.booking.storage;
+
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.util.PageCursor;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.criteria.*;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+public class BookingRepositoryImpl implements BookingRepositoryCustom {
+    private static final Map<BookingState, StatePredicate> STATE_PREDICATES = new EnumMap<>(Map.of(
+            BookingState.ALL, (builder, booking, now) -> List.of(),
+            BookingState.CURRENT, (builder, booking, now) -> List.of(
+                    builder.lessThan(booking.<LocalDateTime>get("start"), now),
+                    builder.greaterThan(booking.<LocalDateTime>get("end"), now)),
+            // end > start holds for every booking, so the redundant start bound keeps PAST a range scan
+            BookingState.PAST, (builder, booking, now) -> List.of(
+                    builder.lessThan(booking.<LocalDateTime>get("start"), now),
+                    builder.lessThan(booking.<LocalDateTime>get("end"), now)),
+            BookingState.FUTURE, (builder, booking, now) -> List.of(
+                    builder.greaterThan(booking.<LocalDateTime>get("start"), now)),
+            BookingState.WAITING, (builder, booking, now) -> List.of(
+                    builder.equal(booking.get("status"), BookingStatus.WAITING)),
+            BookingState.REJECTED, (builder, booking, now) -> List.of(
+                    builder.equal(booking.get("status"), BookingStatus.REJECTED))
+    ));
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Booking> findByBookerIdAndState(long bookerId, BookingState state, LocalDateTime now,
+                                                Pageable pageable) {
+        return findByState(false, bookerId, state, now, null, pageable.getOffset(), pageable.getPageSize());
+    }
+
+    @Override
+    public List<Booking> findByItemOwnerIdAndState(long ownerId, BookingState state, LocalDateTime now,
+                                                   Pageable pageable) {
+        return findByState(true, ownerId, state, now, null, pageable.getOffset(), pageable.getPageSize());
+    }
+
+    @Override
+    public List<Booking> findByBookerIdAndStateAfter(long bookerId, BookingState state, LocalDateTime now,
+                                                     PageCursor after, int size) {
+        return findByState(false, bookerId, state, now, after, 0, size);
+    }
+
+    @Override
+    public List<Booking> findByItemOwnerIdAndStateAfter(long ownerId, BookingState state, LocalDateTime now,
+                                                        PageCursor after, int size) {
+        return findByState(true, ownerId, state, now, after, 0, size);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Booking> findByState(boolean byOwner, long userId, BookingState state, LocalDateTime now,
+                                      PageCursor after, long offset, int size) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Booking> query = builder.createQuery(Booking.class);
+        Root<Booking> booking = query.from(Booking.class);
+        Join<Booking, Item> item = (Join<Booking, Item>) booking.<Booking, Item>fetch("item", JoinType.INNER);
+        booking.fetch("booker", JoinType.INNER);
+        Path<LocalDateTime> start = booking.get("start");
+        Path<Long> id = booking.get("id");
+
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(byOwner ?
+                builder.equal(item.get("owner").get("id"), userId) :
+                builder.equal(booking.get("booker").get("id"), userId));
+        predicates.addAll(STATE_PREDICATES.get(state).toPredicates(builder, booking, now));
+        if (after != null) {
+            predicates.add(builder.or(
+                    builder.lessThan(start, after.getTime()),
+                    builder.and(builder.equal(start, after.getTime()), builder.lessThan(id, after.getId()))));
+        }
+        query.select(booking)
+                .where(predicates.toArray(Predicate[]::new))
+                .orderBy(builder.desc(start), builder.desc(id));
+        return entityManager.createQuery(query)
+                .setFirstResult((int) offset)
+                .setMaxResults(size)
+                .getResultList();
+    }
+
+    @FunctionalInterface
+    private interface StatePredicate {
+        List<Predicate> toPredicates(CriteriaBuilder builder, Root<Booking> booking, LocalDateTime now);
+    }
+}
@@ -0,0 +1,16 @@
+package ru.practicum.shareit.booking.storage;
+
+public interface BookingStateCounts {
+
+    long getAllCount();
+
+    long getCurrentCount();
+
+    long getPastCount();
+
+    long getFutureCount();
+
+    long getWaitingCount();
+
+    long getRejectedCount();
+}
@@ -34,6 +34,14 @@ public class ErrorHandler {
         return result;
     }
 
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public Map<String, String> handleConflictException(ConflictException exception) {
+        Map<String, String> result = Map.of("Conflict", exception.getMessage());
+        log.warn(String.valueOf(result), exception);
+        return result;
+    }
+
     @ExceptionHandler
     @ResponseStatus(HttpStatus.CONFLICT)
     public Map<String, String> handleDataIntegrityViolationException(DataIntegrityViolationException exception) {
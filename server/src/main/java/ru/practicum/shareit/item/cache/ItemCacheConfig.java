@@ -0,0 +1,66 @@
+package ru.practicum.shareit.item.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import ru.practicum.shareit.booking.dto.BookingDtoShort;
+import ru.practicum.shareit.item.dto.ItemDtoResponse;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+@Configuration
+public class ItemCacheConfig {
+    private static final Duration MAX_EXPIRY = Duration.ofDays(365 * 100L);
+
+    @Bean
+    public CacheManager cacheManager(@Value("${shareit.item.cache.maximum-size:10000}") long maximumSize,
+                                     @Value("${shareit.item.search.cache.maximum-size:1000}") long searchMaximumSize,
+                                     @Value("${shareit.item.search.cache.ttl:60s}") Duration searchTtl) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.registerCustomCache(ItemCardCache.ITEM_CARDS, Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build());
+        cacheManager.registerCustomCache(ItemCardCache.OWNER_ITEM_CARDS, Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new NextBookingExpiry())
+                .recordStats()
+                .build());
+        cacheManager.registerCustomCache(ItemSearchCache.ITEM_SEARCHES, Caffeine.newBuilder()
+                .maximumSize(searchMaximumSize)
+                .expireAfterWrite(searchTtl)
+                .recordStats()
+                .build());
+        return cacheManager;
+    }
+
+    private static class NextBookingExpiry implements Expiry<Object, Object> {
+        @Override
+        public long expireAfterCreate(Object key, Object value, long currentTime) {
+            if (!(value instanceof ItemDtoResponse) || ((ItemDtoResponse) value).getNextBooking() == null) {
+                return MAX_EXPIRY.toNanos();
+            }
+            BookingDtoShort nextBooking = ((ItemDtoResponse) value).getNextBooking();
+            Duration untilNextBooking = Duration.between(LocalDateTime.now(), nextBooking.getStart());
+            if (untilNextBooking.isNegative()) {
+                return 0;
+            }
+            return untilNextBooking.compareTo(MAX_EXPIRY) > 0 ? MAX_EXPIRY.toNanos() : untilNextBooking.toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(Object key, Object value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(Object key, Object value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
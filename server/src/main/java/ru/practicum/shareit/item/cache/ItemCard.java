@@ -0,0 +1,11 @@
+package ru.practicum.shareit.item.cache;
+
+import lombok.Value;
+import ru.practicum.shareit.item.dto.ItemDtoResponse;
+
+@Value
+public class ItemCard {
+    long ownerId;
+
+    ItemDtoResponse item;
+}
@@ -0,0 +1,93 @@
+package ru.practicum.shareit.item.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.booking.event.BookingChangedEvent;
+import ru.practicum.shareit.item.dto.ItemDtoResponse;
+import ru.practicum.shareit.item.event.CommentAddedEvent;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
+import ru.practicum.shareit.user.event.UserChangedEvent;
+import ru.practicum.shareit.user.event.UserDeletedEvent;
+
+import java.util.Objects;
+import java.util.function.Supplier;
+
+@Component
+@Slf4j
+public class ItemCardCache {
+    public static final String ITEM_CARDS = "itemCards";
+    public static final String OWNER_ITEM_CARDS = "ownerItemCards";
+
+    private final Cache itemCards;
+    private final Cache ownerItemCards;
+
+    @Autowired
+    public ItemCardCache(CacheManager cacheManager) {
+        this.itemCards = Objects.requireNonNull(cacheManager.getCache(ITEM_CARDS));
+        this.ownerItemCards = Objects.requireNonNull(cacheManager.getCache(OWNER_ITEM_CARDS));
+    }
+
+    public ItemCard getCard(long itemId, Supplier<ItemCard> loader) {
+        return get(itemCards, itemId, loader);
+    }
+
+    public ItemDtoResponse getOwnerCard(long itemId, Supplier<ItemDtoResponse> loader) {
+        return get(ownerItemCards, itemId, loader);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemChanged(ItemChangedEvent event) {
+        if (Objects.nonNull(event.getAfter())) {
+            evict(event.getAfter().getId());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCommentAdded(CommentAddedEvent event) {
+        evict(event.getItemId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookingChanged(BookingChangedEvent event) {
+        ownerItemCards.evict(event.getItemId());
+        log.debug("ItemCardCache: evict owner card of item id=" + event.getItemId() + ".");
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        clear();
+        log.debug("ItemCardCache: clear cards after change of user id=" + event.getUserId() + ".");
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserDeleted(UserDeletedEvent event) {
+        clear();
+        log.debug("ItemCardCache: clear cards after deletion of user id=" + event.getUserId() + ".");
+    }
+
+    private void evict(long itemId) {
+        itemCards.evict(itemId);
+        ownerItemCards.evict(itemId);
+        log.debug("ItemCardCache: evict cards of item id=" + itemId + ".");
+    }
+
+    private void clear() {
+        itemCards.clear();
+        ownerItemCards.clear();
+    }
+
+    private static <T> T get(Cache cache, long itemId, Supplier<T> loader) {
+        try {
+            return cache.get(itemId, loader::get);
+        } catch (Cache.ValueRetrievalException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package ru.practicum.shareit.item.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
+import ru.practicum.shareit.item.event.ItemsImportedEvent;
+import ru.practicum.shareit.user.event.UserDeletedEvent;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+@Component
+@Slf4j
+public class ItemSearchCache {
+    public static final String ITEM_SEARCHES = "itemSearches";
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final Cache searches;
+    private final Counter invalidations;
+    private final AtomicLong generation = new AtomicLong();
+
+    @Autowired
+    public ItemSearchCache(CacheManager cacheManager, MeterRegistry meterRegistry) {
+        this.searches = Objects.requireNonNull(cacheManager.getCache(ITEM_SEARCHES));
+        this.invalidations = Counter.builder("item.search.cache.invalidations")
+                .description("Search results dropped because a matching item changed")
+                .register(meterRegistry);
+    }
+
+    public static String normalize(String text) {
+        return text.trim().toLowerCase();
+    }
+
+    public List<ItemDto> get(ItemSearchKey key, Supplier<List<ItemDto>> loader) {
+        long loadGeneration = generation.get();
+        List<ItemDto> items = searches.get(key, () -> List.copyOf(loader.get()));
+        if (loadGeneration != generation.get()) {
+            searches.evict(key);
+        }
+        return items;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemChanged(ItemChangedEvent event) {
+        ItemDto before = event.getBefore();
+        ItemDto after = event.getAfter();
+        if (Objects.nonNull(before) && Objects.nonNull(after) &&
+                Objects.equals(before.getName(), after.getName()) &&
+                Objects.equals(before.getDescription(), after.getDescription()) &&
+                Objects.equals(before.getAvailable(), after.getAvailable())) {
+            return;
+        }
+        generation.incrementAndGet();
+        int removed = 0;
+        for (Object key : nativeCache().asMap().keySet()) {
+            String text = ((ItemSearchKey) key).getText();
+            if ((matches(before, text) || matches(after, text)) && nativeCache().asMap().remove(key) != null) {
+                removed++;
+            }
+        }
+        invalidations.increment(removed);
+        log.debug("ItemSearchCache: drop " + removed + " searches after change of item id=" +
+                (Objects.nonNull(after) ? after.getId() : before.getId()) + ".");
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemsImported(ItemsImportedEvent event) {
+        generation.incrementAndGet();
+        List<String> itemTexts = event.getItems().stream()
+                .map(ItemSearchCache::itemText)
+                .collect(Collectors.toList());
+        int removed = 0;
+        for (Object key : nativeCache().asMap().keySet()) {
+            String text = ((ItemSearchKey) key).getText();
+            if (itemTexts.stream().anyMatch(itemText -> matches(itemText, text)) &&
+                    nativeCache().asMap().remove(key) != null) {
+                removed++;
+            }
+        }
+        invalidations.increment(removed);
+        log.debug("ItemSearchCache: drop " + removed + " searches after import of " + itemTexts.size() +
+                " items by owner id=" + event.getOwnerId() + ".");
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserDeleted(UserDeletedEvent event) {
+        generation.incrementAndGet();
+        long removed = nativeCache().estimatedSize();
+        searches.clear();
+        invalidations.increment(removed);
+        log.debug("ItemSearchCache: drop all searches after deletion of user id=" + event.getUserId() + ".");
+    }
+
+    private static boolean matches(ItemDto itemDto, String text) {
+        return Objects.nonNull(itemDto) && matches(itemText(itemDto), text);
+    }
+
+    private static String itemText(ItemDto itemDto) {
+        return (Objects.toString(itemDto.getName(), "") + " " +
+                Objects.toString(itemDto.getDescription(), "")).toLowerCase();
+    }
+
+    private static boolean matches(String itemText, String text) {
+        return itemText.contains(text) || Arrays.stream(TOKEN_SEPARATOR.split(text))
+                .filter(token -> !token.isEmpty())
+                .anyMatch(itemText::contains);
+    }
+
+    @SuppressWarnings("unchecked")
+    private com.github.benmanes.caffeine.cache.Cache<Object, Object> nativeCache() {
+        return (com.github.benmanes.caffeine.cache.Cache<Object, Object>) searches.getNativeCache();
+    }
+}
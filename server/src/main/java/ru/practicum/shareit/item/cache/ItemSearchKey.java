@@ -0,0 +1,22 @@
+package ru.practicum.shareit.item.cache;
+
+import lombok.Value;
+
+@Value
+public class ItemSearchKey {
+    String text;
+
+    boolean cursor;
+
+    long position;
+
+    int size;
+
+    public static ItemSearchKey of(String text, long from, int size) {
+        return new ItemSearchKey(text, false, from, size);
+    }
+
+    public static ItemSearchKey ofCursor(String text, long afterId, int size) {
+        return new ItemSearchKey(text, true, afterId, size);
+    }
+}
@@ -2,10 +2,19 @@ package ru.practicum.shareit.item.controller;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.item.dto.*;
+import ru.practicum.shareit.item.service.ItemImportService;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.util.PageCursor;
 
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
 
@@ -14,6 +23,7 @@ import java.util.List;
 @RequiredArgsConstructor(onConstructor = @__(@Autowired))
 public class ItemController {
     private final ItemService itemService;
+    private final ItemImportService itemImportService;
 
     @GetMapping("/{id}")
     public ItemDtoResponse getById(@PathVariable long id,
@@ -22,10 +32,31 @@ public class ItemController {
     }
 
     @GetMapping
-    public List<ItemDtoResponse> getAll(@RequestHeader("X-Sharer-User-Id") long userId,
-                                        @RequestParam Long from,
-                                        @RequestParam Integer size) {
-        return itemService.getAll(userId, from, size);
+    public ResponseEntity<List<ItemDtoResponse>> getAll(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                        @RequestParam Long from,
+                                                        @RequestParam Integer size,
+                                                        @RequestParam(required = false) String cursor) {
+        if (cursor == null) {
+            return ResponseEntity.ok(itemService.getAll(userId, from, size));
+        }
+        return PageCursor.toResponse(itemService.getAll(userId, PageCursor.decode(cursor), size), size,
+                item -> PageCursor.of(item.getId()));
+    }
+
+    @GetMapping("/{id}/availability")
+    public ItemAvailabilityDto getAvailability(
+            @PathVariable long id,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return itemService.getAvailability(id, from, to);
+    }
+
+    @GetMapping("/availability")
+    public List<ItemAvailabilityDto> getAvailability(
+            @RequestParam List<Long> ids,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return itemService.getAvailability(ids, from, to);
     }
 
     @PostMapping
@@ -34,6 +65,24 @@ public class ItemController {
         return itemService.add(itemDto, userId);
     }
 
+    // rows are answered while the body is still being read: {"row":1,"id":10} or {"row":2,"error":"..."} per line,
+    // then {"imported":1,"failed":1}, a response without that last line was cut off
+    @PostMapping(value = "/import", consumes = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public void importItems(InputStream body,
+                            @RequestHeader("X-Sharer-User-Id") long userId,
+                            HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        try {
+            itemImportService.importItems(body, userId, response.getOutputStream());
+        } catch (RuntimeException e) {
+            // nothing sent yet, e.g. an unknown owner: drop the NDJSON content type so the error goes out as JSON
+            if (!response.isCommitted()) {
+                response.reset();
+            }
+            throw e;
+        }
+    }
+
     @PostMapping("/{itemId}/comment")
     public CommentDtoResponse addComment(@RequestBody CommentDtoRequest commentDtoRequest,
                                          @PathVariable long itemId,
@@ -49,9 +98,17 @@ public class ItemController {
     }
 
     @GetMapping("/search")
-    public List<ItemDto> search(@RequestParam String text,
-                                @RequestParam Long from,
-                                @RequestParam Integer size) {
-        return text.isBlank() ? Collections.emptyList() : itemService.search(text, from, size);
+    public ResponseEntity<List<ItemDto>> search(@RequestParam String text,
+                                                @RequestParam Long from,
+                                                @RequestParam Integer size,
+                                                @RequestParam(required = false) String cursor) {
+        if (text.isBlank()) {
+            return ResponseEntity.ok(Collections.emptyList());
+        }
+        if (cursor == null) {
+            return ResponseEntity.ok(itemService.search(text, from, size));
+        }
+        return PageCursor.toResponse(itemService.search(text, PageCursor.decode(cursor), size), size,
+                item -> PageCursor.of(item.getId()));
     }
 }
\ No newline at end of file
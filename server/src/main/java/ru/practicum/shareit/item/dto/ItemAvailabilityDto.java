@@ -0,0 +1,13 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.Value;
+
+import java.util.List;
+
+@Value
+public class ItemAvailabilityDto {
+    Long itemId;
+    Boolean available;
+    List<TimeSlotDto> free;
+    List<TimeSlotDto> busy;
+}
@@ -0,0 +1,10 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.Value;
+
+@Value
+public class ItemImportResultDto {
+    long imported;
+
+    long failed;
+}
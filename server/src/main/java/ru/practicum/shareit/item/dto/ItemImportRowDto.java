@@ -0,0 +1,23 @@
+package ru.practicum.shareit.item.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Value;
+
+// one row of an import: the id of the created item or the error that kept it out
+@Value
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ItemImportRowDto {
+    long row;
+
+    Long id;
+
+    String error;
+
+    public static ItemImportRowDto imported(long row, long id) {
+        return new ItemImportRowDto(row, id, null);
+    }
+
+    public static ItemImportRowDto failed(long row, String error) {
+        return new ItemImportRowDto(row, null, error);
+    }
+}
@@ -0,0 +1,13 @@
+package ru.practicum.shareit.item.event;
+
+import lombok.Value;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+@Value
+public class ItemChangedEvent {
+    long ownerId;
+
+    ItemDto before;
+
+    ItemDto after;
+}
@@ -0,0 +1,13 @@
+package ru.practicum.shareit.item.event;
+
+import lombok.Value;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.util.List;
+
+@Value
+public class ItemsImportedEvent {
+    long ownerId;
+
+    List<ItemDto> items;
+}
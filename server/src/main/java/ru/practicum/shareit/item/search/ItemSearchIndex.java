@@ -0,0 +1,463 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
+import ru.practicum.shareit.item.event.ItemsImportedEvent;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.user.event.UserDeletedEvent;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+@Component
+@Slf4j
+public class ItemSearchIndex implements SmartInitializingSingleton {
+    private static final int BUILD_BATCH_SIZE = 10_000;
+    private static final byte NAME = 1;
+    private static final byte DESCRIPTION = 2;
+    private static final float NAME_WEIGHT = 2.0f;
+    private static final float DESCRIPTION_WEIGHT = 1.0f;
+    private static final float PREFIX_MATCH_WEIGHT = 0.5f;
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final ItemRepository itemRepository;
+    private final boolean enabled;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TreeMap<String, PostingList> dictionary = new TreeMap<>();
+    private final BitSet live = new BitSet();
+    private final BitSet available = new BitSet();
+    // documents are numbered densely in indexing order, so memory follows the item count and not the ids
+    private DocumentNumbers documents = new DocumentNumbers();
+    private long[] itemIds = new long[0];
+    private long[] owners = new long[0];
+    private int documentCount;
+    private volatile boolean ready;
+
+    @Autowired
+    public ItemSearchIndex(ItemRepository itemRepository,
+                           @Value("${shareit.item.search.in-memory-index:false}") boolean enabled) {
+        this.itemRepository = itemRepository;
+        this.enabled = enabled;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    public void rebuild() {
+        long started = System.nanoTime();
+        int count = 0;
+        lock.writeLock().lock();
+        try {
+            ready = false;
+            dictionary.clear();
+            live.clear();
+            available.clear();
+            documents = new DocumentNumbers();
+            itemIds = new long[0];
+            owners = new long[0];
+            documentCount = 0;
+            long lastId = 0;
+            List<Item> batch;
+            do {
+                batch = itemRepository.findAllByIdGreaterThanOrderByIdAsc(lastId, PageRequest.of(0, BUILD_BATCH_SIZE));
+                for (Item item : batch) {
+                    addDocument(item.getId(), item.getOwner().getId(), item.getName(), item.getDescription(),
+                            item.getAvailable());
+                    lastId = item.getId();
+                }
+                count += batch.size();
+            } while (batch.size() == BUILD_BATCH_SIZE);
+            dictionary.values().forEach(PostingList::trimToSize);
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("ItemSearchIndex: indexed " + count + " items and " + dictionary.size() + " terms in " +
+                (System.nanoTime() - started) / 1_000_000 + " ms.");
+    }
+
+    // waits for a running rebuild instead of skipping, replaying a change the rebuild already read is harmless
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemChanged(ItemChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        ItemDto before = event.getBefore();
+        ItemDto after = event.getAfter();
+        lock.writeLock().lock();
+        try {
+            int document = documents.get(after.getId());
+            if (document >= 0 && before != null && Objects.equals(before.getName(), after.getName()) &&
+                    Objects.equals(before.getDescription(), after.getDescription())) {
+                available.set(document, Boolean.TRUE.equals(after.getAvailable()));
+            } else {
+                if (document >= 0 && before != null) {
+                    removeTerms(document, before.getName(), before.getDescription());
+                }
+                addDocument(after.getId(), event.getOwnerId(), after.getName(), after.getDescription(),
+                        after.getAvailable());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.debug("ItemSearchIndex: reindex item id=" + after.getId() + ".");
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemsImported(ItemsImportedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            for (ItemDto item : event.getItems()) {
+                addDocument(item.getId(), event.getOwnerId(), item.getName(), item.getDescription(),
+                        item.getAvailable());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.debug("ItemSearchIndex: index " + event.getItems().size() + " imported items of owner id=" +
+                event.getOwnerId() + ".");
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserDeleted(UserDeletedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            for (int document = live.nextSetBit(0); document >= 0; document = live.nextSetBit(document + 1)) {
+                if (owners[document] == event.getUserId()) {
+                    live.clear(document);
+                    available.clear(document);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.debug("ItemSearchIndex: drop items of owner id=" + event.getUserId() + ".");
+    }
+
+    public List<Long> search(String text, Pageable pageable) {
+        Set<String> terms = tokenize(text);
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            int liveCount = Math.max(live.cardinality(), 1);
+            ScoredDocuments matches = null;
+            for (String term : terms) {
+                ScoredDocuments termMatches = match(term, liveCount);
+                matches = matches == null ? termMatches : matches.intersect(termMatches);
+                if (matches.size == 0) {
+                    return List.of();
+                }
+            }
+            return rank(matches, pageable);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void addDocument(long itemId, long ownerId, String name, String description, Boolean isAvailable) {
+        int document = documents.get(itemId);
+        if (document < 0) {
+            document = documentCount++;
+            if (document == owners.length) {
+                int capacity = Math.max(16, owners.length + (owners.length >> 1));
+                owners = Arrays.copyOf(owners, capacity);
+                itemIds = Arrays.copyOf(itemIds, capacity);
+            }
+            documents.put(itemId, document);
+            itemIds[document] = itemId;
+        }
+        owners[document] = ownerId;
+        live.set(document);
+        available.set(document, Boolean.TRUE.equals(isAvailable));
+        int indexed = document;
+        tokenize(name).forEach(term -> dictionary.computeIfAbsent(term, t -> new PostingList()).add(indexed, NAME));
+        tokenize(description).forEach(term ->
+                dictionary.computeIfAbsent(term, t -> new PostingList()).add(indexed, DESCRIPTION));
+    }
+
+    private void removeTerms(int document, String name, String description) {
+        Set<String> terms = tokenize(name);
+        terms.addAll(tokenize(description));
+        for (String term : terms) {
+            PostingList postings = dictionary.get(term);
+            if (postings != null && postings.remove(document)) {
+                dictionary.remove(term);
+            }
+        }
+    }
+
+    private ScoredDocuments match(String term, int liveCount) {
+        SortedMap<String, PostingList> expansion = dictionary.subMap(term, term + Character.MAX_VALUE);
+        if (expansion.size() == 1) {
+            String expandedTerm = expansion.firstKey();
+            PostingList postings = expansion.get(expandedTerm);
+            float termWeight = termWeight(term, expandedTerm, postings, liveCount);
+            ScoredDocuments result = new ScoredDocuments(postings.size);
+            for (int i = 0; i < postings.size; i++) {
+                result.documents[i] = postings.documents[i];
+                result.scores[i] = termWeight * fieldWeight(postings.fields[i]);
+            }
+            result.size = postings.size;
+            return result;
+        }
+        int total = 0;
+        for (PostingList postings : expansion.values()) {
+            total += postings.size;
+        }
+        long[] packed = new long[total];
+        int index = 0;
+        for (Map.Entry<String, PostingList> entry : expansion.entrySet()) {
+            PostingList postings = entry.getValue();
+            float termWeight = termWeight(term, entry.getKey(), postings, liveCount);
+            for (int i = 0; i < postings.size; i++) {
+                float score = termWeight * fieldWeight(postings.fields[i]);
+                packed[index++] = ((long) postings.documents[i] << 32) | (Float.floatToIntBits(score) & 0xFFFFFFFFL);
+            }
+        }
+        Arrays.sort(packed);
+        ScoredDocuments result = new ScoredDocuments(total);
+        for (long value : packed) {
+            int document = (int) (value >>> 32);
+            float score = Float.intBitsToFloat((int) value);
+            if (result.size > 0 && result.documents[result.size - 1] == document) {
+                result.scores[result.size - 1] = Math.max(result.scores[result.size - 1], score);
+            } else {
+                result.documents[result.size] = document;
+                result.scores[result.size++] = score;
+            }
+        }
+        return result;
+    }
+
+    private List<Long> rank(ScoredDocuments matches, Pageable pageable) {
+        long offset = pageable.getOffset();
+        int limit = (int) Math.min(offset + pageable.getPageSize(), matches.size);
+        if (limit <= offset) {
+            return List.of();
+        }
+        long[] top = new long[limit];
+        int count = 0;
+        for (int i = 0; i < matches.size; i++) {
+            int document = matches.documents[i];
+            if (!live.get(document) || !available.get(document)) {
+                continue;
+            }
+            long key = ((long) Float.floatToIntBits(matches.scores[i]) << 32) | (~document & 0xFFFFFFFFL);
+            if (count < limit) {
+                top[count] = key;
+                siftUp(top, count++);
+            } else if (key > top[0]) {
+                top[0] = key;
+                siftDown(top, limit);
+            }
+        }
+        Arrays.sort(top, 0, count);
+        List<Long> page = new ArrayList<>(pageable.getPageSize());
+        for (long i = count - 1 - offset; i >= 0; i--) {
+            page.add(itemIds[~(int) top[(int) i]]);
+        }
+        return page;
+    }
+
+    private static void siftUp(long[] heap, int index) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (heap[parent] <= heap[index]) {
+                return;
+            }
+            swap(heap, parent, index);
+            index = parent;
+        }
+    }
+
+    private static void siftDown(long[] heap, int size) {
+        int index = 0;
+        while (true) {
+            int smallest = index;
+            int left = 2 * index + 1;
+            int right = left + 1;
+            if (left < size && heap[left] < heap[smallest]) {
+                smallest = left;
+            }
+            if (right < size && heap[right] < heap[smallest]) {
+                smallest = right;
+            }
+            if (smallest == index) {
+                return;
+            }
+            swap(heap, smallest, index);
+            index = smallest;
+        }
+    }
+
+    private static void swap(long[] array, int i, int j) {
+        long value = array[i];
+        array[i] = array[j];
+        array[j] = value;
+    }
+
+    private static float termWeight(String queryTerm, String indexedTerm, PostingList postings, int liveCount) {
+        return (float) Math.log(1.0 + (double) liveCount / postings.size) *
+                (indexedTerm.length() == queryTerm.length() ? 1.0f : PREFIX_MATCH_WEIGHT);
+    }
+
+    private static float fieldWeight(byte fields) {
+        return ((fields & NAME) != 0 ? NAME_WEIGHT : 0) + ((fields & DESCRIPTION) != 0 ? DESCRIPTION_WEIGHT : 0);
+    }
+
+    private static Set<String> tokenize(String text) {
+        Set<String> terms = new LinkedHashSet<>();
+        if (text == null) {
+            return terms;
+        }
+        for (String term : TOKEN_SEPARATOR.split(text.toLowerCase())) {
+            if (!term.isEmpty()) {
+                terms.add(term);
+            }
+        }
+        return terms;
+    }
+
+    private static final class PostingList {
+        private int[] documents = new int[2];
+        private byte[] fields = new byte[2];
+        private int size;
+
+        private void add(int document, byte field) {
+            int index = size > 0 && documents[size - 1] < document ?
+                    -size - 1 :
+                    Arrays.binarySearch(documents, 0, size, document);
+            if (index >= 0) {
+                fields[index] |= field;
+                return;
+            }
+            int insertAt = -index - 1;
+            if (size == documents.length) {
+                documents = Arrays.copyOf(documents, Math.max(2, size * 2));
+                fields = Arrays.copyOf(fields, Math.max(2, size * 2));
+            }
+            System.arraycopy(documents, insertAt, documents, insertAt + 1, size - insertAt);
+            System.arraycopy(fields, insertAt, fields, insertAt + 1, size - insertAt);
+            documents[insertAt] = document;
+            fields[insertAt] = field;
+            size++;
+        }
+
+        private boolean remove(int document) {
+            int index = Arrays.binarySearch(documents, 0, size, document);
+            if (index >= 0) {
+                System.arraycopy(documents, index + 1, documents, index, size - index - 1);
+                System.arraycopy(fields, index + 1, fields, index, size - index - 1);
+                size--;
+            }
+            return size == 0;
+        }
+
+        private void trimToSize() {
+            documents = Arrays.copyOf(documents, size);
+            fields = Arrays.copyOf(fields, size);
+        }
+    }
+
+    // item id -> document number, open addressing over primitive arrays, ids are positive so 0 marks a free slot
+    private static final class DocumentNumbers {
+        private long[] keys = new long[16];
+        private int[] values = new int[16];
+        private int size;
+
+        private int get(long itemId) {
+            for (int slot = slot(itemId, keys.length); keys[slot] != 0; slot = (slot + 1) & (keys.length - 1)) {
+                if (keys[slot] == itemId) {
+                    return values[slot];
+                }
+            }
+            return -1;
+        }
+
+        private void put(long itemId, int document) {
+            if (2 * (size + 1) > keys.length) {
+                long[] oldKeys = keys;
+                int[] oldValues = values;
+                keys = new long[oldKeys.length * 2];
+                values = new int[oldKeys.length * 2];
+                for (int i = 0; i < oldKeys.length; i++) {
+                    if (oldKeys[i] != 0) {
+                        insert(oldKeys[i], oldValues[i]);
+                    }
+                }
+            }
+            insert(itemId, document);
+            size++;
+        }
+
+        private void insert(long itemId, int document) {
+            int slot = slot(itemId, keys.length);
+            while (keys[slot] != 0) {
+                slot = (slot + 1) & (keys.length - 1);
+            }
+            keys[slot] = itemId;
+            values[slot] = document;
+        }
+
+        private static int slot(long itemId, int capacity) {
+            long hash = itemId * 0x9E3779B97F4A7C15L;
+            return (int) (hash ^ (hash >>> 32)) & (capacity - 1);
+        }
+    }
+
+    private static final class ScoredDocuments {
+        private final int[] documents;
+        private final float[] scores;
+        private int size;
+
+        private ScoredDocuments(int capacity) {
+            documents = new int[capacity];
+            scores = new float[capacity];
+        }
+
+        private ScoredDocuments intersect(ScoredDocuments other) {
+            ScoredDocuments result = new ScoredDocuments(Math.min(size, other.size));
+            int i = 0;
+            int j = 0;
+            while (i < size && j < other.size) {
+                if (documents[i] < other.documents[j]) {
+                    i++;
+                } else if (documents[i] > other.documents[j]) {
+                    j++;
+                } else {
+                    result.documents[result.size] = documents[i];
+                    result.scores[result.size++] = scores[i++] + other.scores[j++];
+                }
+            }
+            return result;
+        }
+    }
+}
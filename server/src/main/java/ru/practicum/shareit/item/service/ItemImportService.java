@@ -0,0 +1,11 @@
+package ru.practicum.shareit.item.service;
+
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+
+public interface ItemImportService {
+
+    ItemImportResultDto importItems(InputStream body, long userId, OutputStream results);
+}
@@ -0,0 +1,121 @@
+package ru.practicum.shareit.item.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
+import ru.practicum.shareit.item.dto.ItemImportRowDto;
+import ru.practicum.shareit.user.storage.UserRepository;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+@Service
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+@Slf4j
+public class ItemImportServiceImpl implements ItemImportService {
+    private static final int BATCH_SIZE = 500;
+
+    private final ItemService itemService;
+    private final UserRepository userRepository;
+    private final ObjectMapper objectMapper;
+
+    // results get one NDJSON line per row, flushed after every batch, and the totals as the last line
+    @Override
+    public ItemImportResultDto importItems(InputStream body, long userId, OutputStream results) {
+        if (!userRepository.existsById(userId)) {
+            throw new NotFoundException("ItemImportServiceImpl: user with id=" + userId + " not found.");
+        }
+        ImportReport report = new ImportReport(results);
+        List<ItemDto> batch = new ArrayList<>(BATCH_SIZE);
+        long batchFirstRow = 1;
+        long row = 1;
+        try (MappingIterator<ItemDto> iterator = objectMapper.readerFor(ItemDto.class).readValues(body)) {
+            for (; iterator.hasNextValue(); row++) {
+                try {
+                    batch.add(iterator.nextValue());
+                } catch (JsonMappingException e) {
+                    importBatch(report, batch, batchFirstRow, userId);
+                    report.add(ItemImportRowDto.failed(row, e.getOriginalMessage()));
+                    batch = new ArrayList<>(BATCH_SIZE);
+                    batchFirstRow = row + 1;
+                    continue;
+                }
+                if (batch.size() == BATCH_SIZE) {
+                    importBatch(report, batch, batchFirstRow, userId);
+                    batch = new ArrayList<>(BATCH_SIZE);
+                    batchFirstRow = row + 1;
+                }
+            }
+            importBatch(report, batch, batchFirstRow, userId);
+        } catch (IOException e) {
+            importBatch(report, batch, batchFirstRow, userId);
+            String message = e instanceof JsonProcessingException ?
+                    ((JsonProcessingException) e).getOriginalMessage() : e.getMessage();
+            report.add(ItemImportRowDto.failed(row, "Malformed input, import stopped: " + message));
+        }
+        ItemImportResultDto result = new ItemImportResultDto(report.imported, report.failed);
+        report.write(result);
+        report.flush();
+        log.debug("ItemImportServiceImpl: imported " + result.getImported() + " rows, rejected " +
+                result.getFailed() + " rows by userId=" + userId + ".");
+        return result;
+    }
+
+    private void importBatch(ImportReport report, List<ItemDto> batch, long firstRow, long userId) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        itemService.importBatch(batch, firstRow, userId).forEach(report::add);
+        report.flush();
+    }
+
+    // write failures are unchecked, so a client that went away isn't reported as malformed input
+    private class ImportReport {
+        private final OutputStream results;
+        private long imported;
+        private long failed;
+
+        private ImportReport(OutputStream results) {
+            this.results = results;
+        }
+
+        private void add(ItemImportRowDto row) {
+            if (Objects.isNull(row.getError())) {
+                imported++;
+            } else {
+                failed++;
+            }
+            write(row);
+        }
+
+        private void write(Object line) {
+            try {
+                results.write(objectMapper.writeValueAsBytes(line));
+                results.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private void flush() {
+            try {
+                results.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
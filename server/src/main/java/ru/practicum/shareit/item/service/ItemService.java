@@ -1,7 +1,9 @@
 package ru.practicum.shareit.item.service;
 
 import ru.practicum.shareit.item.dto.*;
+import ru.practicum.shareit.util.PageCursor;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ItemService {
@@ -11,6 +13,8 @@ public interface ItemService {
 
     List<ItemDtoResponse> getAll(long userId, long from, int size);
 
+    List<ItemDtoResponse> getAll(long userId, PageCursor after, int size);
+
     ItemDto add(ItemDto dto, long userId);
 
     CommentDtoResponse addComment(CommentDtoRequest commentDtoRequest, long itemId, long userId);
@@ -19,4 +23,12 @@ public interface ItemService {
 
     List<ItemDto> search(String text, long from, int size);
 
+    List<ItemDto> search(String text, PageCursor after, int size);
+
+    ItemAvailabilityDto getAvailability(long itemId, LocalDateTime from, LocalDateTime to);
+
+    List<ItemAvailabilityDto> getAvailability(List<Long> itemIds, LocalDateTime from, LocalDateTime to);
+
+    List<ItemImportRowDto> importBatch(List<ItemDto> itemDtos, long firstRow, long userId);
+
 }
\ No newline at end of file
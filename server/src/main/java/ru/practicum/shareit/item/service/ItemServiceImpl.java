@@ -3,6 +3,8 @@ package ru.practicum.shareit.item.service;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
@@ -10,26 +12,41 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.storage.BookingPeriod;
 import ru.practicum.shareit.booking.storage.BookingRepository;
 import ru.practicum.shareit.exception.AuthenticationErrorException;
 import ru.practicum.shareit.exception.CustomValidationException;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.cache.ItemCard;
+import ru.practicum.shareit.item.cache.ItemCardCache;
+import ru.practicum.shareit.item.cache.ItemSearchCache;
+import ru.practicum.shareit.item.cache.ItemSearchKey;
 import ru.practicum.shareit.item.dto.*;
+import ru.practicum.shareit.item.event.CommentAddedEvent;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
+import ru.practicum.shareit.item.event.ItemsImportedEvent;
 import ru.practicum.shareit.item.mapper.CommentMapper;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
 import ru.practicum.shareit.item.storage.CommentRepository;
 import ru.practicum.shareit.item.storage.ItemRepository;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.storage.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.storage.UserRepository;
+import ru.practicum.shareit.util.OffsetPageRequest;
+import ru.practicum.shareit.util.PageCursor;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -38,6 +55,9 @@ import java.util.stream.Collectors;
 @Slf4j
 @Transactional(readOnly = true)
 public class ItemServiceImpl implements ItemService {
+    private static final int TRIGRAM_LENGTH = 3;
+    private static final int IMPORT_EVENT_SIZE = 500;
+    private static final List<BookingStatus> BUSY_STATUSES = List.of(BookingStatus.WAITING, BookingStatus.APPROVED);
 
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
@@ -46,36 +66,57 @@ public class ItemServiceImpl implements ItemService {
     private final ItemMapper itemMapper;
     private final CommentMapper commentMapper;
     private final ItemRequestRepository itemRequestRepository;
+    private final ItemSearchIndex itemSearchIndex;
+    private final ItemCardCache itemCardCache;
+    private final ItemSearchCache itemSearchCache;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${shareit.item.search.trigram-index:false}")
+    private boolean trigramIndexSearch;
+
+    @Value("${shareit.item.search.trigram-max-selectivity:0.01}")
+    private double trigramMaxSelectivity;
 
     @Override
     public ItemDtoResponse getById(long id, long userId) {
         getUser(userId);
-        Item item = getItem(id);
-        return item.getOwner().getId().equals(userId) ?
-                formDtoResponseWithBookings(item) :
-                formDtoResponse(item);
+        ItemCard card = itemCardCache.getCard(id, () -> formCard(getItem(id)));
+        return card.getOwnerId() == userId ?
+                itemCardCache.getOwnerCard(id, () -> formDtoResponses(List.of(getItem(id))).get(0)) :
+                card.getItem();
     }
 
     @Override
     public List<ItemDtoResponse> getAll(long userId, long from, int size) {
         User owner = getUser(userId);
-        Pageable pageable = PageRequest.of((int) (from / size), size, Sort.by(Sort.Direction.ASC, "id"));
-        List<Item> items = itemRepository.findAllByOwnerOrderByIdAsc(owner, pageable);
+        Pageable pageable = OffsetPageRequest.of(from, size, Sort.by(Sort.Direction.ASC, "id"));
+        return formDtoResponses(itemRepository.findAllByOwnerOrderByIdAsc(owner, pageable));
+    }
+
+    @Override
+    public List<ItemDtoResponse> getAll(long userId, PageCursor after, int size) {
+        User owner = getUser(userId);
+        long afterId = Objects.isNull(after) ? 0 : after.getId();
+        return formDtoResponses(
+                itemRepository.findAllByOwnerAndIdGreaterThanOrderByIdAsc(owner, afterId, PageRequest.of(0, size)));
+    }
+
+    private List<ItemDtoResponse> formDtoResponses(List<Item> items) {
         List<Comment> comments = commentRepository.findAllByItemIn(items);
         Map<Long, List<Comment>> commentsByItemIds = comments.stream()
                 .collect(Collectors.groupingBy(comment -> comment.getItem().getId(), Collectors.toList()));
 
         LocalDateTime now = LocalDateTime.now();
-        List<Booking> lastBookings = bookingRepository.findAllByItemInAndStartLessThanEqualAndStatusIsOrderByStartDesc(
-                items, now, BookingStatus.APPROVED);
-        Map<Long, Booking> lastBookingsByItemIds = lastBookings.stream()
-                .collect(Collectors.toMap(booking -> booking.getItem().getId(), Function.identity(),
-                        (booking1, booking2) -> booking1));
-        List<Booking> nextBookings = bookingRepository.findAllByItemInAndStartAfterAndStatusIsOrderByStartAsc(
-                items, now, BookingStatus.APPROVED);
-        Map<Long, Booking> nextBookingsByItemIds = nextBookings.stream()
-                .collect(Collectors.toMap(booking -> booking.getItem().getId(), Function.identity(),
-                        (booking1, booking2) -> booking1));
+        List<Long> itemIds = items.stream()
+                .map(Item::getId)
+                .collect(Collectors.toList());
+        List<Booking> bookings = itemIds.isEmpty() ? Collections.emptyList() :
+                bookingRepository.findLastAndNextByItemIds(itemIds, now, BookingStatus.APPROVED.name());
+        Map<Boolean, Map<Long, Booking>> bookingsByNextAndItemIds = bookings.stream()
+                .collect(Collectors.partitioningBy(booking -> booking.getStart().isAfter(now),
+                        Collectors.toMap(booking -> booking.getItem().getId(), Function.identity())));
+        Map<Long, Booking> lastBookingsByItemIds = bookingsByNextAndItemIds.get(false);
+        Map<Long, Booking> nextBookingsByItemIds = bookingsByNextAndItemIds.get(true);
 
         return items.stream()
                 .map(item -> itemMapper.toDtoResponse(item, commentsByItemIds.get(item.getId()),
@@ -94,7 +135,54 @@ public class ItemServiceImpl implements ItemService {
         item.setRequest(itemRequest);
         item = itemRepository.save(item);
         log.debug("ItemServiceImpl: add item " + item + ".");
-        return itemMapper.toDto(item);
+        ItemDto addedDto = itemMapper.toDto(item);
+        eventPublisher.publishEvent(new ItemChangedEvent(userId, null, addedDto));
+        return addedDto;
+    }
+
+    @Override
+    @Transactional
+    public List<ItemImportRowDto> importBatch(List<ItemDto> itemDtos, long firstRow, long userId) {
+        User owner = getUser(userId);
+        Set<Long> requestIds = itemDtos.stream()
+                .filter(Objects::nonNull)
+                .map(ItemDto::getRequestId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, ItemRequest> requestsByIds = itemRequestRepository.findAllById(requestIds).stream()
+                .collect(Collectors.toMap(ItemRequest::getId, Function.identity()));
+
+        ItemImportRowDto[] rows = new ItemImportRowDto[itemDtos.size()];
+        List<Item> items = new ArrayList<>(itemDtos.size());
+        List<Integer> itemIndexes = new ArrayList<>(itemDtos.size());
+        for (int i = 0; i < itemDtos.size(); i++) {
+            ItemDto itemDto = itemDtos.get(i);
+            String error = validateImportedItem(itemDto, requestsByIds);
+            if (Objects.nonNull(error)) {
+                rows[i] = ItemImportRowDto.failed(firstRow + i, error);
+                continue;
+            }
+            Item item = itemMapper.fromDto(itemDto);
+            item.setOwner(owner);
+            item.setRequest(Objects.isNull(itemDto.getRequestId()) ? null : requestsByIds.get(itemDto.getRequestId()));
+            items.add(item);
+            itemIndexes.add(i);
+        }
+        List<ItemDto> addedDtos = itemRepository.saveAll(items).stream()
+                .map(itemMapper::toDto)
+                .collect(Collectors.toList());
+        for (int i = 0; i < addedDtos.size(); i++) {
+            int index = itemIndexes.get(i);
+            rows[index] = ItemImportRowDto.imported(firstRow + index, addedDtos.get(i).getId());
+        }
+        // one event per chunk, so caches and the search index take one scan and one lock per chunk, not per item
+        for (int from = 0; from < addedDtos.size(); from += IMPORT_EVENT_SIZE) {
+            eventPublisher.publishEvent(new ItemsImportedEvent(userId,
+                    List.copyOf(addedDtos.subList(from, Math.min(from + IMPORT_EVENT_SIZE, addedDtos.size())))));
+        }
+        log.debug("ItemServiceImpl: import " + addedDtos.size() + " of " + itemDtos.size() + " items by userId=" +
+                userId + ".");
+        return Arrays.asList(rows);
     }
 
     @Override
@@ -111,6 +199,7 @@ public class ItemServiceImpl implements ItemService {
         comment.setCreated(LocalDateTime.now());
         comment = commentRepository.save(comment);
         log.debug("ItemServiceImpl: add comment: " + comment + ".");
+        eventPublisher.publishEvent(new CommentAddedEvent(itemId));
         return commentMapper.toDto(comment);
     }
 
@@ -122,19 +211,140 @@ public class ItemServiceImpl implements ItemService {
             throw new AuthenticationErrorException(
                     "ItemServiceImpl: user id=" + userId + " is not owner of item id=" + itemId + ".");
         }
+        ItemDto beforeDto = itemMapper.toDto(item);
         itemMapper.updateWithPatchDto(item, itemPatchDto);
         log.debug("ItemServiceImpl: patch item " + item + ".");
-        return itemMapper.toDto(item);
+        ItemDto patchedDto = itemMapper.toDto(item);
+        eventPublisher.publishEvent(new ItemChangedEvent(userId, beforeDto, patchedDto));
+        return patchedDto;
     }
 
     @Override
     public List<ItemDto> search(String text, long from, int size) {
-        Pageable pageable = PageRequest.of((int) (from / size), size);
-        return itemRepository.searchByNameOrDescription(text.toLowerCase(), pageable).stream()
+        String normalizedText = ItemSearchCache.normalize(text);
+        return itemSearchCache.get(ItemSearchKey.of(normalizedText, from, size),
+                () -> searchItems(normalizedText, from, size));
+    }
+
+    @Override
+    public List<ItemDto> search(String text, PageCursor after, int size) {
+        String normalizedText = ItemSearchCache.normalize(text);
+        long afterId = Objects.isNull(after) ? 0 : after.getId();
+        return itemSearchCache.get(ItemSearchKey.ofCursor(normalizedText, afterId, size),
+                () -> searchItemsAfter(normalizedText, afterId, size));
+    }
+
+    private List<ItemDto> searchItems(String lowerText, long from, int size) {
+        Pageable pageable = OffsetPageRequest.of(from, size);
+        if (itemSearchIndex.isReady()) {
+            return findAllByIdsInOrder(itemSearchIndex.search(lowerText, pageable)).stream()
+                    .map(itemMapper::toDto)
+                    .collect(Collectors.toList());
+        }
+        List<Item> items = useTrigramIndex(lowerText) ?
+                itemRepository.searchByNameOrDescriptionTrigram(lowerText, pageable) :
+                itemRepository.searchByNameOrDescription(lowerText, pageable);
+        return items.stream()
+                .map(itemMapper::toDto)
+                .collect(Collectors.toList());
+    }
+
+    private List<ItemDto> searchItemsAfter(String lowerText, long afterId, int size) {
+        Pageable pageable = PageRequest.of(0, size);
+        List<Item> items = useTrigramIndex(lowerText) ?
+                itemRepository.searchByNameOrDescriptionTrigramAfter(lowerText, afterId, pageable) :
+                itemRepository.searchByNameOrDescriptionAfter(lowerText, afterId, pageable);
+        return items.stream()
                 .map(itemMapper::toDto)
                 .collect(Collectors.toList());
     }
 
+    // the trigram lookup reads every match before paging, frequent terms are cheaper to page along the primary key
+    private boolean useTrigramIndex(String lowerText) {
+        if (!trigramIndexSearch || lowerText.length() < TRIGRAM_LENGTH) {
+            return false;
+        }
+        Double selectivity = itemRepository.estimateSearchSelectivity(lowerText);
+        return Objects.isNull(selectivity) || selectivity < trigramMaxSelectivity;
+    }
+
+    @Override
+    public ItemAvailabilityDto getAvailability(long itemId, LocalDateTime from, LocalDateTime to) {
+        return formAvailabilities(List.of(getItem(itemId)), from, to).get(0);
+    }
+
+    @Override
+    public List<ItemAvailabilityDto> getAvailability(List<Long> itemIds, LocalDateTime from, LocalDateTime to) {
+        return formAvailabilities(findAllByIdsInOrder(itemIds.stream().distinct().collect(Collectors.toList())),
+                from, to);
+    }
+
+    private List<ItemAvailabilityDto> formAvailabilities(List<Item> items, LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            throw new CustomValidationException(
+                    "ItemServiceImpl: availability range start=" + from + " is not before end=" + to + ".");
+        }
+        List<Long> itemIds = items.stream()
+                .map(Item::getId)
+                .collect(Collectors.toList());
+        Map<Long, List<BookingPeriod>> periodsByItemIds = itemIds.isEmpty() ? Collections.emptyMap() :
+                bookingRepository.findPeriodsByItemIds(itemIds, BUSY_STATUSES, from, to).stream()
+                        .collect(Collectors.groupingBy(BookingPeriod::getItemId));
+        log.debug("ItemServiceImpl: get availability of items " + itemIds + " from " + from + " to " + to + ".");
+        return items.stream()
+                .map(item -> formAvailability(item,
+                        periodsByItemIds.getOrDefault(item.getId(), Collections.emptyList()), from, to))
+                .collect(Collectors.toList());
+    }
+
+    // periods come sorted by start, so overlapping or touching bookings merge in one pass
+    private static ItemAvailabilityDto formAvailability(Item item, List<BookingPeriod> periods,
+                                                        LocalDateTime from, LocalDateTime to) {
+        List<TimeSlotDto> busy = new ArrayList<>();
+        LocalDateTime busyStart = null;
+        LocalDateTime busyEnd = null;
+        for (BookingPeriod period : periods) {
+            LocalDateTime start = period.getStart().isBefore(from) ? from : period.getStart();
+            LocalDateTime end = period.getEnd().isAfter(to) ? to : period.getEnd();
+            if (Objects.nonNull(busyEnd) && !start.isAfter(busyEnd)) {
+                busyEnd = end.isAfter(busyEnd) ? end : busyEnd;
+                continue;
+            }
+            if (Objects.nonNull(busyEnd)) {
+                busy.add(new TimeSlotDto(busyStart, busyEnd));
+            }
+            busyStart = start;
+            busyEnd = end;
+        }
+        if (Objects.nonNull(busyEnd)) {
+            busy.add(new TimeSlotDto(busyStart, busyEnd));
+        }
+
+        List<TimeSlotDto> free = new ArrayList<>();
+        if (Boolean.TRUE.equals(item.getAvailable())) {
+            LocalDateTime freeStart = from;
+            for (TimeSlotDto slot : busy) {
+                if (freeStart.isBefore(slot.getStart())) {
+                    free.add(new TimeSlotDto(freeStart, slot.getStart()));
+                }
+                freeStart = slot.getEnd();
+            }
+            if (freeStart.isBefore(to)) {
+                free.add(new TimeSlotDto(freeStart, to));
+            }
+        }
+        return new ItemAvailabilityDto(item.getId(), item.getAvailable(), free, busy);
+    }
+
+    private List<Item> findAllByIdsInOrder(List<Long> itemIds) {
+        Map<Long, Item> itemsByIds = itemRepository.findAllById(itemIds).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        return itemIds.stream()
+                .map(itemsByIds::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
     private Item getItem(long itemId) {
         return itemRepository.findById(itemId)
                 .orElseThrow(() -> new NotFoundException("ItemServiceImpl: item with id=" + itemId + " not found."));
@@ -145,23 +355,28 @@ public class ItemServiceImpl implements ItemService {
                 .orElseThrow(() -> new NotFoundException("ItemServiceImpl: user with id=" + userId + " not found."));
     }
 
-    private ItemDtoResponse formDtoResponse(Item item) {
+    private ItemCard formCard(Item item) {
         List<Comment> comments = commentRepository.findAllByItem(item);
-        return itemMapper.toDtoResponse(item, comments);
+        return new ItemCard(item.getOwner().getId(), itemMapper.toDtoResponse(item, comments));
     }
 
-    private ItemDtoResponse formDtoResponseWithBookings(Item item) {
-        LocalDateTime now = LocalDateTime.now();
-        Booking lastBooking = bookingRepository
-                .findFirstByItemAndStartLessThanEqualAndStatusIsOrderByStartDesc(
-                        item, now, BookingStatus.APPROVED)
-                .orElse(null);
-        Booking nextBooking = bookingRepository
-                .findFirstByItemAndStartAfterAndStatusIsOrderByStartDesc(
-                        item, now, BookingStatus.APPROVED)
-                .orElse(null);
-        List<Comment> comments = commentRepository.findAllByItem(item);
-        return itemMapper.toDtoResponse(item, comments, lastBooking, nextBooking);
+    private static String validateImportedItem(ItemDto itemDto, Map<Long, ItemRequest> requestsByIds) {
+        if (Objects.isNull(itemDto)) {
+            return "ItemServiceImpl: item is empty.";
+        }
+        if (Objects.isNull(itemDto.getName()) || itemDto.getName().isBlank()) {
+            return "ItemServiceImpl: item name is blank.";
+        }
+        if (Objects.isNull(itemDto.getDescription()) || itemDto.getDescription().isBlank()) {
+            return "ItemServiceImpl: item description is blank.";
+        }
+        if (Objects.isNull(itemDto.getAvailable())) {
+            return "ItemServiceImpl: item available is null.";
+        }
+        if (Objects.nonNull(itemDto.getRequestId()) && !requestsByIds.containsKey(itemDto.getRequestId())) {
+            return "ItemServiceImpl: item request with id=" + itemDto.getRequestId() + " not found.";
+        }
+        return null;
     }
 
     private ItemRequest getItemRequest(long requestId) {
@@ -2,26 +2,67 @@ package ru.practicum.shareit.item.storage;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.model.User;
 
+import javax.persistence.LockModeType;
 import java.util.List;
 import java.util.Optional;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
 
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
     Optional<Item> findByIdAndOwnerIdNot(Long id, Long ownerId);
 
     @Query(value = "SELECT i " +
             "FROM Item AS i " +
-            "WHERE (lower(i.name) LIKE %:text% OR lower(i.description) LIKE %:text%) AND i.available=TRUE")
+            "WHERE (lower(i.name) LIKE %:text% OR lower(i.description) LIKE %:text%) AND i.available=TRUE " +
+            "ORDER BY i.id")
     List<Item> searchByNameOrDescription(@Param("text") String lowerText, Pageable pageable);
 
+    @Query(value = "SELECT i " +
+            "FROM Item AS i " +
+            "WHERE (lower(i.name) LIKE %:text% OR lower(i.description) LIKE %:text%) AND i.available=TRUE " +
+            "AND i.id > :afterId " +
+            "ORDER BY i.id")
+    List<Item> searchByNameOrDescriptionAfter(@Param("text") String lowerText, @Param("afterId") Long afterId,
+                                              Pageable pageable);
+
+    @Query(value = "WITH matched AS MATERIALIZED (" +
+            "SELECT * " +
+            "FROM items " +
+            "WHERE (lower(name) LIKE %:text% OR lower(description) LIKE %:text%) AND available = TRUE) " +
+            "SELECT * FROM matched ORDER BY id",
+            nativeQuery = true)
+    List<Item> searchByNameOrDescriptionTrigram(@Param("text") String lowerText, Pageable pageable);
+
+    @Query(value = "WITH matched AS MATERIALIZED (" +
+            "SELECT * " +
+            "FROM items " +
+            "WHERE (lower(name) LIKE %:text% OR lower(description) LIKE %:text%) AND available = TRUE " +
+            "AND id > :afterId) " +
+            "SELECT * FROM matched ORDER BY id",
+            nativeQuery = true)
+    List<Item> searchByNameOrDescriptionTrigramAfter(@Param("text") String lowerText, @Param("afterId") Long afterId,
+                                                     Pageable pageable);
+
+    // share of matching items among a fixed sample of rows, null on an empty table
+    @Query(value = "SELECT CAST(avg(CASE WHEN (lower(name) LIKE %:text% OR lower(description) LIKE %:text%) " +
+            "AND available = TRUE THEN 1 ELSE 0 END) AS DOUBLE PRECISION) " +
+            "FROM items TABLESAMPLE SYSTEM_ROWS(1000)",
+            nativeQuery = true)
+    Double estimateSearchSelectivity(@Param("text") String lowerText);
+
+    List<Item> findAllByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
     List<Item> findAllByOwnerOrderByIdAsc(User owner, Pageable pageable);
 
+    List<Item> findAllByOwnerAndIdGreaterThanOrderByIdAsc(User owner, Long afterId, Pageable pageable);
+
     List<Item> findAllByRequest(ItemRequest request);
 
     List<Item> findAllByRequestIn(List<ItemRequest> requests);
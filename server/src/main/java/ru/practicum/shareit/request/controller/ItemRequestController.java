@@ -2,11 +2,13 @@ package ru.practicum.shareit.request.controller;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestDtoRequest;
 import ru.practicum.shareit.request.dto.ItemRequestDtoResponse;
 import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.util.PageCursor;
 
 import java.util.List;
 
@@ -29,11 +31,17 @@ public class ItemRequestController {
     }
 
     @GetMapping("/all")
-    public List<ItemRequestDto> findAllByOtherUsers(
+    public ResponseEntity<List<ItemRequestDto>> findAllByOtherUsers(
             @RequestParam Long from,
             @RequestParam Integer size,
+            @RequestParam(required = false) String cursor,
             @RequestHeader("X-Sharer-User-Id") long userId) {
-        return itemRequestService.findByOtherUsers(userId, from, size);
+        if (cursor == null) {
+            return ResponseEntity.ok(itemRequestService.findByOtherUsers(userId, from, size));
+        }
+        return PageCursor.toResponse(
+                itemRequestService.findByOtherUsers(userId, PageCursor.decodeWithTime(cursor), size), size,
+                request -> PageCursor.of(request.getCreated(), request.getId()));
     }
 
     @GetMapping("/{requestId}")
@@ -3,6 +3,7 @@ package ru.practicum.shareit.request.service;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestDtoRequest;
 import ru.practicum.shareit.request.dto.ItemRequestDtoResponse;
+import ru.practicum.shareit.util.PageCursor;
 
 import java.util.List;
 
@@ -15,4 +16,6 @@ public interface ItemRequestService {
     List<ItemRequestDto> findByRequester(long requesterId);
 
     List<ItemRequestDto> findByOtherUsers(long userId, long from, int size);
+
+    List<ItemRequestDto> findByOtherUsers(long userId, PageCursor after, int size);
 }
@@ -19,11 +19,14 @@ import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.storage.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.storage.UserRepository;
+import ru.practicum.shareit.util.OffsetPageRequest;
+import ru.practicum.shareit.util.PageCursor;
 
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 @Service
@@ -70,12 +73,25 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     public List<ItemRequestDto> findByOtherUsers(long userId, long from, int size) {
         User exceptedRequester = getUser(userId);
         Sort sort = Sort.by(Sort.Direction.DESC, "created");
-        Pageable pageable = PageRequest.of((int) (from / size), size, sort);
+        Pageable pageable = OffsetPageRequest.of(from, size, sort);
         List<ItemRequest> itemRequests = itemRequestRepository.findAllByRequesterIsNot(exceptedRequester, pageable);
         List<Item> items = itemRepository.findAllByRequestIn(itemRequests);
         return itemRequestMapper.toRequestDto(itemRequests, formItemsByRequestIds(items));
     }
 
+    @Override
+    public List<ItemRequestDto> findByOtherUsers(long userId, PageCursor after, int size) {
+        User exceptedRequester = getUser(userId);
+        Sort sort = Sort.by(Sort.Direction.DESC, "created").and(Sort.by(Sort.Direction.DESC, "id"));
+        Pageable pageable = PageRequest.of(0, size, sort);
+        List<ItemRequest> itemRequests = Objects.isNull(after) ?
+                itemRequestRepository.findAllByRequesterIsNot(exceptedRequester, pageable) :
+                itemRequestRepository.findAllByRequesterIsNotAfter(exceptedRequester, after.getTime(), after.getId(),
+                        pageable);
+        List<Item> items = itemRepository.findAllByRequestIn(itemRequests);
+        return itemRequestMapper.toRequestDto(itemRequests, formItemsByRequestIds(items));
+    }
+
     private ItemRequest getItemRequest(long requestId) {
         return itemRequestRepository.findById(requestId)
                 .orElseThrow(() -> new NotFoundException("Item request with id=" + requestId + " not found."));
@@ -3,9 +3,12 @@ package ru.practicum.shareit.request.storage;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.model.User;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
@@ -13,4 +16,13 @@ public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long>
     List<ItemRequest> findAllByRequester(User requester, Sort sort);
 
     List<ItemRequest> findAllByRequesterIsNot(User notRequester, Pageable pageable);
+
+    @Query(value = "SELECT r " +
+            "FROM ItemRequest AS r " +
+            "WHERE r.requester <> :requester " +
+            "AND (r.created < :created OR (r.created = :created AND r.id < :id))")
+    List<ItemRequest> findAllByRequesterIsNotAfter(@Param("requester") User notRequester,
+                                                   @Param("created") LocalDateTime created,
+                                                   @Param("id") Long id,
+                                                   Pageable pageable);
 }
@@ -0,0 +1,300 @@
+package ru.practicum.shareit.seed;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.partition.BookingPartitionJob;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+@Component
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+@Slf4j
+@ConditionalOnProperty(name = "shareit.seed.enabled", havingValue = "true")
+public class DataSeeder {
+    private static final int BATCH_SIZE = 1000;
+    private static final int SPILL_ATTEMPTS = 10;
+    private static final long MAX_BOOKING_MINUTES = 14 * 24 * 60;
+    private static final String[] FIRST_NAMES = {"Anna", "Boris", "Daria", "Egor", "Irina", "Kirill", "Maria", "Oleg",
+            "Polina", "Roman", "Sofia", "Timur", "Vera", "Yuri"};
+    private static final String[] ADJECTIVES = {"cordless", "electric", "folding", "portable", "heavy", "compact",
+            "vintage", "inflatable", "waterproof", "professional", "kids", "camping"};
+    private static final String[] NOUNS = {"drill", "saw", "ladder", "tent", "kayak", "projector", "mixer",
+            "scooter", "bicycle", "camera", "speaker", "grill", "sander", "stroller", "snowboard", "telescope"};
+    private static final String[] CONDITIONS = {"new", "good", "used", "well kept", "slightly scratched"};
+    private static final String[] COMMENTS = {"Works perfectly, thanks!", "Exactly as described.",
+            "A bit worn but did the job.", "Owner was very helpful.", "Would rent again.", "Battery died quickly.",
+            "Great value for a weekend."};
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ItemSearchIndex itemSearchIndex;
+    private final ObjectProvider<BookingPartitionJob> bookingPartitionJob;
+
+    @Value("${shareit.seed.random-seed:42}")
+    private long randomSeed;
+
+    @Value("${shareit.seed.users:1000000}")
+    private int userCount;
+
+    @Value("${shareit.seed.requests:100000}")
+    private int requestCount;
+
+    @Value("${shareit.seed.items:2000000}")
+    private int itemCount;
+
+    @Value("${shareit.seed.bookings:10000000}")
+    private int bookingCount;
+
+    @Value("${shareit.seed.max-bookings-per-item:2000}")
+    private int maxBookingsPerItem;
+
+    @Value("${shareit.seed.item-popularity-exponent:1.0}")
+    private double itemPopularityExponent;
+
+    @Value("${shareit.seed.user-activity-exponent:0.8}")
+    private double userActivityExponent;
+
+    @Value("${shareit.seed.comment-share:0.2}")
+    private double commentShare;
+
+    @Value("${shareit.seed.burst-item-share:0.01}")
+    private double burstItemShare;
+
+    @Value("${shareit.seed.history-days:1095}")
+    private int historyDays;
+
+    @Value("${shareit.seed.future-days:90}")
+    private int futureDays;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(0)
+    public void seed() {
+        Long existingUsers = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users", Long.class);
+        if (existingUsers != null && existingUsers > 0) {
+            log.info("DataSeeder: database already has " + existingUsers + " users, seeding skipped.");
+            return;
+        }
+        if (userCount < 2 || itemCount < 1) {
+            throw new IllegalStateException("DataSeeder: at least 2 users and 1 item are needed to seed bookings.");
+        }
+        long started = System.nanoTime();
+        // every row comes from this one generator, so the same seed gives the same data relative to the start time
+        SplittableRandom random = new SplittableRandom(randomSeed);
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES);
+
+        insertUsers(random);
+        insertRequests(random, now);
+        int[] itemOwners = insertItems(random);
+        long comments = insertBookingsAndComments(random, now, itemOwners);
+
+        restartSequence("users_seq", userCount + 1L);
+        restartSequence("requests_seq", requestCount + 1L);
+        restartSequence("items_seq", itemCount + 1L);
+        restartSequence("bookings_seq", bookingCount + 1L);
+        restartSequence("comments_seq", comments + 1);
+
+        // on postgres the seeded history lands in default partitions until the job splits it into months
+        bookingPartitionJob.ifAvailable(BookingPartitionJob::maintainPartitions);
+        if (itemSearchIndex.isReady()) {
+            itemSearchIndex.rebuild();
+        }
+        log.info("DataSeeder: seeded " + userCount + " users, " + requestCount + " requests, " + itemCount +
+                " items, " + bookingCount + " bookings and " + comments + " comments in " +
+                (System.nanoTime() - started) / 1_000_000 + " ms.");
+    }
+
+    private void insertUsers(SplittableRandom random) {
+        Batch users = new Batch("INSERT INTO users (id, name, email) VALUES (?, ?, ?)");
+        for (long id = 1; id <= userCount; id++) {
+            String name = pick(random, FIRST_NAMES);
+            users.add(id, name, name.toLowerCase() + id + "@mail.ru");
+        }
+        users.flush();
+    }
+
+    private void insertRequests(SplittableRandom random, LocalDateTime now) {
+        Batch requests = new Batch("INSERT INTO requests (id, description, requester_id, created) " +
+                "VALUES (?, ?, ?, ?)");
+        for (long id = 1; id <= requestCount; id++) {
+            requests.add(id, "Looking for a " + pick(random, ADJECTIVES) + " " + pick(random, NOUNS),
+                    1 + random.nextInt(userCount), timestamp(now.minusMinutes(random.nextLong(historyDays * 1440L))));
+        }
+        requests.flush();
+    }
+
+    // owners follow a zipf distribution, so a few users own most of the catalogue
+    private int[] insertItems(SplittableRandom random) {
+        ZipfDistribution owners = new ZipfDistribution(userCount, userActivityExponent);
+        int[] itemOwners = new int[itemCount];
+        Batch items = new Batch("INSERT INTO items (id, name, description, available, owner_id, " +
+                "request_id) VALUES (?, ?, ?, ?, ?, ?)");
+        for (int index = 0; index < itemCount; index++) {
+            itemOwners[index] = owners.sample(random) + 1;
+            String noun = pick(random, NOUNS);
+            Long requestId = requestCount > 0 && random.nextInt(20) == 0 ? 1L + random.nextInt(requestCount) : null;
+            items.add(index + 1L, pick(random, ADJECTIVES) + " " + noun,
+                    capitalize(noun) + " in " + pick(random, CONDITIONS) + " condition, pick up any evening",
+                    random.nextInt(10) != 0, itemOwners[index], requestId);
+        }
+        items.flush();
+        return itemOwners;
+    }
+
+    // item popularity is zipfian and capped per item, the overflow of the hottest items goes to the next draws
+    private int[] bookingsPerItem(SplittableRandom random) {
+        long capacity = (long) itemCount * maxBookingsPerItem;
+        if (bookingCount > capacity) {
+            throw new IllegalStateException("DataSeeder: " + bookingCount + " bookings don't fit into " + itemCount +
+                    " items with at most " + maxBookingsPerItem + " bookings each.");
+        }
+        ZipfDistribution popularity = new ZipfDistribution(itemCount, itemPopularityExponent);
+        int[] bookingsPerItem = new int[itemCount];
+        for (int booking = 0; booking < bookingCount; booking++) {
+            int index = popularity.sample(random);
+            for (int attempt = 0; bookingsPerItem[index] >= maxBookingsPerItem; attempt++) {
+                index = attempt < SPILL_ATTEMPTS ? popularity.sample(random) : random.nextInt(itemCount);
+            }
+            bookingsPerItem[index]++;
+        }
+        return bookingsPerItem;
+    }
+
+    private long insertBookingsAndComments(SplittableRandom random, LocalDateTime now, int[] itemOwners) {
+        int[] bookingsPerItem = bookingsPerItem(random);
+        ZipfDistribution bookers = new ZipfDistribution(userCount, userActivityExponent);
+        long[][] counters = new long[4][userCount + 1];
+        Batch bookings = new Batch("INSERT INTO bookings (id, start_time, end_time, item_id, booker_id, " +
+                "status) VALUES (?, ?, ?, ?, ?, ?)");
+        Batch comments = new Batch("INSERT INTO comments (id, text, item_id, author_id, created) " +
+                "VALUES (?, ?, ?, ?, ?)");
+        LocalDateTime windowStart = now.minusDays(historyDays);
+        long windowMinutes = (historyDays + futureDays) * 1440L;
+        long bookingId = 0;
+        for (int index = 0; index < itemCount; index++) {
+            int count = bookingsPerItem[index];
+            if (count == 0) {
+                continue;
+            }
+            long itemId = index + 1L;
+            int ownerId = itemOwners[index];
+            // the item's history is cut into equal slots with one booking each, so bookings never overlap
+            long slot = windowMinutes / count;
+            boolean burst = random.nextDouble() < burstItemShare;
+            LocalDateTime burstStart = windowStart.plusMinutes(random.nextLong(historyDays * 1440L));
+            for (int k = 0; k < count; k++) {
+                LocalDateTime start = windowStart.plusMinutes(k * slot + random.nextLong(Math.max(1, slot / 4)));
+                LocalDateTime end = start.plusMinutes(1 + random.nextLong(Math.max(1,
+                        Math.min(slot / 2, MAX_BOOKING_MINUTES))));
+                // heavy owners take the lowest ids and heavy bookers the highest
+                int bookerId = userCount - bookers.sample(random);
+                if (bookerId == ownerId) {
+                    bookerId = bookerId % userCount + 1;
+                }
+                BookingStatus status = status(random, now, start, end);
+                bookings.add(++bookingId, timestamp(start), timestamp(end), itemId, bookerId, status.name());
+                if (status == BookingStatus.WAITING) {
+                    counters[0][bookerId]++;
+                    counters[2][ownerId]++;
+                } else if (status == BookingStatus.REJECTED) {
+                    counters[1][bookerId]++;
+                    counters[3][ownerId]++;
+                }
+                if (status == BookingStatus.APPROVED && end.isBefore(now)
+                        && (burst || random.nextDouble() < commentShare)) {
+                    // comments on a burst item pile up within hours of one moment instead of following each rental
+                    LocalDateTime created = (burst && burstStart.isAfter(end) ? burstStart : end)
+                            .plusMinutes(random.nextLong(burst ? 360 : 3 * 1440));
+                    comments.add(comments.count + 1, pick(random, COMMENTS), itemId, bookerId,
+                            timestamp(created.isAfter(now) ? now : created));
+                }
+            }
+        }
+        bookings.flush();
+        comments.flush();
+        updateCounters(counters);
+        return comments.count;
+    }
+
+    private static BookingStatus status(SplittableRandom random, LocalDateTime now, LocalDateTime start,
+                                        LocalDateTime end) {
+        double roll = random.nextDouble();
+        if (end.isBefore(now)) {
+            return roll < 0.85 ? BookingStatus.APPROVED
+                    : roll < 0.93 ? BookingStatus.REJECTED : BookingStatus.CANCELED;
+        }
+        if (start.isAfter(now)) {
+            return roll < 0.5 ? BookingStatus.WAITING : roll < 0.9 ? BookingStatus.APPROVED
+                    : roll < 0.95 ? BookingStatus.REJECTED : BookingStatus.CANCELED;
+        }
+        return BookingStatus.APPROVED;
+    }
+
+    // the bulk insert bypasses the services, so the per-user booking counters are written in one pass at the end
+    private void updateCounters(long[][] counters) {
+        Batch counterUpdates = new Batch("UPDATE users SET booker_waiting_count = ?, booker_rejected_count = ?, " +
+                "owner_waiting_count = ?, owner_rejected_count = ? WHERE id = ?");
+        for (int id = 1; id <= userCount; id++) {
+            if (counters[0][id] + counters[1][id] + counters[2][id] + counters[3][id] > 0) {
+                counterUpdates.add(counters[0][id], counters[1][id], counters[2][id], counters[3][id], id);
+            }
+        }
+        counterUpdates.flush();
+    }
+
+    // ids were assigned here, hibernate has to continue after them
+    private void restartSequence(String sequence, long next) {
+        jdbcTemplate.execute("ALTER SEQUENCE " + sequence + " RESTART WITH " + next);
+    }
+
+    private static Timestamp timestamp(LocalDateTime dateTime) {
+        return Timestamp.valueOf(dateTime);
+    }
+
+    private static String pick(SplittableRandom random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private static String capitalize(String value) {
+        return Character.toUpperCase(value.charAt(0)) + value.substring(1);
+    }
+
+    private class Batch {
+        private final String sql;
+        private final List<Object[]> rows = new ArrayList<>(BATCH_SIZE);
+        private long count;
+
+        Batch(String sql) {
+            this.sql = sql;
+        }
+
+        void add(Object... row) {
+            rows.add(row);
+            count++;
+            if (rows.size() == BATCH_SIZE) {
+                flush();
+            }
+        }
+
+        void flush() {
+            if (!rows.isEmpty()) {
+                jdbcTemplate.batchUpdate(sql, rows);
+                rows.clear();
+            }
+        }
+    }
+}
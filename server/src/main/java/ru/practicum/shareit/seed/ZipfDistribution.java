@@ -0,0 +1,29 @@
+package ru.practicum.shareit.seed;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+public class ZipfDistribution {
+    private final double[] cumulative;
+
+    public ZipfDistribution(int size, double exponent) {
+        if (size < 1) {
+            throw new IllegalArgumentException("ZipfDistribution: size must be positive, got " + size + ".");
+        }
+        cumulative = new double[size];
+        double sum = 0;
+        for (int rank = 0; rank < size; rank++) {
+            sum += 1 / Math.pow(rank + 1, exponent);
+            cumulative[rank] = sum;
+        }
+        for (int rank = 0; rank < size; rank++) {
+            cumulative[rank] /= sum;
+        }
+    }
+
+    // rank 0 is the most frequent one
+    public int sample(SplittableRandom random) {
+        int rank = Arrays.binarySearch(cumulative, random.nextDouble());
+        return Math.min(rank >= 0 ? rank : -rank - 1, cumulative.length - 1);
+    }
+}
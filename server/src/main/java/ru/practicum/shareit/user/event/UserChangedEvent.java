@@ -0,0 +1,8 @@
+package ru.practicum.shareit.user.event;
+
+import lombok.Value;
+
+@Value
+public class UserChangedEvent {
+    long userId;
+}
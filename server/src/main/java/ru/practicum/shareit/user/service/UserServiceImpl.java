@@ -3,12 +3,15 @@ package ru.practicum.shareit.user.service;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.user.dto.*;
+import ru.practicum.shareit.user.event.UserChangedEvent;
+import ru.practicum.shareit.user.event.UserDeletedEvent;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.storage.UserRepository;
@@ -23,6 +26,7 @@ import java.util.stream.Collectors;
 public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
     private final UserMapper userMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public UserDto getById(long id) {
@@ -59,12 +63,15 @@ public class UserServiceImpl implements UserService {
                 );
         userMapper.updateWithPatchDto(user, patchDto);
         log.debug("UserServiceImpl: patch user " + user + ".");
+        eventPublisher.publishEvent(new UserChangedEvent(id));
         return userMapper.toDto(user);
     }
 
     @Override
     @Transactional(isolation = Isolation.SERIALIZABLE)
     public void delete(long id) {
+        // published before the delete so synchronous listeners still see the bookings removed by the cascade
+        eventPublisher.publishEvent(new UserDeletedEvent(id));
         try {
             userRepository.deleteById(id);
         } catch (EmptyResultDataAccessException e) {
@@ -0,0 +1,46 @@
+package ru.practicum.shareit.util;
+
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Configuration
+public class DataSourceProxyConfig {
+    public static final String ROW_COUNT_PROPERTY = "shareit.sql.metrics.row-count";
+
+    // static, so the post processor exists before the datasource is created
+    @Bean
+    public static BeanPostProcessor dataSourceProxyPostProcessor(Environment environment,
+                                                                 ObjectProvider<QueryExecutionListener> listeners) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource) || bean instanceof ProxyDataSource) {
+                    return bean;
+                }
+                // row counting proxies every result set call, so it is off in prod
+                boolean countRows = environment.getProperty(ROW_COUNT_PROPERTY, Boolean.class, true);
+                List<QueryExecutionListener> queryListeners = listeners.orderedStream()
+                        .collect(Collectors.toList());
+                if (!countRows && queryListeners.isEmpty()) {
+                    return bean;
+                }
+                ProxyDataSourceBuilder builder = ProxyDataSourceBuilder.create(beanName, (DataSource) bean);
+                if (countRows) {
+                    builder.proxyResultSet().methodListener(new SqlRowCounter());
+                }
+                queryListeners.forEach(builder::listener);
+                return builder.build();
+            }
+        };
+    }
+}
@@ -0,0 +1,81 @@
+package ru.practicum.shareit.util;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.model.BookingState;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+// outside the transaction interceptor, so commit time and flushed statements belong to the service method
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+public class MethodMetricsAspect {
+    private static final String NONE = "none";
+
+    private final MeterRegistry meterRegistry;
+
+    @Around("execution(public * ru.practicum.shareit..controller.*Controller.*(..))")
+    public Object timeController(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time("controller.calls", "Controller method latency", joinPoint);
+    }
+
+    @Around("execution(public * ru.practicum.shareit..service.*ServiceImpl.*(..))")
+    public Object timeService(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time("service.calls", "Service method latency", joinPoint);
+    }
+
+    private Object time(String name, String description, ProceedingJoinPoint joinPoint) throws Throwable {
+        String className = joinPoint.getSignature().getDeclaringType().getSimpleName();
+        String methodName = joinPoint.getSignature().getName();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String exception = NONE;
+        SqlCallSite.enter(className + "." + methodName);
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable throwable) {
+            exception = throwable.getClass().getSimpleName();
+            throw throwable;
+        } finally {
+            SqlCallSite.exit();
+            sample.stop(Timer.builder(name)
+                    .description(description)
+                    .tag("class", className)
+                    .tag("method", methodName)
+                    .tag("state", state(joinPoint))
+                    .tag("exception", exception)
+                    .publishPercentileHistogram()
+                    .minimumExpectedValue(Duration.ofMillis(1))
+                    .maximumExpectedValue(Duration.ofSeconds(30))
+                    .register(meterRegistry));
+        }
+    }
+
+    // controllers get the raw request parameter, so only known states become tag values
+    static String state(ProceedingJoinPoint joinPoint) {
+        Object[] args = joinPoint.getArgs();
+        String[] names = ((MethodSignature) joinPoint.getSignature()).getParameterNames();
+        for (int i = 0; i < args.length; i++) {
+            if (args[i] instanceof BookingState) {
+                return ((BookingState) args[i]).name();
+            }
+            if (args[i] instanceof String && names != null && "state".equals(names[i])) {
+                String state = (String) args[i];
+                return Arrays.stream(BookingState.values()).anyMatch(known -> known.name().equals(state))
+                        ? state : "UNKNOWN";
+            }
+        }
+        return NONE;
+    }
+}
@@ -0,0 +1,67 @@
+package ru.practicum.shareit.util;
+
+import lombok.Value;
+import org.springframework.http.ResponseEntity;
+import ru.practicum.shareit.exception.CustomValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+@Value
+public class PageCursor {
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final String SEPARATOR = "|";
+
+    LocalDateTime time;
+
+    long id;
+
+    public static PageCursor of(long id) {
+        return new PageCursor(null, id);
+    }
+
+    public static PageCursor of(LocalDateTime time, long id) {
+        return new PageCursor(time, id);
+    }
+
+    public static PageCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separatorIndex = decoded.indexOf(SEPARATOR);
+            String time = decoded.substring(0, separatorIndex);
+            long id = Long.parseLong(decoded.substring(separatorIndex + 1));
+            return new PageCursor(time.isEmpty() ? null : LocalDateTime.parse(time), id);
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new CustomValidationException("PageCursor: invalid cursor " + cursor + ".");
+        }
+    }
+
+    public static PageCursor decodeWithTime(String cursor) {
+        PageCursor pageCursor = decode(cursor);
+        if (pageCursor != null && pageCursor.getTime() == null) {
+            throw new CustomValidationException("PageCursor: invalid cursor " + cursor + ".");
+        }
+        return pageCursor;
+    }
+
+    public static <T> ResponseEntity<List<T>> toResponse(List<T> page, int size, Function<T, PageCursor> cursorOf) {
+        if (page.isEmpty() || page.size() < size) {
+            return ResponseEntity.ok(page);
+        }
+        return ResponseEntity.ok()
+                .header(NEXT_CURSOR_HEADER, cursorOf.apply(page.get(page.size() - 1)).encode())
+                .body(page);
+    }
+
+    public String encode() {
+        String value = (time == null ? "" : time.toString()) + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,120 @@
+package ru.practicum.shareit.util;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+@Component
+@ConditionalOnProperty(name = "shareit.sql.log.enabled", havingValue = "true")
+@Slf4j
+public class SlowQueryLog implements QueryExecutionListener {
+    // distinct statements kept for the top list, the rest are logged but not aggregated
+    private static final int MAX_TRACKED_STATEMENTS = 1000;
+
+    private final long slowThresholdMillis;
+    private final double samplePercent;
+    private final int topSize;
+    private final Map<String, SlowStatement> statements = new ConcurrentHashMap<>();
+
+    @Autowired
+    public SlowQueryLog(@Value("${shareit.sql.log.slow-threshold:200ms}") Duration slowThreshold,
+                        @Value("${shareit.sql.log.sample-percent:0}") double samplePercent,
+                        @Value("${shareit.sql.log.top-size:20}") int topSize) {
+        this.slowThresholdMillis = slowThreshold.toMillis();
+        this.samplePercent = samplePercent;
+        this.topSize = topSize;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    // parameters are never logged, they carry user data
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        long elapsed = execInfo.getElapsedTime();
+        boolean slow = elapsed >= slowThresholdMillis;
+        if (!slow && (samplePercent <= 0 || ThreadLocalRandom.current().nextDouble(100) >= samplePercent)) {
+            return;
+        }
+        String sql = queryInfoList.stream()
+                .map(QueryInfo::getQuery)
+                .collect(Collectors.joining("; "));
+        String callSite = SqlCallSite.current();
+        if (!slow) {
+            log.info("SlowQueryLog: sampled statement took " + elapsed + " ms in " + callSite + ": " + sql);
+            return;
+        }
+        log.warn("SlowQueryLog: slow statement took " + elapsed + " ms in " + callSite + ": " + sql);
+        SlowStatement statement = statements.get(sql);
+        if (statement == null) {
+            if (statements.size() >= MAX_TRACKED_STATEMENTS) {
+                return;
+            }
+            statement = statements.computeIfAbsent(sql, SlowStatement::new);
+        }
+        statement.record(elapsed, callSite);
+    }
+
+    public List<SlowStatementDto> getTop() {
+        return statements.values().stream()
+                .map(SlowStatement::toDto)
+                .sorted(Comparator.comparingLong(SlowStatementDto::getTotalMillis).reversed())
+                .limit(topSize)
+                .collect(Collectors.toList());
+    }
+
+    public void reset() {
+        statements.clear();
+    }
+
+    private static class SlowStatement {
+        private final String sql;
+        private long count;
+        private long totalMillis;
+        private long maxMillis;
+        private String maxCallSite;
+
+        SlowStatement(String sql) {
+            this.sql = sql;
+        }
+
+        synchronized void record(long millis, String callSite) {
+            count++;
+            totalMillis += millis;
+            if (millis >= maxMillis) {
+                maxMillis = millis;
+                maxCallSite = callSite;
+            }
+        }
+
+        synchronized SlowStatementDto toDto() {
+            return new SlowStatementDto(sql, count, totalMillis, maxMillis, maxCallSite);
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class SlowStatementDto {
+        private final String sql;
+        private final long count;
+        private final long totalMillis;
+        private final long maxMillis;
+        private final String maxCallSite;
+    }
+}
@@ -0,0 +1,22 @@
+package ru.practicum.shareit.util;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+// controller and service methods the current thread is inside of, outermost first
+public class SqlCallSite {
+    private static final ThreadLocal<Deque<String>> METHODS = ThreadLocal.withInitial(ArrayDeque::new);
+
+    public static void enter(String method) {
+        METHODS.get().addLast(method);
+    }
+
+    public static void exit() {
+        METHODS.get().pollLast();
+    }
+
+    public static String current() {
+        Deque<String> methods = METHODS.get();
+        return methods.isEmpty() ? "unknown" : String.join(" > ", methods);
+    }
+}
@@ -0,0 +1,31 @@
+package ru.practicum.shareit.util;
+
+import net.ttddyy.dsproxy.listener.MethodExecutionContext;
+import net.ttddyy.dsproxy.listener.MethodExecutionListener;
+
+import java.sql.ResultSet;
+
+public class SqlRowCounter implements MethodExecutionListener {
+    private static final ThreadLocal<Integer> COUNT = ThreadLocal.withInitial(() -> 0);
+
+    public static void reset() {
+        COUNT.set(0);
+    }
+
+    public static int get() {
+        return COUNT.get();
+    }
+
+    @Override
+    public void beforeMethod(MethodExecutionContext executionContext) {
+    }
+
+    @Override
+    public void afterMethod(MethodExecutionContext executionContext) {
+        if (executionContext.getTarget() instanceof ResultSet &&
+                "next".equals(executionContext.getMethod().getName()) &&
+                Boolean.TRUE.equals(executionContext.getResult())) {
+            COUNT.set(COUNT.get() + 1);
+        }
+    }
+}
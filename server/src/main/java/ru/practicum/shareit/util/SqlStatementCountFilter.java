@@ -0,0 +1,66 @@
+package ru.practicum.shareit.util;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Objects;
+
+@Component
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+@Slf4j
+public class SqlStatementCountFilter extends OncePerRequestFilter {
+    // absent in web slice tests, which only pick up controllers and filters
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    @Value("${" + DataSourceProxyConfig.ROW_COUNT_PROPERTY + ":true}")
+    private boolean countRows;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        SqlStatementCounter.reset();
+        SqlRowCounter.reset();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            int statements = SqlStatementCounter.get();
+            int rows = SqlRowCounter.get();
+            // the mapping pattern keeps ids out of the tags, same as http.server.requests
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String uri = Objects.isNull(pattern) ? "UNKNOWN" : pattern.toString();
+            record("sql.statements", "SQL statements executed per request", request.getMethod(), uri,
+                    1000, statements);
+            if (countRows) {
+                record("sql.rows", "Result set rows fetched per request", request.getMethod(), uri,
+                        100_000, rows);
+            }
+            log.debug("SqlStatementCountFilter: " + request.getMethod() + " " + request.getRequestURI() +
+                    " executed " + statements + " sql statements and fetched " + rows + " rows.");
+        }
+    }
+
+    private void record(String name, String description, String method, String uri, double maximum, int value) {
+        meterRegistry.ifAvailable(registry -> DistributionSummary.builder(name)
+                .description(description)
+                .tag("method", method)
+                .tag("uri", uri)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(1.0)
+                .maximumExpectedValue(maximum)
+                .register(registry)
+                .record(value));
+    }
+}
@@ -1,6 +1,4 @@
-DROP TABLE IF EXISTS users, requests, items, bookings, comments;
-
-    CREATE TABLE IF NOT EXISTS users (
+CREATE TABLE IF NOT EXISTS users (
     id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
     name VARCHAR(255) NOT NULL,
     email VARCHAR(512) NOT NULL,
@@ -8,7 +6,7 @@ DROP TABLE IF EXISTS users, requests, items, bookings, comments;
     CONSTRAINT UQ_USER_EMAIL UNIQUE (email)
 );
 
-    CREATE TABLE IF NOT EXISTS requests (
+CREATE TABLE IF NOT EXISTS requests (
     id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
     description VARCHAR(255) NOT NULL,
     requester_id BIGINT NOT NULL,
@@ -17,7 +15,7 @@ DROP TABLE IF EXISTS users, requests, items, bookings, comments;
     CONSTRAINT fk_request_requester FOREIGN KEY (requester_id) REFERENCES users(id)
 );
 
-    CREATE TABLE IF NOT EXISTS items (
+CREATE TABLE IF NOT EXISTS items (
     id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
     name VARCHAR(255) NOT NULL,
     description VARCHAR(512) NOT NULL,
@@ -29,7 +27,7 @@ DROP TABLE IF EXISTS users, requests, items, bookings, comments;
     CONSTRAINT fk_item_request FOREIGN KEY (request_id) REFERENCES requests(id)
 );
 
-    CREATE TABLE IF NOT EXISTS bookings (
+CREATE TABLE IF NOT EXISTS bookings (
     id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
     start_time TIMESTAMP WITHOUT TIME ZONE,
     end_time TIMESTAMP WITHOUT TIME ZONE,
@@ -42,7 +40,7 @@ DROP TABLE IF EXISTS users, requests, items, bookings, comments;
     CONSTRAINT booking_dates_sequence CHECK (end_time > start_time)
 );
 
-    CREATE TABLE IF NOT EXISTS comments (
+CREATE TABLE IF NOT EXISTS comments (
     id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
     text VARCHAR(255),
     item_id BIGINT,
@@ -51,4 +49,4 @@ DROP TABLE IF EXISTS users, requests, items, bookings, comments;
     CONSTRAINT pk_comment PRIMARY KEY (id),
     CONSTRAINT fk_comment_item FOREIGN KEY (item_id) REFERENCES items(id) ON DELETE CASCADE,
     CONSTRAINT fk_comment_author FOREIGN KEY (author_id) REFERENCES users(id) ON DELETE CASCADE
-);
\ No newline at end of file
+);
@@ -0,0 +1,17 @@
+ALTER TABLE users ADD COLUMN IF NOT EXISTS booker_waiting_count BIGINT NOT NULL DEFAULT 0;
+
+ALTER TABLE users ADD COLUMN IF NOT EXISTS booker_rejected_count BIGINT NOT NULL DEFAULT 0;
+
+ALTER TABLE users ADD COLUMN IF NOT EXISTS owner_waiting_count BIGINT NOT NULL DEFAULT 0;
+
+ALTER TABLE users ADD COLUMN IF NOT EXISTS owner_rejected_count BIGINT NOT NULL DEFAULT 0;
+
+UPDATE users SET
+    booker_waiting_count = (SELECT COUNT(*) FROM bookings AS b
+        WHERE b.booker_id = users.id AND b.status = 'WAITING'),
+    booker_rejected_count = (SELECT COUNT(*) FROM bookings AS b
+        WHERE b.booker_id = users.id AND b.status = 'REJECTED'),
+    owner_waiting_count = (SELECT COUNT(*) FROM bookings AS b JOIN items AS i ON i.id = b.item_id
+        WHERE i.owner_id = users.id AND b.status = 'WAITING'),
+    owner_rejected_count = (SELECT COUNT(*) FROM bookings AS b JOIN items AS i ON i.id = b.item_id
+        WHERE i.owner_id = users.id AND b.status = 'REJECTED');
@@ -0,0 +1,14 @@
+CREATE INDEX IF NOT EXISTS ix_bookings_booker_start_id
+    ON bookings (booker_id, start_time DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS ix_bookings_booker_status_start_id
+    ON bookings (booker_id, status, start_time DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS ix_bookings_item_start_id
+    ON bookings (item_id, start_time DESC, id DESC);
+
+DROP INDEX IF EXISTS ix_bookings_booker_start;
+
+DROP INDEX IF EXISTS ix_bookings_booker_status_start;
+
+DROP INDEX IF EXISTS ix_bookings_item_start;
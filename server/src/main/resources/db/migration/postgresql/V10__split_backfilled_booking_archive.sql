@@ -0,0 +1,30 @@
+-- rows inserted with a start_time below the archive bound (imports, seeded history) end up in
+-- bookings_archive_default, this moves every such month into its own partition under bookings_archive
+CREATE OR REPLACE FUNCTION split_booking_archive() RETURNS INTEGER AS $$
+DECLARE
+    month_start DATE;
+    month_end DATE;
+    partition_name TEXT;
+    created INTEGER := 0;
+BEGIN
+    LOCK TABLE bookings_archive_default IN SHARE ROW EXCLUSIVE MODE;
+    FOR month_start IN
+        SELECT DISTINCT date_trunc('month', start_time)::DATE FROM bookings_archive_default ORDER BY 1
+    LOOP
+        partition_name := 'bookings_p' || to_char(month_start, 'YYYY_MM');
+        month_end := (month_start + INTERVAL '1 month')::DATE;
+        CONTINUE WHEN to_regclass(partition_name) IS NOT NULL;
+        EXECUTE format('CREATE TABLE %I (LIKE bookings INCLUDING DEFAULTS INCLUDING CONSTRAINTS)', partition_name);
+        EXECUTE format('WITH moved AS (DELETE FROM bookings_archive_default WHERE start_time >= %L AND start_time < %L '
+                           'RETURNING *) INSERT INTO %I SELECT * FROM moved', month_start, month_end, partition_name);
+        EXECUTE format('ALTER TABLE %I ADD CONSTRAINT %I EXCLUDE USING GIST '
+                           '(item_id WITH =, tsrange(start_time, end_time) WITH &&) '
+                           'WHERE (status IN (''WAITING'', ''APPROVED''))',
+                       partition_name, 'ex_' || partition_name || '_item_period');
+        EXECUTE format('ALTER TABLE bookings_archive ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+                       partition_name, month_start, month_end);
+        created := created + 1;
+    END LOOP;
+    RETURN created;
+END;
+$$ LANGUAGE plpgsql;
@@ -0,0 +1,9 @@
+-- the default partitions hold bookings beyond the created months and backfilled history until the partition job
+-- moves them out, without their own constraint overlapping active bookings were accepted there
+ALTER TABLE bookings_default ADD CONSTRAINT ex_bookings_default_item_period
+    EXCLUDE USING GIST (item_id WITH =, tsrange(start_time, end_time) WITH &&)
+    WHERE (status IN ('WAITING', 'APPROVED'));
+
+ALTER TABLE bookings_archive_default ADD CONSTRAINT ex_bookings_archive_default_item_period
+    EXCLUDE USING GIST (item_id WITH =, tsrange(start_time, end_time) WITH &&)
+    WHERE (status IN ('WAITING', 'APPROVED'));
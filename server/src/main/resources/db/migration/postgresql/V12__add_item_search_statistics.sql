@@ -0,0 +1,11 @@
+-- ItemRepository.estimateSearchSelectivity samples a fixed number of rows, whatever the size of items
+CREATE EXTENSION IF NOT EXISTS tsm_system_rows;
+
+-- the trigram indexes are partial, so the planner keeps no statistics on lower(name) and lower(description)
+-- and guesses the same few thousand matches for every search text. With these it tells a frequent term,
+-- paged along the primary key, from a rare one, read through the trigram indexes
+CREATE STATISTICS IF NOT EXISTS st_items_lower_name ON (lower(name)) FROM items;
+
+CREATE STATISTICS IF NOT EXISTS st_items_lower_description ON (lower(description)) FROM items;
+
+ANALYZE items;
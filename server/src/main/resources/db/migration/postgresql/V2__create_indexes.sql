@@ -0,0 +1,29 @@
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ix_bookings_booker_start
+    ON bookings (booker_id, start_time DESC);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ix_bookings_booker_status_start
+    ON bookings (booker_id, status, start_time DESC);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ix_bookings_item_start
+    ON bookings (item_id, start_time DESC);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ix_bookings_item_status_start
+    ON bookings (item_id, status, start_time);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ix_bookings_item_booker_end
+    ON bookings (item_id, booker_id, end_time);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ix_items_owner_id
+    ON items (owner_id, id);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ix_items_request_id
+    ON items (request_id);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ix_comments_item_id
+    ON comments (item_id);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ix_requests_requester_created
+    ON requests (requester_id, created DESC);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ix_requests_created_id
+    ON requests (created DESC, id DESC);
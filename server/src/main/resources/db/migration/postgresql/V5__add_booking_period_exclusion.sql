@@ -0,0 +1,59 @@
+-- ADD CONSTRAINT ... EXCLUDE takes an ACCESS EXCLUSIVE lock on bookings while it builds the gist index,
+-- reads and writes of bookings wait until the migration commits, so run it in a maintenance window
+
+-- every booking this migration rejects is recorded here with the booking it lost to, so support can review it
+CREATE TABLE IF NOT EXISTS booking_overlap_rejections (
+    booking_id BIGINT NOT NULL,
+    item_id BIGINT NOT NULL,
+    previous_status VARCHAR(16) NOT NULL,
+    kept_booking_id BIGINT NOT NULL,
+    rejected_at TIMESTAMP WITHOUT TIME ZONE NOT NULL DEFAULT LOCALTIMESTAMP,
+    CONSTRAINT pk_booking_overlap_rejection PRIMARY KEY (booking_id)
+);
+
+-- active bookings that already overlap would fail the constraint. They are walked by priority: approved before
+-- waiting, then the earlier start, then the lower id. A booking overlapping one that is still active and comes
+-- first in that order is rejected, so a confirmed rental never loses to an unconfirmed request
+DO $$
+DECLARE
+    booking RECORD;
+    kept_booking_id BIGINT;
+    rejected INTEGER := 0;
+BEGIN
+    FOR booking IN
+        SELECT b.id, b.item_id, b.start_time, b.end_time, b.status
+        FROM bookings b
+        WHERE b.status IN ('WAITING', 'APPROVED')
+          AND EXISTS (SELECT 1
+                      FROM bookings e
+                      WHERE e.item_id = b.item_id
+                        AND e.id <> b.id
+                        AND e.status IN ('WAITING', 'APPROVED')
+                        AND tsrange(e.start_time, e.end_time) && tsrange(b.start_time, b.end_time))
+        ORDER BY b.status = 'APPROVED' DESC, b.start_time, b.id
+    LOOP
+        SELECT e.id INTO kept_booking_id
+        FROM bookings e
+        WHERE e.item_id = booking.item_id
+          AND e.id <> booking.id
+          AND e.status IN ('WAITING', 'APPROVED')
+          AND tsrange(e.start_time, e.end_time) && tsrange(booking.start_time, booking.end_time)
+          AND (e.status = 'APPROVED' AND booking.status = 'WAITING'
+               OR e.status = booking.status AND (e.start_time, e.id) < (booking.start_time, booking.id))
+        ORDER BY e.status = 'APPROVED' DESC, e.start_time, e.id
+        LIMIT 1;
+        IF kept_booking_id IS NOT NULL THEN
+            UPDATE bookings SET status = 'REJECTED' WHERE id = booking.id;
+            INSERT INTO booking_overlap_rejections (booking_id, item_id, previous_status, kept_booking_id)
+            VALUES (booking.id, booking.item_id, booking.status, kept_booking_id);
+            rejected := rejected + 1;
+        END IF;
+    END LOOP;
+    IF rejected > 0 THEN
+        RAISE WARNING 'V5: rejected % overlapping bookings, see booking_overlap_rejections', rejected;
+    END IF;
+END $$;
+
+ALTER TABLE bookings ADD CONSTRAINT ex_bookings_item_period
+    EXCLUDE USING GIST (item_id WITH =, tsrange(start_time, end_time) WITH &&)
+    WHERE (status IN ('WAITING', 'APPROVED'));
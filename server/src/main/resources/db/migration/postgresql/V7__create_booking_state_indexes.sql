@@ -0,0 +1,17 @@
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ix_bookings_booker_start_id
+    ON bookings (booker_id, start_time DESC, id DESC)
+    INCLUDE (end_time, status, item_id);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ix_bookings_booker_status_start_id
+    ON bookings (booker_id, status, start_time DESC, id DESC)
+    INCLUDE (end_time, item_id);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ix_bookings_item_start_id
+    ON bookings (item_id, start_time DESC, id DESC)
+    INCLUDE (end_time, status, booker_id);
+
+DROP INDEX CONCURRENTLY IF EXISTS ix_bookings_booker_start;
+
+DROP INDEX CONCURRENTLY IF EXISTS ix_bookings_booker_status_start;
+
+DROP INDEX CONCURRENTLY IF EXISTS ix_bookings_item_start;
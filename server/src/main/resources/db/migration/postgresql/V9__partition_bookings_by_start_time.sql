@@ -0,0 +1,149 @@
+ALTER TABLE bookings RENAME TO bookings_unpartitioned;
+
+ALTER TABLE bookings_unpartitioned RENAME CONSTRAINT pk_booking TO pk_booking_unpartitioned;
+
+ALTER TABLE bookings_unpartitioned DROP CONSTRAINT IF EXISTS ex_bookings_item_period;
+
+DROP INDEX IF EXISTS ix_bookings_booker_start_id;
+
+DROP INDEX IF EXISTS ix_bookings_booker_status_start_id;
+
+DROP INDEX IF EXISTS ix_bookings_item_start_id;
+
+DROP INDEX IF EXISTS ix_bookings_item_status_start;
+
+DROP INDEX IF EXISTS ix_bookings_item_booker_end;
+
+CREATE TABLE bookings (
+    id BIGINT NOT NULL,
+    start_time TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    end_time TIMESTAMP WITHOUT TIME ZONE,
+    item_id BIGINT,
+    booker_id BIGINT,
+    status VARCHAR(16),
+    CONSTRAINT pk_booking PRIMARY KEY (id, start_time),
+    CONSTRAINT fk_booking_item FOREIGN KEY (item_id) REFERENCES items(id) ON DELETE CASCADE,
+    CONSTRAINT fk_booking_booker FOREIGN KEY (booker_id) REFERENCES users(id) ON DELETE CASCADE,
+    CONSTRAINT booking_dates_sequence CHECK (end_time > start_time)
+) PARTITION BY RANGE (start_time);
+
+CREATE INDEX ix_bookings_booker_start_id
+    ON bookings (booker_id, start_time DESC, id DESC)
+    INCLUDE (end_time, status, item_id);
+
+CREATE INDEX ix_bookings_booker_status_start_id
+    ON bookings (booker_id, status, start_time DESC, id DESC)
+    INCLUDE (end_time, item_id);
+
+CREATE INDEX ix_bookings_item_start_id
+    ON bookings (item_id, start_time DESC, id DESC)
+    INCLUDE (end_time, status, booker_id);
+
+CREATE INDEX ix_bookings_item_status_start
+    ON bookings (item_id, status, start_time);
+
+CREATE INDEX ix_bookings_item_booker_end
+    ON bookings (item_id, booker_id, end_time);
+
+-- exclusion constraints can't span partitions, so every monthly partition gets its own one
+CREATE OR REPLACE FUNCTION create_booking_partition(month_start DATE) RETURNS BOOLEAN AS $$
+DECLARE
+    partition_name TEXT := 'bookings_p' || to_char(month_start, 'YYYY_MM');
+    month_end DATE := (month_start + INTERVAL '1 month')::DATE;
+BEGIN
+    IF to_regclass(partition_name) IS NOT NULL THEN
+        RETURN FALSE;
+    END IF;
+    LOCK TABLE bookings_default IN SHARE ROW EXCLUSIVE MODE;
+    EXECUTE format('CREATE TABLE %I (LIKE bookings INCLUDING DEFAULTS INCLUDING CONSTRAINTS)', partition_name);
+    EXECUTE format('WITH moved AS (DELETE FROM bookings_default WHERE start_time >= %L AND start_time < %L '
+                       'RETURNING *) INSERT INTO %I SELECT * FROM moved', month_start, month_end, partition_name);
+    EXECUTE format('ALTER TABLE %I ADD CONSTRAINT %I EXCLUDE USING GIST '
+                       '(item_id WITH =, tsrange(start_time, end_time) WITH &&) '
+                       'WHERE (status IN (''WAITING'', ''APPROVED''))',
+                   partition_name, 'ex_' || partition_name || '_item_period');
+    EXECUTE format('ALTER TABLE bookings ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+                   partition_name, month_start, month_end);
+    RETURN TRUE;
+END;
+$$ LANGUAGE plpgsql;
+
+-- also fills months whose rows fell into the default partition while no partition existed for them
+CREATE OR REPLACE FUNCTION create_booking_partitions(months_ahead INTEGER) RETURNS INTEGER AS $$
+DECLARE
+    month_start DATE := date_trunc('month', LEAST(LOCALTIMESTAMP,
+        COALESCE((SELECT MIN(start_time) FROM bookings_default), LOCALTIMESTAMP)))::DATE;
+    last_month DATE := (date_trunc('month', LOCALTIMESTAMP) + make_interval(months => months_ahead))::DATE;
+    created INTEGER := 0;
+BEGIN
+    WHILE month_start <= last_month LOOP
+        IF create_booking_partition(month_start) THEN
+            created := created + 1;
+        END IF;
+        month_start := (month_start + INTERVAL '1 month')::DATE;
+    END LOOP;
+    RETURN created;
+END;
+$$ LANGUAGE plpgsql;
+
+-- cold months move under bookings_archive, which stays attached to bookings, so queries still see them
+-- while anything bounded by a recent start_time prunes the whole archive at once
+CREATE OR REPLACE FUNCTION archive_booking_partitions(archive_before TIMESTAMP) RETURNS INTEGER AS $$
+DECLARE
+    cold RECORD;
+    archive_end TIMESTAMP;
+    archived INTEGER := 0;
+BEGIN
+    FOR cold IN
+        SELECT c.relname AS partition_name,
+               to_timestamp(substr(c.relname, 11), 'YYYY_MM')::TIMESTAMP AS month_start
+        FROM pg_inherits AS i
+        JOIN pg_class AS c ON c.oid = i.inhrelid
+        WHERE i.inhparent = 'bookings'::REGCLASS AND c.relname ~ '^bookings_p[0-9]{4}_[0-9]{2}$'
+        ORDER BY month_start
+    LOOP
+        EXIT WHEN cold.month_start + INTERVAL '1 month' > archive_before;
+        IF archived = 0 THEN
+            ALTER TABLE bookings DETACH PARTITION bookings_archive;
+        END IF;
+        archive_end := cold.month_start + INTERVAL '1 month';
+        EXECUTE format('ALTER TABLE bookings DETACH PARTITION %I', cold.partition_name);
+        EXECUTE format('ALTER TABLE bookings_archive ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+                       cold.partition_name, cold.month_start, archive_end);
+        archived := archived + 1;
+    END LOOP;
+    IF archived > 0 THEN
+        EXECUTE format('ALTER TABLE bookings ATTACH PARTITION bookings_archive FOR VALUES FROM (MINVALUE) TO (%L)',
+                       archive_end);
+    END IF;
+    RETURN archived;
+END;
+$$ LANGUAGE plpgsql;
+
+DO $$
+DECLARE
+    first_month DATE := date_trunc('month', LEAST(LOCALTIMESTAMP,
+        COALESCE((SELECT MIN(start_time) FROM bookings_unpartitioned), LOCALTIMESTAMP)))::DATE;
+    month_start DATE;
+BEGIN
+    EXECUTE format('CREATE TABLE bookings_archive PARTITION OF bookings FOR VALUES FROM (MINVALUE) TO (%L) '
+                       'PARTITION BY RANGE (start_time)', first_month);
+    CREATE TABLE bookings_archive_default PARTITION OF bookings_archive DEFAULT;
+    CREATE TABLE bookings_default PARTITION OF bookings DEFAULT;
+    FOR month_start IN
+        SELECT DISTINCT date_trunc('month', start_time)::DATE
+        FROM bookings_unpartitioned
+        WHERE start_time < date_trunc('month', LOCALTIMESTAMP)
+    LOOP
+        PERFORM create_booking_partition(month_start);
+    END LOOP;
+END;
+$$;
+
+INSERT INTO bookings (id, start_time, end_time, item_id, booker_id, status)
+SELECT id, start_time, end_time, item_id, booker_id, status
+FROM bookings_unpartitioned;
+
+DROP TABLE bookings_unpartitioned;
+
+SELECT create_booking_partitions(3);
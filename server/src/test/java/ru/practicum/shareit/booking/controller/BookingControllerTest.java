@@ -15,20 +15,23 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.booking.dto.BookingDtoRequest;
 import ru.practicum.shareit.booking.dto.BookingDtoResponse;
+import ru.practicum.shareit.booking.dto.BookingStatusBatchDto;
+import ru.practicum.shareit.booking.dto.BookingStatusResultDto;
 import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.util.PageCursor;
 
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(controllers = BookingController.class)
 class BookingControllerTest {
@@ -119,6 +122,25 @@ class BookingControllerTest {
                 .andExpect(content().json(objectMapper.writeValueAsString(bookingBuilder.buildDtoResponse())));
     }
 
+    @Test
+    void givenBatchDecision_whenBookingStatuses_thenStatusOkAndOutcomePerId() throws Exception {
+        List<BookingStatusResultDto> results = List.of(
+                new BookingStatusResultDto(1L, BookingStatus.REJECTED, null),
+                new BookingStatusResultDto(2L, null, "BookingServiceImpl: booking with id=2 and owner id=" +
+                        bookingBuilder.itemOwnerId() + " not found."));
+
+        when(bookingService.bookingStatuses(List.of(1L, 2L), bookingBuilder.itemOwnerId(), false))
+                .thenReturn(results);
+
+        mvc.perform(patch("/bookings")
+                        .content(objectMapper.writeValueAsString(new BookingStatusBatchDto(List.of(1L, 2L), false)))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("X-Sharer-User-Id", bookingBuilder.itemOwnerId()))
+                .andExpect(status().isOk())
+                .andExpect(content().json(objectMapper.writeValueAsString(results)));
+    }
+
     @Test
     void givenFindById_whenFindById_thenStatusOkAndJsonBody() throws Exception {
         BookingDtoResponse responseDto = bookingBuilder.buildDtoResponse();
@@ -156,6 +178,42 @@ class BookingControllerTest {
                 anyLong(), anyInt());
     }
 
+    @Test
+    void givenFindByBookerWithCursor_whenFindByBooker_thenStatusOkAndNextCursorHeader() throws Exception {
+        BookingDtoResponse responseDto = bookingBuilder.buildDtoResponse();
+        BookingState searchState = BookingState.ALL;
+        PageCursor after = PageCursor.of(LocalDateTime.of(2030, 1, 1, 10, 0), 5L);
+
+        when(bookingService.getAllBookingsByBooker(bookingBuilder.bookerId, searchState, after, 1))
+                .thenReturn(List.of(responseDto));
+
+        mvc.perform(get("/bookings")
+                        .param("state", searchState.toString())
+                        .param("from", "0")
+                        .param("size", "1")
+                        .param("cursor", after.encode())
+                        .header("X-Sharer-User-Id", bookingBuilder.bookerId()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(PageCursor.NEXT_CURSOR_HEADER,
+                        PageCursor.of(responseDto.getStart(), responseDto.getId()).encode()))
+                .andExpect(content().json(objectMapper.writeValueAsString(List.of(responseDto))));
+
+        verify(bookingService, never()).getAllBookingsByBooker(anyLong(), any(), anyLong(), anyInt());
+    }
+
+    @Test
+    void givenFindByBookerWithInvalidCursor_whenFindByBooker_thenStatusBadRequest() throws Exception {
+        mvc.perform(get("/bookings")
+                        .param("state", BookingState.ALL.toString())
+                        .param("from", "0")
+                        .param("size", "1")
+                        .param("cursor", "not-a-cursor")
+                        .header("X-Sharer-User-Id", bookingBuilder.bookerId()))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(bookingService);
+    }
+
     @Test
     void givenFindByOwnerCorrect_whenFindByOwner_thenStatusOkAndJsonArrayBody() throws Exception {
         BookingDtoResponse responseDto = bookingBuilder.buildDtoResponse();
@@ -177,4 +235,22 @@ class BookingControllerTest {
         verify(bookingService, times(1)).getAllBookingsByOwner(anyLong(), any(),
                 anyLong(), anyInt());
     }
-}
\ No newline at end of file
+
+    @Test
+    void givenBookingCounts_whenGetBookingCountsByOwner_thenStatusOkAndCountPerState() throws Exception {
+        Map<BookingState, Long> counts = Map.of(BookingState.ALL, 4L, BookingState.CURRENT, 1L,
+                BookingState.PAST, 0L, BookingState.FUTURE, 3L, BookingState.WAITING, 2L, BookingState.REJECTED, 1L);
+
+        when(bookingService.getBookingCountsByOwner(bookingBuilder.itemOwnerId()))
+                .thenReturn(counts);
+
+        mvc.perform(get("/bookings/owner/counts")
+                        .header("X-Sharer-User-Id", bookingBuilder.itemOwnerId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.WAITING").value(2))
+                .andExpect(jsonPath("$.CURRENT").value(1))
+                .andExpect(content().json(objectMapper.writeValueAsString(counts)));
+
+        verify(bookingService, never()).getBookingCountsByBooker(anyLong());
+    }
+}
@@ -0,0 +1,46 @@
+package ru.practicum.shareit.booking.partition;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.test.util.ReflectionTestUtils;
+import ru.practicum.shareit.booking.storage.BookingRepository;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+
+@ExtendWith(MockitoExtension.class)
+class BookingPartitionJobTest {
+    @InjectMocks
+    private BookingPartitionJob bookingPartitionJob;
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Test
+    void givenMonthsAheadAndArchiveAge_whenMaintainPartitions_thenCreateAndArchiveBeforeMonthStart() {
+        ReflectionTestUtils.setField(bookingPartitionJob, "monthsAhead", 3);
+        ReflectionTestUtils.setField(bookingPartitionJob, "archiveAfterMonths", 12);
+
+        bookingPartitionJob.maintainPartitions();
+
+        Mockito.verify(bookingRepository).createPartitions(3);
+        Mockito.verify(bookingRepository).splitArchivePartitions();
+        Mockito.verify(bookingRepository).archivePartitions(
+                LocalDate.now().withDayOfMonth(1).minusMonths(12).atStartOfDay());
+    }
+
+    @Test
+    void givenLockedBookings_whenMaintainPartitions_thenSkipUntilNextRun() {
+        Mockito.when(bookingRepository.createPartitions(Mockito.anyInt()))
+                .thenThrow(new CannotAcquireLockException("locked"));
+
+        assertDoesNotThrow(() -> bookingPartitionJob.maintainPartitions());
+
+        Mockito.verify(bookingRepository, Mockito.never()).archivePartitions(Mockito.any());
+    }
+}
@@ -0,0 +1,115 @@
+package ru.practicum.shareit.booking.partition;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import lombok.RequiredArgsConstructor;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// bookings are inserted before V9, so the server applies the partitioning migrations to a populated table
+// on startup and runs the partition job on ApplicationReadyEvent; the database is stopped by its shutdown hook
+@SpringBootTest(properties = {
+        "spring.datasource.driver-class-name=org.postgresql.Driver",
+        "shareit.item.search.trigram-index=true",
+        "shareit.booking.partition.enabled=true",
+        "shareit.booking.partition.months-ahead=3",
+        "shareit.booking.partition.archive-after-months=12"
+})
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+class BookingPartitionMigrationTest {
+    private static final LocalDateTime MONTH = LocalDate.now().withDayOfMonth(1).atStartOfDay();
+
+    // months relative to the current one: archived, split out of the archive, recent, current, ahead, beyond
+    private static final List<Integer> BOOKING_MONTHS = List.of(-24, -13, -2, 0, 1, 6);
+
+    private static final EmbeddedPostgres POSTGRES = startPopulated();
+
+    private final BookingPartitionJob bookingPartitionJob;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> POSTGRES.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+    }
+
+    private static EmbeddedPostgres startPopulated() {
+        try {
+            EmbeddedPostgres postgres = EmbeddedPostgres.builder().start();
+            Flyway.configure()
+                    .dataSource(postgres.getPostgresDatabase())
+                    .locations("classpath:db/migration/common", "classpath:db/migration/postgresql")
+                    .target("8")
+                    .load()
+                    .migrate();
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(postgres.getPostgresDatabase());
+            jdbcTemplate.update("INSERT INTO users (id, name, email) VALUES (1, 'owner', 'owner@mail.ru'), "
+                    + "(2, 'booker', 'booker@mail.ru')");
+            jdbcTemplate.update("INSERT INTO items (id, name, description, available, owner_id) "
+                    + "VALUES (1, 'tent', 'tent', TRUE, 1), (2, 'boat', 'boat', TRUE, 1)");
+            long id = 1;
+            for (int month : BOOKING_MONTHS) {
+                LocalDateTime start = MONTH.plusMonths(month).plusDays(2);
+                insertBooking(jdbcTemplate, id++, start, 1, "APPROVED");
+                insertBooking(jdbcTemplate, id++, start, 1, "REJECTED");
+                insertBooking(jdbcTemplate, id++, start, 2, "WAITING");
+            }
+            return postgres;
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    private static void insertBooking(JdbcTemplate jdbcTemplate, long id, LocalDateTime start, long itemId,
+                                      String status) {
+        jdbcTemplate.update("INSERT INTO bookings (id, start_time, end_time, item_id, booker_id, status) "
+                + "VALUES (?, ?, ?, ?, 2, ?)", id, start, start.plusDays(3), itemId, status);
+    }
+
+    private long count(String sql, Object... args) {
+        return jdbcTemplate.queryForObject(sql, Long.class, args);
+    }
+
+    @Test
+    void givenPopulatedBookings_whenPartitionedAndJobRuns_thenRowsConstraintsAndForeignKeysKept() {
+        bookingPartitionJob.maintainPartitions();
+
+        assertThat(jdbcTemplate.queryForList("SELECT id FROM bookings ORDER BY id", Long.class))
+                .containsExactly(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L, 11L, 12L, 13L, 14L, 15L, 16L, 17L, 18L);
+        assertThat(count("SELECT count(*) FROM bookings_archive")).isEqualTo(6);
+        assertThat(count("SELECT count(*) FROM bookings_archive_default")).isZero();
+        assertThat(count("SELECT count(*) FROM bookings_default")).isEqualTo(3);
+        assertThat(count("SELECT count(*) FROM bookings WHERE start_time >= ? AND start_time < ?",
+                MONTH, MONTH.plusMonths(1))).isEqualTo(3);
+
+        for (int month : BOOKING_MONTHS) {
+            LocalDateTime overlapping = MONTH.plusMonths(month).plusDays(3);
+            assertThrows(DataIntegrityViolationException.class,
+                    () -> insertBooking(jdbcTemplate, 100 + month, overlapping, 1, "WAITING"));
+        }
+        insertBooking(jdbcTemplate, 100, MONTH.minusMonths(24).plusDays(3), 1, "REJECTED");
+        assertThrows(DataIntegrityViolationException.class,
+                () -> insertBooking(jdbcTemplate, 101, MONTH.plusDays(10), 3, "WAITING"));
+
+        jdbcTemplate.update("DELETE FROM items WHERE id = 2");
+
+        assertThat(count("SELECT count(*) FROM bookings WHERE item_id = 2")).isZero();
+        assertThat(count("SELECT count(*) FROM bookings")).isEqualTo(13);
+    }
+}
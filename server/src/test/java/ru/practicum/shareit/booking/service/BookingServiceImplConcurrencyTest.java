@@ -0,0 +1,136 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.dto.BookingDtoRequest;
+import ru.practicum.shareit.booking.dto.BookingDtoResponse;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.exception.ConflictException;
+import ru.practicum.shareit.exception.CustomValidationException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:booking-concurrency;LOCK_TIMEOUT=10000",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.springframework.transaction.interceptor=INFO",
+        "logging.level.org.springframework.orm.jpa.JpaTransactionManager=INFO"
+})
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+class BookingServiceImplConcurrencyTest {
+    private static final int CLIENTS = 32;
+    private static final int BOOKINGS = 20;
+    private static final int TRANSITIONS = 2000;
+
+    private final BookingService bookingService;
+
+    private final UserService userService;
+
+    private final ItemService itemService;
+
+    @Test
+    void givenManyClientsBookSameItemAtOnce_whenAdd_thenOnlyOneBookingAccepted() throws Exception {
+        long ownerId = userService.add(new UserDto(null, "owner", "owner@mail.ru")).getId();
+        long itemId = itemService.add(new ItemDto(null, "item", "popular item", true, null), ownerId).getId();
+        List<Long> bookerIds = new ArrayList<>();
+        for (int i = 0; i < CLIENTS; i++) {
+            bookerIds.add(userService.add(new UserDto(null, "booker" + i, "booker" + i + "@mail.ru")).getId());
+        }
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        LocalDateTime end = start.plusDays(2);
+
+        ExecutorService executor = Executors.newFixedThreadPool(CLIENTS);
+        CountDownLatch startSignal = new CountDownLatch(1);
+        AtomicInteger accepted = new AtomicInteger();
+        AtomicInteger conflicts = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < CLIENTS; i++) {
+            long bookerId = bookerIds.get(i);
+            LocalDateTime shift = start.plusHours(i % 3);
+            futures.add(executor.submit(() -> {
+                startSignal.await();
+                try {
+                    bookingService.add(new BookingDtoRequest(shift, end, itemId), bookerId);
+                    accepted.incrementAndGet();
+                } catch (ConflictException e) {
+                    conflicts.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        startSignal.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertEquals(1, accepted.get());
+        assertEquals(CLIENTS - 1, conflicts.get());
+    }
+
+    @Test
+    void givenManyParallelTransitionsOfSameBookings_whenBookingStatus_thenExactlyOneTransitionPerBooking()
+            throws Exception {
+        long ownerId = userService.add(new UserDto(null, "owner", "transitions-owner@mail.ru")).getId();
+        long bookerId = userService.add(new UserDto(null, "booker", "transitions-booker@mail.ru")).getId();
+        long itemId = itemService.add(new ItemDto(null, "item", "item in demand", true, null), ownerId).getId();
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        List<Long> bookingIds = new ArrayList<>();
+        for (int i = 0; i < BOOKINGS; i++) {
+            bookingIds.add(bookingService.add(
+                    new BookingDtoRequest(start.plusDays(i), start.plusDays(i).plusHours(1), itemId), bookerId).getId());
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(CLIENTS);
+        CountDownLatch startSignal = new CountDownLatch(1);
+        Map<Long, BookingStatus> transitions = new ConcurrentHashMap<>();
+        AtomicInteger accepted = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < TRANSITIONS; i++) {
+            long bookingId = bookingIds.get(i / (TRANSITIONS / BOOKINGS));
+            boolean approved = i % 2 == 0;
+            futures.add(executor.submit(() -> {
+                startSignal.await();
+                try {
+                    BookingDtoResponse booking = bookingService.bookingStatus(bookingId, ownerId, approved);
+                    assertNull(transitions.put(bookingId, booking.getStatus()));
+                    accepted.incrementAndGet();
+                } catch (ConflictException | CustomValidationException e) {
+                    rejected.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        startSignal.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertEquals(BOOKINGS, accepted.get());
+        assertEquals(TRANSITIONS - BOOKINGS, rejected.get());
+        for (long bookingId : bookingIds) {
+            assertEquals(transitions.get(bookingId), bookingService.getBookingById(bookingId, ownerId).getStatus());
+        }
+    }
+}
@@ -5,24 +5,34 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingDtoRequest;
 import ru.practicum.shareit.booking.dto.BookingDtoResponse;
+import ru.practicum.shareit.booking.dto.BookingStatusResultDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingBuilderTestUtils;
 import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.model.ItemBuilderTestUtil;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.model.ItemRequestBuilderTestUtil;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.model.UserBuildersTestUtil;
 import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.util.SqlStatementCounter;
 
 import javax.persistence.EntityManager;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static ru.practicum.shareit.booking.model.BookingStatus.APPROVED;
+import static ru.practicum.shareit.booking.model.BookingStatus.REJECTED;
+import static ru.practicum.shareit.booking.model.BookingStatus.WAITING;
 
 @SpringBootTest
 @Transactional
@@ -67,7 +77,7 @@ public class BookingServiceImplIntegrationTest {
         Long userId = users.get(0).getId();
 
         List<BookingDtoResponse> bookingDtoResponses = bookingService.getAllBookingsByBooker(userId,
-                BookingState.ALL, 1, 10);
+                BookingState.ALL, 0, 10);
 
         assertEquals(1, bookingDtoResponses.size());
     }
@@ -115,4 +125,105 @@ public class BookingServiceImplIntegrationTest {
         assertThat(bookingDtoResponse.getEnd())
                 .isEqualTo(LocalDateTime.of(1994, 12, 3, 10, 5));
     }
+
+    @Test
+    void givenPageOfBookings_whenGetAllBookingsByBookerOrOwner_thenLoadItemsAndBookersInSameQuery() {
+        User owner = UserBuildersTestUtil.all(null, "owner", "owner@mail.ru").userBuild();
+        User booker = UserBuildersTestUtil.all(null, "booker", "booker@mail.ru").userBuild();
+        entityManager.persist(owner);
+        entityManager.persist(booker);
+        ItemRequest request = ItemRequestBuilderTestUtil.defaultBuilder().requester(booker)
+                .created(LocalDateTime.now()).itemRequestBuilder();
+        entityManager.persist(request);
+        List<Item> items = IntStream.range(0, 5)
+                .mapToObj(i -> ItemBuilderTestUtil.defaultBuilder().name("item" + i).owner(owner).request(request)
+                        .itemBuilder())
+                .collect(Collectors.toList());
+        items.forEach(entityManager::persist);
+        items.forEach(item -> entityManager.persist(BookingBuilderTestUtils.defaultBuilder()
+                .item(item).booker(booker).bookingBuild()));
+        entityManager.flush();
+        entityManager.clear();
+
+        SqlStatementCounter.reset();
+        List<BookingDtoResponse> byBooker = bookingService.getAllBookingsByBooker(booker.getId(),
+                BookingState.ALL, 0, 10);
+        assertEquals(5, byBooker.size());
+        assertEquals(2, SqlStatementCounter.get());
+
+        entityManager.clear();
+        SqlStatementCounter.reset();
+        List<BookingDtoResponse> byOwner = bookingService.getAllBookingsByOwner(owner.getId(),
+                BookingState.FUTURE, null, 10);
+        assertEquals(5, byOwner.size());
+        assertEquals(2, SqlStatementCounter.get());
+    }
+
+    @Test
+    void givenWaitingAndDecidedBookings_whenBookingStatuses_thenUpdateWaitingInOneStatement() {
+        User owner = UserBuildersTestUtil.all(null, "owner", "fleet-owner@mail.ru").userBuild();
+        User booker = UserBuildersTestUtil.all(null, "booker", "fleet-booker@mail.ru").userBuild();
+        entityManager.persist(owner);
+        entityManager.persist(booker);
+        Item item = ItemBuilderTestUtil.defaultBuilder().name("van").owner(owner).itemBuilder();
+        Item foreignItem = ItemBuilderTestUtil.defaultBuilder().name("bike").owner(booker).itemBuilder();
+        entityManager.persist(item);
+        entityManager.persist(foreignItem);
+        List<Booking> bookings = List.of(
+                BookingBuilderTestUtils.defaultBuilder().item(item).booker(booker).status(WAITING).bookingBuild(),
+                BookingBuilderTestUtils.defaultBuilder().item(item).booker(booker).status(WAITING).bookingBuild(),
+                BookingBuilderTestUtils.defaultBuilder().item(item).booker(booker).status(REJECTED).bookingBuild(),
+                BookingBuilderTestUtils.defaultBuilder().item(foreignItem).booker(owner).status(WAITING)
+                        .bookingBuild()
+        );
+        bookings.forEach(entityManager::persist);
+        entityManager.flush();
+        entityManager.clear();
+        List<Long> bookingIds = bookings.stream().map(Booking::getId).collect(Collectors.toList());
+
+        SqlStatementCounter.reset();
+        List<BookingStatusResultDto> results = bookingService.bookingStatuses(bookingIds, owner.getId(), true);
+
+        assertEquals(4, SqlStatementCounter.get());
+        assertEquals(bookingIds, results.stream().map(BookingStatusResultDto::getBookingId)
+                .collect(Collectors.toList()));
+        assertThat(results).extracting(BookingStatusResultDto::getStatus)
+                .containsExactly(APPROVED, APPROVED, REJECTED, null);
+        assertThat(results).extracting(result -> result.getError() == null)
+                .containsExactly(true, true, false, false);
+        assertThat(bookingIds).extracting(id -> entityManager.find(Booking.class, id).getStatus())
+                .containsExactly(APPROVED, APPROVED, REJECTED, WAITING);
+    }
+
+    @Test
+    void givenAddedAndDecidedBookings_whenGetBookingCounts_thenCountersFollowChangesAndUserDeletion() {
+        User owner = UserBuildersTestUtil.all(null, "owner", "counter-owner@mail.ru").userBuild();
+        User booker = UserBuildersTestUtil.all(null, "booker", "counter-booker@mail.ru").userBuild();
+        User otherBooker = UserBuildersTestUtil.all(null, "other", "counter-other@mail.ru").userBuild();
+        List.of(owner, booker, otherBooker).forEach(entityManager::persist);
+        Item item = ItemBuilderTestUtil.defaultBuilder().name("tent").owner(owner).itemBuilder();
+        entityManager.persist(item);
+        LocalDateTime now = LocalDateTime.now();
+        bookingService.add(new BookingDtoRequest(now.plusDays(1), now.plusDays(2), item.getId()), booker.getId());
+        BookingDtoResponse rejected = bookingService.add(
+                new BookingDtoRequest(now.plusDays(3), now.plusDays(4), item.getId()), booker.getId());
+        bookingService.add(new BookingDtoRequest(now.plusDays(5), now.plusDays(6), item.getId()),
+                otherBooker.getId());
+        bookingService.bookingStatus(rejected.getId(), owner.getId(), false);
+
+        assertEquals(Map.of(BookingState.ALL, 2L, BookingState.CURRENT, 0L, BookingState.PAST, 0L,
+                        BookingState.FUTURE, 2L, BookingState.WAITING, 1L, BookingState.REJECTED, 1L),
+                bookingService.getBookingCountsByBooker(booker.getId()));
+        assertEquals(Map.of(BookingState.ALL, 3L, BookingState.CURRENT, 0L, BookingState.PAST, 0L,
+                        BookingState.FUTURE, 3L, BookingState.WAITING, 2L, BookingState.REJECTED, 1L),
+                bookingService.getBookingCountsByOwner(owner.getId()));
+
+        userService.delete(booker.getId());
+        entityManager.flush();
+        entityManager.clear();
+
+        assertEquals(Map.of(BookingState.ALL, 1L, BookingState.CURRENT, 0L, BookingState.PAST, 0L,
+                        BookingState.FUTURE, 1L, BookingState.WAITING, 1L, BookingState.REJECTED, 0L),
+                bookingService.getBookingCountsByOwner(owner.getId()));
+    }
 }
@@ -7,23 +7,27 @@ import lombok.experimental.Accessors;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.PageRequest;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 import org.springframework.test.util.ReflectionTestUtils;
 import ru.practicum.shareit.booking.dto.BookingDtoRequest;
 import ru.practicum.shareit.booking.dto.BookingDtoResponse;
+import ru.practicum.shareit.booking.dto.BookingStatusResultDto;
+import ru.practicum.shareit.booking.event.BookingChangedEvent;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.mapper.BookingMapperImpl;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.storage.BookingRepository;
+import ru.practicum.shareit.booking.storage.BookingStateCounts;
+import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.CustomValidationException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.dto.ItemDto;
@@ -34,11 +38,15 @@ import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.mapper.UserMapperImpl;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.storage.UserRepository;
+import ru.practicum.shareit.util.OffsetPageRequest;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -52,6 +60,8 @@ class BookingServiceImplTest {
     private UserRepository userRepository;
     @Mock
     private ItemRepository itemRepository;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
     @Spy
     private static BookingMapper bookingMapper = new BookingMapperImpl();
 
@@ -144,6 +154,27 @@ class BookingServiceImplTest {
                 .save(Mockito.any());
     }
 
+    @Test
+    void givenAddWithOverlappingBooking_whenAdd_thenThrowConflictException() {
+        TestBookingBuilder bookingBuilder = TestBookingBuilder.defaultBuilder().id(null);
+        Booking requestBooking = bookingBuilder.buildBooking();
+        BookingDtoRequest requestDto = bookingBuilder.buildDtoRequest();
+        long userId = requestBooking.getBooker().getId();
+
+        Mockito.when(itemRepository.findByIdAndOwnerIdNot(requestDto.getItemId(), userId))
+                .thenReturn(Optional.of(requestBooking.getItem()));
+        Mockito.when(bookingRepository.existsByItemAndStatusInAndStartBeforeAndEndAfter(
+                        requestBooking.getItem(), Set.of(BookingStatus.WAITING, BookingStatus.APPROVED),
+                        requestDto.getEnd(), requestDto.getStart()))
+                .thenReturn(true);
+
+        assertThrows(ConflictException.class,
+                () -> bookingService.add(requestDto, userId));
+
+        Mockito.verify(bookingRepository, Mockito.never())
+                .save(Mockito.any());
+    }
+
     @Test
     void givenAddWithIncorrectUserId_whenAdd_thenThrowNotFoundException() {
         TestBookingBuilder bookingBuilder = TestBookingBuilder.defaultBuilder().id(null);
@@ -175,9 +206,12 @@ class BookingServiceImplTest {
 
         Mockito.when(bookingRepository.findByIdAndItemOwnerId(bookingId, userId))
                 .thenReturn(Optional.of(booking));
+        Mockito.when(bookingRepository.updateStatus(bookingId, BookingStatus.WAITING, BookingStatus.APPROVED))
+                .thenReturn(1);
 
         assertEquals(responseDto, bookingService.bookingStatus(bookingId, userId, approved));
         assertEquals(BookingStatus.APPROVED, booking.getStatus());
+        Mockito.verify(eventPublisher).publishEvent(new BookingChangedEvent(booking.getItem().getId()));
     }
 
     @Test
@@ -192,9 +226,14 @@ class BookingServiceImplTest {
 
         Mockito.when(bookingRepository.findByIdAndItemOwnerId(bookingId, userId))
                 .thenReturn(Optional.of(booking));
+        Mockito.when(bookingRepository.updateStatus(bookingId, BookingStatus.WAITING, BookingStatus.REJECTED))
+                .thenReturn(1);
 
         assertEquals(expectedDto, bookingService.bookingStatus(bookingId, userId, approved));
         assertEquals(BookingStatus.REJECTED, booking.getStatus());
+        InOrder inOrder = Mockito.inOrder(bookingRepository);
+        inOrder.verify(bookingRepository).updateOwnerCounters(userId, -1, 1);
+        inOrder.verify(bookingRepository).updateBookerCounters(booking.getBooker().getId(), -1, 1);
     }
 
     @Test
@@ -213,6 +252,101 @@ class BookingServiceImplTest {
         assertEquals(BookingStatus.WAITING, booking.getStatus());
     }
 
+    @Test
+    void givenApproveBookingChangedConcurrently_whenApprove_thenThrowConflictException() {
+        TestBookingBuilder bookingBuilder = TestBookingBuilder.defaultBuilder().status(BookingStatus.WAITING);
+        Booking booking = bookingBuilder.buildBooking();
+        long bookingId = booking.getId();
+        long userId = booking.getItem().getOwner().getId();
+
+        Mockito.when(bookingRepository.findByIdAndItemOwnerId(bookingId, userId))
+                .thenReturn(Optional.of(booking));
+        Mockito.when(bookingRepository.updateStatus(bookingId, BookingStatus.WAITING, BookingStatus.APPROVED))
+                .thenReturn(0);
+
+        assertThrows(ConflictException.class,
+                () -> bookingService.bookingStatus(bookingId, userId, true));
+        assertEquals(BookingStatus.WAITING, booking.getStatus());
+        Mockito.verify(eventPublisher, Mockito.never()).publishEvent(Mockito.any());
+    }
+
+    @Test
+    void givenBatchOfOwnBookings_whenBookingStatuses_thenUpdateOnlyWaitingAndReturnOutcomePerId() {
+        long userId = 20L;
+        Booking waiting = TestBookingBuilder.defaultBuilder().id(1L).itemId(10L).buildBooking();
+        Booking otherWaiting = TestBookingBuilder.defaultBuilder().id(2L).itemId(10L).buildBooking();
+        Booking approved = TestBookingBuilder.defaultBuilder().id(3L).itemId(11L)
+                .status(BookingStatus.APPROVED).buildBooking();
+        List<Long> bookingIds = List.of(2L, 1L, 3L, 4L, 1L);
+
+        Mockito.when(bookingRepository.findAllByIdInAndItemOwnerIdOrderByIdAsc(bookingIds, userId))
+                .thenReturn(List.of(waiting, otherWaiting, approved));
+        Mockito.when(bookingRepository.updateStatuses(Mockito.anyCollection(), Mockito.eq(BookingStatus.WAITING),
+                        Mockito.eq(BookingStatus.REJECTED)))
+                .thenReturn(2);
+
+        List<BookingStatusResultDto> results = bookingService.bookingStatuses(bookingIds, userId, false);
+
+        assertEquals(List.of(2L, 1L, 3L, 4L), results.stream()
+                .map(BookingStatusResultDto::getBookingId)
+                .collect(Collectors.toList()));
+        assertEquals(new BookingStatusResultDto(2L, BookingStatus.REJECTED, null), results.get(0));
+        assertEquals(new BookingStatusResultDto(1L, BookingStatus.REJECTED, null), results.get(1));
+        assertEquals(BookingStatus.APPROVED, results.get(2).getStatus());
+        assertNotNull(results.get(2).getError());
+        assertNull(results.get(3).getStatus());
+        assertNotNull(results.get(3).getError());
+        Mockito.verify(bookingRepository).updateStatuses(
+                Mockito.argThat(ids -> Set.copyOf(ids).equals(Set.of(1L, 2L))),
+                Mockito.eq(BookingStatus.WAITING), Mockito.eq(BookingStatus.REJECTED));
+        Mockito.verify(bookingRepository).updateOwnerCounters(userId, -2, 2);
+        Mockito.verify(bookingRepository).updateBookerCounters(30L, -2, 2);
+        Mockito.verify(eventPublisher).publishEvent(new BookingChangedEvent(10L));
+        Mockito.verifyNoMoreInteractions(eventPublisher);
+    }
+
+    @Test
+    void givenBatchWithoutWaitingBookings_whenBookingStatuses_thenSkipUpdate() {
+        long userId = 20L;
+        Booking approved = TestBookingBuilder.defaultBuilder().status(BookingStatus.APPROVED).buildBooking();
+
+        Mockito.when(bookingRepository.findAllByIdInAndItemOwnerIdOrderByIdAsc(List.of(approved.getId()), userId))
+                .thenReturn(List.of(approved));
+
+        List<BookingStatusResultDto> results = bookingService.bookingStatuses(List.of(approved.getId()), userId, true);
+
+        assertEquals(1, results.size());
+        assertNotNull(results.get(0).getError());
+        Mockito.verify(bookingRepository, Mockito.never()).updateStatuses(Mockito.any(), Mockito.any(), Mockito.any());
+        Mockito.verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void givenStateCounts_whenGetBookingCountsByBooker_thenReturnCountPerState() {
+        long bookerId = 30L;
+        BookingStateCounts counts = Mockito.mock(BookingStateCounts.class);
+        Mockito.when(counts.getAllCount()).thenReturn(5L);
+        Mockito.when(counts.getCurrentCount()).thenReturn(1L);
+        Mockito.when(counts.getPastCount()).thenReturn(2L);
+        Mockito.when(counts.getFutureCount()).thenReturn(2L);
+        Mockito.when(counts.getWaitingCount()).thenReturn(1L);
+        Mockito.when(counts.getRejectedCount()).thenReturn(0L);
+        Mockito.when(bookingRepository.countByBookerId(Mockito.eq(bookerId), Mockito.any(LocalDateTime.class)))
+                .thenReturn(Optional.of(counts));
+
+        assertEquals(Map.of(BookingState.ALL, 5L, BookingState.CURRENT, 1L, BookingState.PAST, 2L,
+                        BookingState.FUTURE, 2L, BookingState.WAITING, 1L, BookingState.REJECTED, 0L),
+                bookingService.getBookingCountsByBooker(bookerId));
+    }
+
+    @Test
+    void givenAbsentUser_whenGetBookingCountsByOwner_thenThrowNotFoundException() {
+        Mockito.when(bookingRepository.countByItemOwnerId(Mockito.eq(1L), Mockito.any(LocalDateTime.class)))
+                .thenReturn(Optional.empty());
+
+        assertThrows(NotFoundException.class, () -> bookingService.getBookingCountsByOwner(1L));
+    }
+
     @Test
     void givenApproveBookingWithNotWaitingStatus_whenApprove_thenThrowCustomValidationException() {
         TestBookingBuilder bookingBuilder = TestBookingBuilder.defaultBuilder().status(BookingStatus.APPROVED);
@@ -265,8 +399,8 @@ class BookingServiceImplTest {
 
     @Test
     void givenFindByBookerWithIncorrectBookerId_whenFindByBooker_thenThrowNotFoundException() {
-        Mockito.when(userRepository.findById(1L))
-                .thenReturn(Optional.empty());
+        Mockito.when(userRepository.existsById(1L))
+                .thenReturn(false);
         assertThrows(NotFoundException.class,
                 () -> bookingService.getAllBookingsByBooker(1L, BookingState.ALL, 0, 1));
     }
@@ -280,12 +414,12 @@ class BookingServiceImplTest {
         BookingState searchState = BookingState.PAST;
         long from = 0;
         int size = 1;
-        Sort sort = Sort.by(Sort.Direction.DESC, "start");
 
-        Mockito.lenient().when(userRepository.findById(bookerId))
-                .thenReturn(Optional.of(booking.getBooker()));
-        Mockito.lenient().when(bookingRepository.findByBookerAndEndIsBeforeOrderByStartDesc(
-                        Mockito.any(User.class),
+        Mockito.lenient().when(userRepository.existsById(bookerId))
+                .thenReturn(true);
+        Mockito.lenient().when(bookingRepository.findByBookerIdAndState(
+                        Mockito.anyLong(),
+                        Mockito.any(BookingState.class),
                         Mockito.any(LocalDateTime.class),
                         Mockito.any(Pageable.class)))
                 .thenReturn(List.of(booking));
@@ -295,12 +429,12 @@ class BookingServiceImplTest {
                 bookingService.getAllBookingsByBooker(bookerId, searchState, from, size));
         LocalDateTime maxNow = LocalDateTime.now();
 
-        Mockito.verify(bookingRepository).findByBookerAndEndIsBeforeOrderByStartDesc(
-                Mockito.argThat(booker -> Objects.nonNull(booker) &&
-                        Objects.equals(booker.getId(), booking.getBooker().getId())),
+        Mockito.verify(bookingRepository).findByBookerIdAndState(
+                Mockito.eq(bookerId),
+                Mockito.eq(searchState),
                 Mockito.argThat(now -> Objects.nonNull(now) &&
                         !now.isBefore(minNow) && !now.isAfter(maxNow)),
-                Mockito.eq(PageRequest.of(0, 1, sort)));
+                Mockito.eq(OffsetPageRequest.of(0, 1)));
     }
 
     @Test
@@ -312,12 +446,12 @@ class BookingServiceImplTest {
         BookingState searchState = BookingState.FUTURE;
         long from = 0;
         int size = 1;
-        Sort sort = Sort.by(Sort.Direction.DESC, "start");
 
-        Mockito.lenient().when(userRepository.findById(bookerId))
-                .thenReturn(Optional.of(booking.getBooker()));
-        Mockito.lenient().when(bookingRepository.findByBookerAndStartIsAfterOrderByStartDesc(
-                        Mockito.any(User.class),
+        Mockito.lenient().when(userRepository.existsById(bookerId))
+                .thenReturn(true);
+        Mockito.lenient().when(bookingRepository.findByBookerIdAndState(
+                        Mockito.anyLong(),
+                        Mockito.any(BookingState.class),
                         Mockito.any(LocalDateTime.class),
                         Mockito.any(Pageable.class)))
                 .thenReturn(List.of(booking));
@@ -327,12 +461,12 @@ class BookingServiceImplTest {
                 bookingService.getAllBookingsByBooker(bookerId, searchState, from, size));
         LocalDateTime maxNow = LocalDateTime.now();
 
-        Mockito.verify(bookingRepository).findByBookerAndStartIsAfterOrderByStartDesc(
-                Mockito.argThat(booker -> Objects.nonNull(booker) &&
-                        Objects.equals(booker.getId(), booking.getBooker().getId())),
+        Mockito.verify(bookingRepository).findByBookerIdAndState(
+                Mockito.eq(bookerId),
+                Mockito.eq(searchState),
                 Mockito.argThat(now -> Objects.nonNull(now) &&
                         !now.isBefore(minNow) && !now.isAfter(maxNow)),
-                Mockito.eq(PageRequest.of(0, 1, sort)));
+                Mockito.eq(OffsetPageRequest.of(0, 1)));
     }
 
     @Test
@@ -344,13 +478,12 @@ class BookingServiceImplTest {
         BookingState searchState = BookingState.CURRENT;
         long from = 0;
         int size = 1;
-        Sort sort = Sort.by(Sort.Direction.DESC, "start");
 
-        Mockito.lenient().when(userRepository.findById(bookerId))
-                .thenReturn(Optional.of(booking.getBooker()));
-        Mockito.lenient().when(bookingRepository.findByBookerAndStartIsBeforeAndEndIsAfterOrderByStartDesc(
-                        Mockito.any(User.class),
-                        Mockito.any(LocalDateTime.class),
+        Mockito.lenient().when(userRepository.existsById(bookerId))
+                .thenReturn(true);
+        Mockito.lenient().when(bookingRepository.findByBookerIdAndState(
+                        Mockito.anyLong(),
+                        Mockito.any(BookingState.class),
                         Mockito.any(LocalDateTime.class),
                         Mockito.any(Pageable.class)))
                 .thenReturn(List.of(booking));
@@ -360,14 +493,12 @@ class BookingServiceImplTest {
                 bookingService.getAllBookingsByBooker(bookerId, searchState, from, size));
         LocalDateTime maxNow = LocalDateTime.now();
 
-        Mockito.verify(bookingRepository).findByBookerAndStartIsBeforeAndEndIsAfterOrderByStartDesc(
-                Mockito.argThat(booker -> Objects.nonNull(booker) &&
-                        Objects.equals(booker.getId(), booking.getBooker().getId())),
-                Mockito.argThat(now -> Objects.nonNull(now) &&
-                        !now.isBefore(minNow) && !now.isAfter(maxNow)),
+        Mockito.verify(bookingRepository).findByBookerIdAndState(
+                Mockito.eq(bookerId),
+                Mockito.eq(searchState),
                 Mockito.argThat(now -> Objects.nonNull(now) &&
                         !now.isBefore(minNow) && !now.isAfter(maxNow)),
-                Mockito.eq(PageRequest.of(0, 1, sort)));
+                Mockito.eq(OffsetPageRequest.of(0, 1)));
     }
 
     @Test
@@ -379,15 +510,14 @@ class BookingServiceImplTest {
         BookingState searchState = BookingState.WAITING;
         long from = 0;
         int size = 1;
-        Sort sort = Sort.by(Sort.Direction.DESC, "start");
-
-        Mockito.lenient().when(userRepository.findById(bookerId))
-                .thenReturn(Optional.of(booking.getBooker()));
-        Mockito.lenient().when(bookingRepository.findByBookerAndStatusIsOrderByStartDesc(
-                        Mockito.argThat(booker -> Objects.nonNull(booker) &&
-                                Objects.equals(booker.getId(), booking.getBooker().getId())),
-                        Mockito.eq(BookingStatus.WAITING),
-                        Mockito.eq(PageRequest.of(0, 1, sort))))
+
+        Mockito.lenient().when(userRepository.existsById(bookerId))
+                .thenReturn(true);
+        Mockito.lenient().when(bookingRepository.findByBookerIdAndState(
+                        Mockito.eq(bookerId),
+                        Mockito.eq(searchState),
+                        Mockito.any(LocalDateTime.class),
+                        Mockito.eq(OffsetPageRequest.of(0, 1))))
                 .thenReturn(List.of(booking));
 
         assertEquals(List.of(responseDto),
@@ -403,15 +533,14 @@ class BookingServiceImplTest {
         BookingState searchState = BookingState.REJECTED;
         long from = 0;
         int size = 1;
-        Sort sort = Sort.by(Sort.Direction.DESC, "start");
-
-        Mockito.lenient().when(userRepository.findById(bookerId))
-                .thenReturn(Optional.of(booking.getBooker()));
-        Mockito.lenient().when(bookingRepository.findByBookerAndStatusIsOrderByStartDesc(
-                        Mockito.argThat(booker -> Objects.nonNull(booker) &&
-                                Objects.equals(booker.getId(), booking.getBooker().getId())),
-                        Mockito.eq(BookingStatus.REJECTED),
-                        Mockito.eq(PageRequest.of(0, 1, sort))))
+
+        Mockito.lenient().when(userRepository.existsById(bookerId))
+                .thenReturn(true);
+        Mockito.lenient().when(bookingRepository.findByBookerIdAndState(
+                        Mockito.eq(bookerId),
+                        Mockito.eq(searchState),
+                        Mockito.any(LocalDateTime.class),
+                        Mockito.eq(OffsetPageRequest.of(0, 1))))
                 .thenReturn(List.of(booking));
 
         assertEquals(List.of(responseDto),
@@ -427,14 +556,14 @@ class BookingServiceImplTest {
         BookingState searchState = BookingState.ALL;
         long from = 0;
         int size = 1;
-        Sort sort = Sort.by(Sort.Direction.DESC, "start");
-
-        Mockito.lenient().when(userRepository.findById(bookerId))
-                .thenReturn(Optional.of(booking.getBooker()));
-        Mockito.lenient().when(bookingRepository.findByBookerOrderByStartDesc(
-                        Mockito.argThat(booker -> Objects.nonNull(booker) &&
-                                Objects.equals(booker.getId(), booking.getBooker().getId())),
-                        Mockito.eq(PageRequest.of(0, 1, sort))))
+
+        Mockito.lenient().when(userRepository.existsById(bookerId))
+                .thenReturn(true);
+        Mockito.lenient().when(bookingRepository.findByBookerIdAndState(
+                        Mockito.eq(bookerId),
+                        Mockito.eq(searchState),
+                        Mockito.any(LocalDateTime.class),
+                        Mockito.eq(OffsetPageRequest.of(0, 1))))
                 .thenReturn(List.of(booking));
 
         assertEquals(List.of(responseDto),
@@ -443,10 +572,10 @@ class BookingServiceImplTest {
 
     @Test
     void givenFindByOwnerWithIncorrectBookerId_whenFindByOwner_thenThrowNotFoundException() {
-        Mockito.when(userRepository.findById(1L))
-                .thenReturn(Optional.empty());
+        Mockito.when(userRepository.existsById(1L))
+                .thenReturn(false);
         assertThrows(NotFoundException.class,
-                () -> bookingService.getAllBookingsByBooker(1L, BookingState.ALL, 0, 1));
+                () -> bookingService.getAllBookingsByOwner(1L, BookingState.ALL, 0, 1));
     }
 
     @Test
@@ -454,17 +583,16 @@ class BookingServiceImplTest {
         TestBookingBuilder bookingBuilder = TestBookingBuilder.defaultBuilder();
         Booking booking = bookingBuilder.buildBooking();
         BookingDtoResponse responseDto = bookingBuilder.buildDtoResponse();
-        User owner = booking.getItem().getOwner();
-        long ownerId = owner.getId();
+        long ownerId = booking.getItem().getOwner().getId();
         BookingState searchState = BookingState.PAST;
         long from = 0;
         int size = 1;
-        Sort sort = Sort.by(Sort.Direction.DESC, "start");
 
-        Mockito.lenient().when(userRepository.findById(ownerId))
-                .thenReturn(Optional.of(owner));
-        Mockito.lenient().when(bookingRepository.findByItemOwnerAndEndIsBeforeOrderByStartDesc(
-                        Mockito.any(User.class),
+        Mockito.lenient().when(userRepository.existsById(ownerId))
+                .thenReturn(true);
+        Mockito.lenient().when(bookingRepository.findByItemOwnerIdAndState(
+                        Mockito.anyLong(),
+                        Mockito.any(BookingState.class),
                         Mockito.any(LocalDateTime.class),
                         Mockito.any(Pageable.class)))
                 .thenReturn(List.of(booking));
@@ -474,12 +602,12 @@ class BookingServiceImplTest {
                 bookingService.getAllBookingsByOwner(ownerId, searchState, from, size));
         LocalDateTime maxNow = LocalDateTime.now();
 
-        Mockito.verify(bookingRepository).findByItemOwnerAndEndIsBeforeOrderByStartDesc(
-                Mockito.argThat(user -> Objects.nonNull(user) &&
-                        Objects.equals(user.getId(), owner.getId())),
+        Mockito.verify(bookingRepository).findByItemOwnerIdAndState(
+                Mockito.eq(ownerId),
+                Mockito.eq(searchState),
                 Mockito.argThat(now -> Objects.nonNull(now) &&
                         !now.isBefore(minNow) && !now.isAfter(maxNow)),
-                Mockito.eq(PageRequest.of(0, 1, sort)));
+                Mockito.eq(OffsetPageRequest.of(0, 1)));
     }
 
     @Test
@@ -487,17 +615,16 @@ class BookingServiceImplTest {
         TestBookingBuilder bookingBuilder = TestBookingBuilder.defaultBuilder();
         Booking booking = bookingBuilder.buildBooking();
         BookingDtoResponse responseDto = bookingBuilder.buildDtoResponse();
-        User owner = booking.getItem().getOwner();
-        long ownerId = owner.getId();
+        long ownerId = booking.getItem().getOwner().getId();
         BookingState searchState = BookingState.FUTURE;
         long from = 0;
         int size = 1;
-        Sort sort = Sort.by(Sort.Direction.DESC, "start");
 
-        Mockito.lenient().when(userRepository.findById(ownerId))
-                .thenReturn(Optional.of(owner));
-        Mockito.lenient().when(bookingRepository.findByItemOwnerAndStartIsAfterOrderByStartDesc(
-                        Mockito.any(User.class),
+        Mockito.lenient().when(userRepository.existsById(ownerId))
+                .thenReturn(true);
+        Mockito.lenient().when(bookingRepository.findByItemOwnerIdAndState(
+                        Mockito.anyLong(),
+                        Mockito.any(BookingState.class),
                         Mockito.any(LocalDateTime.class),
                         Mockito.any(Pageable.class)))
                 .thenReturn(List.of(booking));
@@ -507,12 +634,12 @@ class BookingServiceImplTest {
                 bookingService.getAllBookingsByOwner(ownerId, searchState, from, size));
         LocalDateTime maxNow = LocalDateTime.now();
 
-        Mockito.verify(bookingRepository).findByItemOwnerAndStartIsAfterOrderByStartDesc(
-                Mockito.argThat(user -> Objects.nonNull(user) &&
-                        Objects.equals(user.getId(), owner.getId())),
+        Mockito.verify(bookingRepository).findByItemOwnerIdAndState(
+                Mockito.eq(ownerId),
+                Mockito.eq(searchState),
                 Mockito.argThat(now -> Objects.nonNull(now) &&
                         !now.isBefore(minNow) && !now.isAfter(maxNow)),
-                Mockito.eq(PageRequest.of(0, 1, sort)));
+                Mockito.eq(OffsetPageRequest.of(0, 1)));
     }
 
     @Test
@@ -520,18 +647,16 @@ class BookingServiceImplTest {
         TestBookingBuilder bookingBuilder = TestBookingBuilder.defaultBuilder();
         Booking booking = bookingBuilder.buildBooking();
         BookingDtoResponse responseDto = bookingBuilder.buildDtoResponse();
-        User owner = booking.getItem().getOwner();
-        long ownerId = owner.getId();
+        long ownerId = booking.getItem().getOwner().getId();
         BookingState searchState = BookingState.CURRENT;
         long from = 0;
         int size = 1;
-        Sort sort = Sort.by(Sort.Direction.DESC, "start");
 
-        Mockito.lenient().when(userRepository.findById(ownerId))
-                .thenReturn(Optional.of(owner));
-        Mockito.lenient().when(bookingRepository.findByItemOwnerAndStartIsBeforeAndEndIsAfterOrderByStartDesc(
-                        Mockito.any(User.class),
-                        Mockito.any(LocalDateTime.class),
+        Mockito.lenient().when(userRepository.existsById(ownerId))
+                .thenReturn(true);
+        Mockito.lenient().when(bookingRepository.findByItemOwnerIdAndState(
+                        Mockito.anyLong(),
+                        Mockito.any(BookingState.class),
                         Mockito.any(LocalDateTime.class),
                         Mockito.any(Pageable.class)))
                 .thenReturn(List.of(booking));
@@ -541,14 +666,12 @@ class BookingServiceImplTest {
                 bookingService.getAllBookingsByOwner(ownerId, searchState, from, size));
         LocalDateTime maxNow = LocalDateTime.now();
 
-        Mockito.verify(bookingRepository).findByItemOwnerAndStartIsBeforeAndEndIsAfterOrderByStartDesc(
-                Mockito.argThat(user -> Objects.nonNull(user) &&
-                        Objects.equals(user.getId(), owner.getId())),
+        Mockito.verify(bookingRepository).findByItemOwnerIdAndState(
+                Mockito.eq(ownerId),
+                Mockito.eq(searchState),
                 Mockito.argThat(now -> Objects.nonNull(now) &&
                         !now.isBefore(minNow) && !now.isAfter(maxNow)),
-                Mockito.argThat(now -> Objects.nonNull(now) &&
-                        !now.isBefore(minNow) && !now.isAfter(maxNow)),
-                Mockito.eq(PageRequest.of(0, 1, sort)));
+                Mockito.eq(OffsetPageRequest.of(0, 1)));
     }
 
     @Test
@@ -556,20 +679,18 @@ class BookingServiceImplTest {
         TestBookingBuilder bookingBuilder = TestBookingBuilder.defaultBuilder();
         Booking booking = bookingBuilder.buildBooking();
         BookingDtoResponse responseDto = bookingBuilder.buildDtoResponse();
-        User owner = booking.getItem().getOwner();
-        long ownerId = owner.getId();
+        long ownerId = booking.getItem().getOwner().getId();
         BookingState searchState = BookingState.WAITING;
         long from = 0;
         int size = 1;
-        Sort sort = Sort.by(Sort.Direction.DESC, "start");
-
-        Mockito.lenient().when(userRepository.findById(ownerId))
-                .thenReturn(Optional.of(owner));
-        Mockito.lenient().when(bookingRepository.findByItemOwnerAndStatusIsOrderByStartDesc(
-                        Mockito.argThat(user -> Objects.nonNull(user) &&
-                                Objects.equals(user.getId(), owner.getId())),
-                        Mockito.eq(BookingStatus.WAITING),
-                        Mockito.eq(PageRequest.of(0, 1, sort))))
+
+        Mockito.lenient().when(userRepository.existsById(ownerId))
+                .thenReturn(true);
+        Mockito.lenient().when(bookingRepository.findByItemOwnerIdAndState(
+                        Mockito.eq(ownerId),
+                        Mockito.eq(searchState),
+                        Mockito.any(LocalDateTime.class),
+                        Mockito.eq(OffsetPageRequest.of(0, 1))))
                 .thenReturn(List.of(booking));
 
         assertEquals(List.of(responseDto),
@@ -581,20 +702,18 @@ class BookingServiceImplTest {
         TestBookingBuilder bookingBuilder = TestBookingBuilder.defaultBuilder();
         Booking booking = bookingBuilder.buildBooking();
         BookingDtoResponse responseDto = bookingBuilder.buildDtoResponse();
-        User owner = booking.getItem().getOwner();
-        long ownerId = owner.getId();
+        long ownerId = booking.getItem().getOwner().getId();
         BookingState searchState = BookingState.REJECTED;
         long from = 0;
         int size = 1;
-        Sort sort = Sort.by(Sort.Direction.DESC, "start");
-
-        Mockito.lenient().when(userRepository.findById(ownerId))
-                .thenReturn(Optional.of(owner));
-        Mockito.lenient().when(bookingRepository.findByItemOwnerAndStatusIsOrderByStartDesc(
-                        Mockito.argThat(user -> Objects.nonNull(user) &&
-                                Objects.equals(user.getId(), owner.getId())),
-                        Mockito.eq(BookingStatus.REJECTED),
-                        Mockito.eq(PageRequest.of(0, 1, sort))))
+
+        Mockito.lenient().when(userRepository.existsById(ownerId))
+                .thenReturn(true);
+        Mockito.lenient().when(bookingRepository.findByItemOwnerIdAndState(
+                        Mockito.eq(ownerId),
+                        Mockito.eq(searchState),
+                        Mockito.any(LocalDateTime.class),
+                        Mockito.eq(OffsetPageRequest.of(0, 1))))
                 .thenReturn(List.of(booking));
 
         assertEquals(List.of(responseDto),
@@ -606,22 +725,21 @@ class BookingServiceImplTest {
         TestBookingBuilder bookingBuilder = TestBookingBuilder.defaultBuilder();
         Booking booking = bookingBuilder.buildBooking();
         BookingDtoResponse responseDto = bookingBuilder.buildDtoResponse();
-        User owner = booking.getItem().getOwner();
-        long ownerId = owner.getId();
+        long ownerId = booking.getItem().getOwner().getId();
         BookingState searchState = BookingState.ALL;
         long from = 0;
         int size = 1;
-        Sort sort = Sort.by(Sort.Direction.DESC, "start");
-
-        Mockito.lenient().when(userRepository.findById(ownerId))
-                .thenReturn(Optional.of(owner));
-        Mockito.lenient().when(bookingRepository.findByItemOwnerOrderByStartDesc(
-                        Mockito.argThat(user -> Objects.nonNull(user) &&
-                                Objects.equals(user.getId(), owner.getId())),
-                        Mockito.eq(PageRequest.of(0, 1, sort))))
+
+        Mockito.lenient().when(userRepository.existsById(ownerId))
+                .thenReturn(true);
+        Mockito.lenient().when(bookingRepository.findByItemOwnerIdAndState(
+                        Mockito.eq(ownerId),
+                        Mockito.eq(searchState),
+                        Mockito.any(LocalDateTime.class),
+                        Mockito.eq(OffsetPageRequest.of(0, 1))))
                 .thenReturn(List.of(booking));
 
         assertEquals(List.of(responseDto),
                 bookingService.getAllBookingsByOwner(ownerId, searchState, from, size));
     }
-}
\ No newline at end of file
+}
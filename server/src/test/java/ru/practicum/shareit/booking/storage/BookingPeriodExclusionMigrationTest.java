@@ -0,0 +1,116 @@
+package ru.practicum.shareit.booking.storage;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BookingPeriodExclusionMigrationTest {
+    private EmbeddedPostgres postgres;
+
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        postgres = EmbeddedPostgres.builder().start();
+        jdbcTemplate = new JdbcTemplate(postgres.getPostgresDatabase());
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        postgres.close();
+    }
+
+    private void migrate(String target) {
+        Flyway.configure()
+                .dataSource(postgres.getPostgresDatabase())
+                .locations("classpath:db/migration/common", "classpath:db/migration/postgresql")
+                .target(target)
+                .load()
+                .migrate();
+    }
+
+    private void migrateToV4WithItems() {
+        migrate("4");
+        jdbcTemplate.update("INSERT INTO users (id, name, email) VALUES (1, 'owner', 'owner@mail.ru'), "
+                + "(2, 'booker', 'booker@mail.ru')");
+        jdbcTemplate.update("INSERT INTO items (id, name, description, available, owner_id) "
+                + "VALUES (1, 'tent', 'tent', TRUE, 1), (2, 'boat', 'boat', TRUE, 1)");
+    }
+
+    private void insertBooking(long id, String start, String end, long itemId, String status) {
+        jdbcTemplate.update("INSERT INTO bookings (id, start_time, end_time, item_id, booker_id, status) "
+                        + "VALUES (?, CAST(? AS TIMESTAMP), CAST(? AS TIMESTAMP), ?, 2, ?)",
+                id, start, end, itemId, status);
+    }
+
+    private String status(long id) {
+        return jdbcTemplate.queryForObject("SELECT status FROM bookings WHERE id = ?", String.class, id);
+    }
+
+    private List<String> rejections() {
+        return jdbcTemplate.queryForList("SELECT booking_id || ' ' || previous_status || ' ' || kept_booking_id "
+                + "FROM booking_overlap_rejections ORDER BY booking_id", String.class);
+    }
+
+    @Test
+    void givenOverlappingActiveBookings_whenMigrate_thenRejectLaterOnesAndAddConstraint() {
+        migrateToV4WithItems();
+        // 1 overlaps 2 and 4, 2 overlaps 3, but 3 no longer overlaps anything once 2 is rejected
+        insertBooking(1, "2030-01-01 00:00", "2030-01-05 00:00", 1, "APPROVED");
+        insertBooking(2, "2030-01-04 00:00", "2030-01-08 00:00", 1, "WAITING");
+        insertBooking(3, "2030-01-07 00:00", "2030-01-09 00:00", 1, "WAITING");
+        insertBooking(4, "2030-01-02 00:00", "2030-01-03 00:00", 1, "APPROVED");
+        insertBooking(5, "2030-01-02 00:00", "2030-01-03 00:00", 1, "CANCELED");
+        insertBooking(6, "2030-01-02 00:00", "2030-01-03 00:00", 2, "WAITING");
+        insertBooking(7, "2030-01-05 00:00", "2030-01-06 00:00", 1, "WAITING");
+
+        migrate("5");
+
+        assertThat(List.of(status(1), status(2), status(3), status(4), status(5), status(6), status(7)))
+                .containsExactly("APPROVED", "REJECTED", "WAITING", "REJECTED", "CANCELED", "WAITING", "WAITING");
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM bookings", Long.class)).isEqualTo(7);
+        assertThat(rejections()).containsExactly("2 WAITING 1", "4 APPROVED 1");
+        assertThrows(DataIntegrityViolationException.class,
+                () -> insertBooking(8, "2030-01-04 12:00", "2030-01-05 12:00", 1, "WAITING"));
+        insertBooking(9, "2030-01-04 12:00", "2030-01-05 12:00", 1, "REJECTED");
+    }
+
+    @Test
+    void givenWaitingBookingBeforeApprovedOne_whenMigrate_thenApprovedKeptAndTiesGoToEarlierStart() {
+        migrateToV4WithItems();
+        // the waiting request has the lower id and the earlier start, the approved rental still wins
+        insertBooking(1, "2030-01-01 00:00", "2030-01-05 00:00", 1, "WAITING");
+        insertBooking(2, "2030-01-03 00:00", "2030-01-07 00:00", 1, "APPROVED");
+        // between two waiting requests the earlier start wins over the lower id
+        insertBooking(3, "2030-02-03 00:00", "2030-02-07 00:00", 2, "WAITING");
+        insertBooking(4, "2030-02-01 00:00", "2030-02-05 00:00", 2, "WAITING");
+
+        migrate("5");
+
+        assertThat(List.of(status(1), status(2), status(3), status(4)))
+                .containsExactly("REJECTED", "APPROVED", "REJECTED", "WAITING");
+        assertThat(rejections()).containsExactly("1 WAITING 2", "3 WAITING 4");
+    }
+
+    @Test
+    void givenNoOverlappingBookings_whenMigrate_thenNothingRejected() {
+        migrateToV4WithItems();
+        insertBooking(1, "2030-01-01 00:00", "2030-01-05 00:00", 1, "APPROVED");
+        insertBooking(2, "2030-01-05 00:00", "2030-01-07 00:00", 1, "WAITING");
+
+        migrate("5");
+
+        assertThat(List.of(status(1), status(2))).containsExactly("APPROVED", "WAITING");
+        assertThat(rejections()).isEmpty();
+    }
+}
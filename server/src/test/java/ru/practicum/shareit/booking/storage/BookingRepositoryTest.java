@@ -4,14 +4,24 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingBuilderTestUtils;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.model.ItemBuilderTestUtil;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.model.UserBuildersTestUtil;
+import ru.practicum.shareit.util.PageCursor;
 
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -60,4 +70,120 @@ class BookingRepositoryTest {
                 bookingRepository.findByIdAndItemOwnerIdOrBookerId(booking1.getId(), user2.getId());
         assertTrue(queryResult.isEmpty());
     }
-}
\ No newline at end of file
+
+    @Test
+    void givenBookingsWithSameStart_whenFindByBookerAndStateAfter_thenSeekThroughAllPages() {
+        UserBuildersTestUtil userBuilder = UserBuildersTestUtil.defaultBuilder();
+        User owner = userBuilder.email("owner@mail.ru").userBuild();
+        User booker = userBuilder.email("booker@mail.ru").userBuild();
+        testEntityManager.persistAndGetId(owner);
+        testEntityManager.persistAndGetId(booker);
+        Item item = ItemBuilderTestUtil.defaultBuilder().owner(owner).itemBuilder();
+        testEntityManager.persistAndGetId(item);
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        BookingBuilderTestUtils bookingBuilder = BookingBuilderTestUtils.defaultBuilder().item(item).booker(booker);
+        Booking past = bookingBuilder.start(now.minusDays(4)).end(now.minusDays(3)).bookingBuild();
+        Booking future1 = bookingBuilder.start(now.plusDays(1)).end(now.plusDays(2)).bookingBuild();
+        Booking future2 = bookingBuilder.start(now.plusDays(1)).end(now.plusDays(3)).bookingBuild();
+        testEntityManager.persistAndGetId(past);
+        testEntityManager.persistAndGetId(future1);
+        testEntityManager.persistAndGetId(future2);
+
+        List<Booking> firstPage = bookingRepository.findByBookerIdAndStateAfter(booker.getId(), BookingState.ALL, now,
+                null, 2);
+        assertEquals(List.of(future2.getId(), future1.getId()),
+                firstPage.stream().map(Booking::getId).collect(Collectors.toList()));
+
+        Booking last = firstPage.get(1);
+        List<Booking> secondPage = bookingRepository.findByBookerIdAndStateAfter(booker.getId(), BookingState.ALL,
+                now, PageCursor.of(last.getStart(), last.getId()), 2);
+        assertEquals(List.of(past.getId()), secondPage.stream().map(Booking::getId).collect(Collectors.toList()));
+
+        List<Booking> ownerFuture = bookingRepository.findByItemOwnerIdAndStateAfter(owner.getId(),
+                BookingState.FUTURE, now, PageCursor.of(future2.getStart(), future2.getId()), 2);
+        assertEquals(List.of(future1.getId()), ownerFuture.stream().map(Booking::getId).collect(Collectors.toList()));
+    }
+
+    @Test
+    void givenBookingsInEveryState_whenFindByState_thenReturnMatchingBookingsForBookerAndOwner() {
+        UserBuildersTestUtil userBuilder = UserBuildersTestUtil.defaultBuilder();
+        User owner = userBuilder.email("owner@mail.ru").userBuild();
+        User booker = userBuilder.email("booker@mail.ru").userBuild();
+        User otherBooker = userBuilder.email("other@mail.ru").userBuild();
+        testEntityManager.persistAndGetId(owner);
+        testEntityManager.persistAndGetId(booker);
+        testEntityManager.persistAndGetId(otherBooker);
+        Item item = ItemBuilderTestUtil.defaultBuilder().owner(owner).itemBuilder();
+        testEntityManager.persistAndGetId(item);
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        BookingBuilderTestUtils bookingBuilder = BookingBuilderTestUtils.defaultBuilder().item(item).booker(booker)
+                .status(BookingStatus.APPROVED);
+        Booking past = bookingBuilder.start(now.minusDays(4)).end(now.minusDays(3)).bookingBuild();
+        Booking current = bookingBuilder.start(now.minusDays(1)).end(now.plusDays(1)).bookingBuild();
+        Booking waiting = bookingBuilder.start(now.plusDays(2)).end(now.plusDays(3))
+                .status(BookingStatus.WAITING).bookingBuild();
+        Booking rejected = bookingBuilder.start(now.plusDays(4)).end(now.plusDays(5))
+                .status(BookingStatus.REJECTED).bookingBuild();
+        Booking other = bookingBuilder.booker(otherBooker).start(now.plusDays(6)).end(now.plusDays(7))
+                .status(BookingStatus.APPROVED).bookingBuild();
+        List.of(past, current, waiting, rejected, other).forEach(testEntityManager::persistAndGetId);
+        testEntityManager.flush();
+        testEntityManager.clear();
+
+        Map<BookingState, List<Long>> expectedForBooker = Map.of(
+                BookingState.ALL, List.of(rejected.getId(), waiting.getId(), current.getId(), past.getId()),
+                BookingState.CURRENT, List.of(current.getId()),
+                BookingState.PAST, List.of(past.getId()),
+                BookingState.FUTURE, List.of(rejected.getId(), waiting.getId()),
+                BookingState.WAITING, List.of(waiting.getId()),
+                BookingState.REJECTED, List.of(rejected.getId()));
+        assertEquals(Set.of(BookingState.values()), expectedForBooker.keySet());
+        expectedForBooker.forEach((state, expected) -> assertEquals(expected,
+                bookingRepository.findByBookerIdAndState(booker.getId(), state, now, PageRequest.of(0, 10))
+                        .stream().map(Booking::getId).collect(Collectors.toList()), state.name()));
+
+        List<Booking> ownerFuture = bookingRepository.findByItemOwnerIdAndState(owner.getId(), BookingState.FUTURE,
+                now, PageRequest.of(1, 2));
+        assertEquals(List.of(waiting.getId()), ownerFuture.stream().map(Booking::getId).collect(Collectors.toList()));
+        assertEquals(booker.getEmail(), ownerFuture.get(0).getBooker().getEmail());
+        assertEquals(List.of(), bookingRepository.findByItemOwnerIdAndState(booker.getId(), BookingState.ALL, now,
+                PageRequest.of(0, 10)));
+    }
+
+    @Test
+    void givenBookingHistory_whenFindLastAndNextByItemIds_thenReturnOneLastAndOneNextPerItem() {
+        UserBuildersTestUtil userBuilder = UserBuildersTestUtil.defaultBuilder();
+        User owner = userBuilder.email("owner@mail.ru").userBuild();
+        User booker = userBuilder.email("booker@mail.ru").userBuild();
+        testEntityManager.persistAndGetId(owner);
+        testEntityManager.persistAndGetId(booker);
+        ItemBuilderTestUtil itemBuilder = ItemBuilderTestUtil.defaultBuilder().owner(owner);
+        Item item1 = itemBuilder.itemBuilder();
+        Item item2 = itemBuilder.itemBuilder();
+        Item item3 = itemBuilder.itemBuilder();
+        testEntityManager.persistAndGetId(item1);
+        testEntityManager.persistAndGetId(item2);
+        testEntityManager.persistAndGetId(item3);
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        BookingBuilderTestUtils bookingBuilder = BookingBuilderTestUtils.defaultBuilder()
+                .booker(booker).status(BookingStatus.APPROVED);
+        Booking oldLast = bookingBuilder.item(item1).start(now.minusDays(9)).end(now.minusDays(8)).bookingBuild();
+        Booking last = bookingBuilder.item(item1).start(now.minusDays(3)).end(now.minusDays(2)).bookingBuild();
+        Booking next = bookingBuilder.item(item1).start(now.plusDays(1)).end(now.plusDays(2)).bookingBuild();
+        Booking farNext = bookingBuilder.item(item1).start(now.plusDays(5)).end(now.plusDays(6)).bookingBuild();
+        Booking rejected = bookingBuilder.item(item2).start(now.plusDays(1)).end(now.plusDays(2))
+                .status(BookingStatus.REJECTED).bookingBuild();
+        Booking onlyLast = bookingBuilder.item(item2).start(now.minusDays(1)).end(now.plusDays(1))
+                .status(BookingStatus.APPROVED).bookingBuild();
+        List.of(oldLast, last, next, farNext, rejected, onlyLast).forEach(testEntityManager::persistAndGetId);
+        testEntityManager.flush();
+
+        Set<Long> ids = bookingRepository.findLastAndNextByItemIds(
+                        List.of(item1.getId(), item2.getId(), item3.getId()), now, BookingStatus.APPROVED.name())
+                .stream()
+                .map(Booking::getId)
+                .collect(Collectors.toSet());
+
+        assertEquals(Set.of(last.getId(), next.getId(), onlyLast.getId()), ids);
+    }
+}
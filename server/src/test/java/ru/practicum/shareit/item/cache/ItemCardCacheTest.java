@@ -0,0 +1,140 @@
+package ru.practicum.shareit.item.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.dto.BookingDtoShort;
+import ru.practicum.shareit.booking.event.BookingChangedEvent;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemDtoResponse;
+import ru.practicum.shareit.item.event.CommentAddedEvent;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
+import ru.practicum.shareit.user.event.UserChangedEvent;
+import ru.practicum.shareit.user.event.UserDeletedEvent;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ItemCardCacheTest {
+    private static final long ITEM_ID = 1L;
+    private static final long OWNER_ID = 10L;
+
+    private ItemCardCache itemCardCache;
+
+    private AtomicInteger cardLoads;
+
+    private AtomicInteger ownerCardLoads;
+
+    @BeforeEach
+    void setUp() {
+        itemCardCache = new ItemCardCache(new ItemCacheConfig().cacheManager(100, 100, Duration.ofMinutes(1)));
+        cardLoads = new AtomicInteger();
+        ownerCardLoads = new AtomicInteger();
+    }
+
+    @Test
+    void givenCachedCard_whenGetCard_thenLoadOnce() {
+        ItemCard card = getCard();
+
+        assertSame(card, getCard());
+        assertEquals(1, cardLoads.get());
+    }
+
+    @Test
+    void givenCachedCards_whenItemChangedOrCommentAdded_thenReloadBothCards() {
+        getCard();
+        getOwnerCard(null);
+
+        itemCardCache.onItemChanged(new ItemChangedEvent(OWNER_ID,
+                new ItemDto(ITEM_ID, "Дрель", "Ударная", true, null),
+                new ItemDto(ITEM_ID, "Дрель", "Ударная", false, null)));
+        getCard();
+        getOwnerCard(null);
+
+        assertEquals(2, cardLoads.get());
+        assertEquals(2, ownerCardLoads.get());
+
+        itemCardCache.onCommentAdded(new CommentAddedEvent(ITEM_ID));
+        getCard();
+        getOwnerCard(null);
+
+        assertEquals(3, cardLoads.get());
+        assertEquals(3, ownerCardLoads.get());
+    }
+
+    @Test
+    void givenCachedCards_whenBookingChanged_thenReloadOnlyOwnerCard() {
+        getCard();
+        getOwnerCard(null);
+
+        itemCardCache.onBookingChanged(new BookingChangedEvent(ITEM_ID));
+        getCard();
+        getOwnerCard(null);
+
+        assertEquals(1, cardLoads.get());
+        assertEquals(2, ownerCardLoads.get());
+    }
+
+    @Test
+    void givenCachedCards_whenUserChangedOrDeleted_thenReloadAllCards() {
+        getCard();
+        getOwnerCard(null);
+
+        itemCardCache.onUserChanged(new UserChangedEvent(OWNER_ID + 1));
+        getCard();
+        getOwnerCard(null);
+
+        itemCardCache.onUserDeleted(new UserDeletedEvent(OWNER_ID + 1));
+        getCard();
+        getOwnerCard(null);
+
+        assertEquals(3, cardLoads.get());
+        assertEquals(3, ownerCardLoads.get());
+    }
+
+    @Test
+    void givenOwnerCardWithNextBooking_whenNextBookingStarts_thenReloadOwnerCard() {
+        getOwnerCard(LocalDateTime.now().plusDays(1));
+        getOwnerCard(LocalDateTime.now().plusDays(1));
+
+        assertEquals(1, ownerCardLoads.get());
+
+        itemCardCache.onBookingChanged(new BookingChangedEvent(ITEM_ID));
+        getOwnerCard(LocalDateTime.now().minusSeconds(1));
+        getOwnerCard(LocalDateTime.now().minusSeconds(1));
+
+        assertEquals(3, ownerCardLoads.get());
+    }
+
+    @Test
+    void givenFailingLoader_whenGetCard_thenThrowLoaderExceptionAndCacheNothing() {
+        assertThrows(NotFoundException.class, () -> itemCardCache.getCard(ITEM_ID, () -> {
+            throw new NotFoundException("ItemServiceImpl: item with id=" + ITEM_ID + " not found.");
+        }));
+
+        getCard();
+        assertEquals(1, cardLoads.get());
+    }
+
+    private ItemCard getCard() {
+        return itemCardCache.getCard(ITEM_ID, () -> {
+            cardLoads.incrementAndGet();
+            return new ItemCard(OWNER_ID, new ItemDtoResponse(ITEM_ID, "Дрель", "Ударная", true, null,
+                    null, null, List.of()));
+        });
+    }
+
+    private ItemDtoResponse getOwnerCard(LocalDateTime nextBookingStart) {
+        return itemCardCache.getOwnerCard(ITEM_ID, () -> {
+            ownerCardLoads.incrementAndGet();
+            BookingDtoShort nextBooking = nextBookingStart == null ? null : new BookingDtoShort(2L,
+                    nextBookingStart, nextBookingStart.plusDays(1), OWNER_ID + 1, BookingStatus.APPROVED);
+            return new ItemDtoResponse(ITEM_ID, "Дрель", "Ударная", true, null, null, nextBooking, List.of());
+        });
+    }
+}
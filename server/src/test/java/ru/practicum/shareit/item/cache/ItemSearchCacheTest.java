@@ -0,0 +1,162 @@
+package ru.practicum.shareit.item.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
+import ru.practicum.shareit.item.event.ItemsImportedEvent;
+import ru.practicum.shareit.user.event.UserDeletedEvent;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ItemSearchCacheTest {
+    private static final long OWNER_ID = 10L;
+    private static final ItemDto DRILL = new ItemDto(1L, "Дрель", "Ударная дрель Bosch", true, null);
+    private static final ItemDto LADDER = new ItemDto(2L, "Лестница", "Алюминиевая, 3 м", true, null);
+
+    private MeterRegistry meterRegistry;
+
+    private ItemSearchCache itemSearchCache;
+
+    private Map<ItemSearchKey, AtomicInteger> loads;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        itemSearchCache = new ItemSearchCache(
+                new ItemCacheConfig().cacheManager(100, 100, Duration.ofMinutes(1)), meterRegistry);
+        loads = new ConcurrentHashMap<>();
+    }
+
+    @Test
+    void givenSameNormalizedText_whenSearch_thenLoadOnce() {
+        assertEquals("дрель", ItemSearchCache.normalize("  ДРЕЛЬ "));
+
+        search(ItemSearchKey.of(ItemSearchCache.normalize("  ДРЕЛЬ "), 0, 10));
+        search(ItemSearchKey.of(ItemSearchCache.normalize("дрель"), 0, 10));
+        search(ItemSearchKey.of("дрель", 10, 10));
+        search(ItemSearchKey.ofCursor("дрель", 0, 10));
+
+        assertEquals(1, loads.get(ItemSearchKey.of("дрель", 0, 10)).get());
+        assertEquals(1, loads.get(ItemSearchKey.of("дрель", 10, 10)).get());
+        assertEquals(1, loads.get(ItemSearchKey.ofCursor("дрель", 0, 10)).get());
+    }
+
+    @Test
+    void givenCachedSearches_whenMatchingItemAdded_thenDropOnlyMatchingSearches() {
+        ItemSearchKey drillKey = ItemSearchKey.of("дрел", 0, 10);
+        ItemSearchKey ladderKey = ItemSearchKey.of("лестница", 0, 10);
+        search(drillKey);
+        search(ladderKey);
+
+        itemSearchCache.onItemChanged(new ItemChangedEvent(OWNER_ID, null,
+                new ItemDto(3L, "Дрель-шуруповерт", "Makita", true, null)));
+        search(drillKey);
+        search(ladderKey);
+
+        assertEquals(2, loads.get(drillKey).get());
+        assertEquals(1, loads.get(ladderKey).get());
+        assertEquals(1, meterRegistry.counter("item.search.cache.invalidations").count());
+    }
+
+    @Test
+    void givenCachedSearches_whenItemsImported_thenDropSearchesMatchingAnyImportedItem() {
+        ItemSearchKey drillKey = ItemSearchKey.of("дрел", 0, 10);
+        ItemSearchKey ladderKey = ItemSearchKey.of("лестница", 0, 10);
+        ItemSearchKey sawKey = ItemSearchKey.of("пила", 0, 10);
+        search(drillKey);
+        search(ladderKey);
+        search(sawKey);
+
+        itemSearchCache.onItemsImported(new ItemsImportedEvent(OWNER_ID, List.of(
+                new ItemDto(3L, "Дрель-шуруповерт", "Makita", true, null),
+                new ItemDto(4L, "Стремянка", "Лестница складная", true, null))));
+        search(drillKey);
+        search(ladderKey);
+        search(sawKey);
+
+        assertEquals(2, loads.get(drillKey).get());
+        assertEquals(2, loads.get(ladderKey).get());
+        assertEquals(1, loads.get(sawKey).get());
+        assertEquals(2, meterRegistry.counter("item.search.cache.invalidations").count());
+    }
+
+    @Test
+    void givenCachedSearches_whenItemRenamedOrHidden_thenDropSearchesMatchingOldAndNewText() {
+        ItemSearchKey drillKey = ItemSearchKey.of("ударная дрель", 0, 10);
+        ItemSearchKey ladderKey = ItemSearchKey.of("алюминиевая", 0, 10);
+        search(drillKey);
+        search(ladderKey);
+
+        itemSearchCache.onItemChanged(new ItemChangedEvent(OWNER_ID, DRILL,
+                new ItemDto(DRILL.getId(), "Лестница", "Алюминиевая", true, null)));
+        search(drillKey);
+        search(ladderKey);
+
+        assertEquals(2, loads.get(drillKey).get());
+        assertEquals(2, loads.get(ladderKey).get());
+
+        itemSearchCache.onItemChanged(new ItemChangedEvent(OWNER_ID, LADDER,
+                new ItemDto(LADDER.getId(), LADDER.getName(), LADDER.getDescription(), false, null)));
+        search(drillKey);
+        search(ladderKey);
+
+        assertEquals(2, loads.get(drillKey).get());
+        assertEquals(3, loads.get(ladderKey).get());
+    }
+
+    @Test
+    void givenCachedSearch_whenItemChangeDoesNotAffectSearch_thenKeepSearch() {
+        ItemSearchKey drillKey = ItemSearchKey.of("дрель", 0, 10);
+        search(drillKey);
+
+        itemSearchCache.onItemChanged(new ItemChangedEvent(OWNER_ID, DRILL,
+                new ItemDto(DRILL.getId(), DRILL.getName(), DRILL.getDescription(), true, 5L)));
+        search(drillKey);
+
+        assertEquals(1, loads.get(drillKey).get());
+        assertEquals(0, meterRegistry.counter("item.search.cache.invalidations").count());
+    }
+
+    @Test
+    void givenCachedSearches_whenUserDeleted_thenDropAllSearches() {
+        ItemSearchKey drillKey = ItemSearchKey.of("дрель", 0, 10);
+        ItemSearchKey ladderKey = ItemSearchKey.of("лестница", 0, 10);
+        search(drillKey);
+        search(ladderKey);
+
+        itemSearchCache.onUserDeleted(new UserDeletedEvent(OWNER_ID));
+        search(drillKey);
+        search(ladderKey);
+
+        assertEquals(2, loads.get(drillKey).get());
+        assertEquals(2, loads.get(ladderKey).get());
+    }
+
+    @Test
+    void givenZeroTtl_whenSearch_thenLoadEveryTime() {
+        itemSearchCache = new ItemSearchCache(
+                new ItemCacheConfig().cacheManager(100, 100, Duration.ZERO), meterRegistry);
+        ItemSearchKey drillKey = ItemSearchKey.of("дрель", 0, 10);
+
+        search(drillKey);
+        search(drillKey);
+
+        assertEquals(2, loads.get(drillKey).get());
+    }
+
+    private List<ItemDto> search(ItemSearchKey key) {
+        return itemSearchCache.get(key, () -> {
+            loads.computeIfAbsent(key, k -> new AtomicInteger()).incrementAndGet();
+            return List.of(DRILL);
+        });
+    }
+}
@@ -12,9 +12,12 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.booking.dto.BookingDtoShort;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.dto.*;
+import ru.practicum.shareit.item.service.ItemImportService;
 import ru.practicum.shareit.item.service.ItemService;
 
+import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.List;
@@ -32,6 +35,9 @@ class ItemControllerTest {
     @MockBean
     private ItemService itemService;
 
+    @MockBean
+    private ItemImportService itemImportService;
+
     @Autowired
     private MockMvc mvc;
 
@@ -167,6 +173,26 @@ class ItemControllerTest {
         verify(itemService, times(1)).search(anyString(), anyLong(), anyInt());
     }
 
+    @Test
+    void givenItemIdsAndRange_whenGetAvailability_thenStatusOkAndJsonArrayBody() throws Exception {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 10, 0, 0);
+        LocalDateTime to = from.plusDays(10);
+        List<ItemAvailabilityDto> availabilities = List.of(
+                new ItemAvailabilityDto(1L, true, List.of(new TimeSlotDto(from.plusDays(2), to)),
+                        List.of(new TimeSlotDto(from, from.plusDays(2)))),
+                new ItemAvailabilityDto(2L, true, List.of(new TimeSlotDto(from, to)), List.of()));
+
+        when(itemService.getAvailability(List.of(1L, 2L), from, to))
+                .thenReturn(availabilities);
+
+        mvc.perform(get("/items/availability")
+                        .param("ids", "1,2")
+                        .param("from", from.toString())
+                        .param("to", to.toString()))
+                .andExpect(status().isOk())
+                .andExpect(content().json(objectMapper.writeValueAsString(availabilities)));
+    }
+
     @Test
     void givenAddValidDto_whenAddDto_ThenStatusOkAndJsonBody() throws Exception {
         long userId = 1000L;
@@ -189,6 +215,44 @@ class ItemControllerTest {
         verify(itemService, times(1)).add(any(), anyLong());
     }
 
+    @Test
+    void givenNdjsonBody_whenImport_thenStatusOkAndNdjsonRowsFromService() throws Exception {
+        long userId = 1000L;
+        String results = "{\"row\":1,\"id\":10}\n{\"row\":2,\"error\":\"ItemServiceImpl: item name is blank.\"}\n" +
+                "{\"imported\":1,\"failed\":1}\n";
+
+        when(itemImportService.importItems(any(), eq(userId), any()))
+                .thenAnswer(invocation -> {
+                    invocation.<OutputStream>getArgument(2).write(results.getBytes(StandardCharsets.UTF_8));
+                    return new ItemImportResultDto(1, 1);
+                });
+
+        mvc.perform(post("/items/import")
+                        .content("{\"name\":\"drill\",\"description\":\"d\",\"available\":true}\n" +
+                                "{\"name\":\"\",\"description\":\"d\",\"available\":true}\n")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .header("X-Sharer-User-Id", String.valueOf(userId)))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(results));
+
+        verify(itemImportService, times(1)).importItems(any(), anyLong(), any());
+    }
+
+    @Test
+    void givenUnknownOwner_whenImport_thenStatusNotFoundAndJsonError() throws Exception {
+        when(itemImportService.importItems(any(), eq(-1L), any()))
+                .thenThrow(new NotFoundException("ItemImportServiceImpl: user with id=-1 not found."));
+
+        mvc.perform(post("/items/import")
+                        .content("[]")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("X-Sharer-User-Id", "-1"))
+                .andExpect(status().isNotFound())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON));
+    }
+
     @Test
     void givenPatchWithAvailable_whenPatch_thenStatusOkAndJsonBody() throws Exception {
         itemBuilder.available(true);
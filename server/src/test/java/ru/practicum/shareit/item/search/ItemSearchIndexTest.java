@@ -0,0 +1,166 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
+import ru.practicum.shareit.item.event.ItemsImportedEvent;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemBuilderTestUtil;
+import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.user.event.UserDeletedEvent;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.model.UserBuildersTestUtil;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+class ItemSearchIndexTest {
+    private static final Pageable FIRST_PAGE = PageRequest.of(0, 10);
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    private ItemSearchIndex itemSearchIndex;
+
+    private User owner1;
+
+    private User owner2;
+
+    @BeforeEach
+    void setUp() {
+        owner1 = UserBuildersTestUtil.defaultBuilder().id(1L).userBuild();
+        owner2 = UserBuildersTestUtil.defaultBuilder().id(2L).userBuild();
+        ItemBuilderTestUtil itemBuilder = ItemBuilderTestUtil.defaultBuilder();
+        List<Item> items = List.of(
+                itemBuilder.id(1L).owner(owner1).name("Дрель").description("Ударная дрель Bosch").itemBuilder(),
+                itemBuilder.id(2L).owner(owner1).name("Отвертка").description("Аккумуляторная, к дрели").itemBuilder(),
+                itemBuilder.id(3L).owner(owner2).name("Аккумуляторная дрель").description("Makita").itemBuilder(),
+                itemBuilder.id(5L).owner(owner2).name("Дрель").description("Сломана").available(false).itemBuilder()
+        );
+        Mockito.when(itemRepository.findAllByIdGreaterThanOrderByIdAsc(Mockito.eq(0L), Mockito.any(Pageable.class)))
+                .thenReturn(items);
+
+        itemSearchIndex = new ItemSearchIndex(itemRepository, true);
+        itemSearchIndex.afterSingletonsInstantiated();
+    }
+
+    @Test
+    void givenBuiltIndex_whenSearch_thenReturnAvailableMatchesRankedByRelevance() {
+        assertTrue(itemSearchIndex.isReady());
+        assertEquals(List.of(1L, 3L, 2L), itemSearchIndex.search("дрел", FIRST_PAGE));
+        assertEquals(List.of(3L, 2L), itemSearchIndex.search("аккумуляторная дрел", FIRST_PAGE));
+        assertEquals(List.of(3L), itemSearchIndex.search("АККУМ, makita", FIRST_PAGE));
+        assertEquals(List.of(), itemSearchIndex.search("дрель сломана", FIRST_PAGE));
+        assertEquals(List.of(), itemSearchIndex.search("  ", FIRST_PAGE));
+    }
+
+    @Test
+    void givenBuiltIndex_whenSearchWithPagination_thenReturnPage() {
+        assertEquals(List.of(1L, 3L), itemSearchIndex.search("дрел", PageRequest.of(0, 2)));
+        assertEquals(List.of(2L), itemSearchIndex.search("дрел", PageRequest.of(1, 2)));
+        assertEquals(List.of(), itemSearchIndex.search("дрел", PageRequest.of(2, 2)));
+    }
+
+    @Test
+    void givenItemChanges_whenOnItemChanged_thenSearchReflectsChanges() {
+        ItemDto before = new ItemDto(1L, "Дрель", "Ударная дрель Bosch", true, null);
+        ItemDto renamed = new ItemDto(1L, "Перфоратор", "Bosch", true, null);
+        itemSearchIndex.onItemChanged(new ItemChangedEvent(owner1.getId(), before, renamed));
+
+        assertEquals(List.of(3L, 2L), itemSearchIndex.search("дрел", FIRST_PAGE));
+        assertEquals(List.of(1L), itemSearchIndex.search("перф", FIRST_PAGE));
+
+        ItemDto unavailable = new ItemDto(1L, "Перфоратор", "Bosch", false, null);
+        itemSearchIndex.onItemChanged(new ItemChangedEvent(owner1.getId(), renamed, unavailable));
+        assertEquals(List.of(), itemSearchIndex.search("перфоратор", FIRST_PAGE));
+
+        ItemDto added = new ItemDto(7L, "Дрель-шуруповерт", "", true, null);
+        itemSearchIndex.onItemChanged(new ItemChangedEvent(owner2.getId(), null, added));
+        assertEquals(List.of(7L), itemSearchIndex.search("шуруп", FIRST_PAGE));
+    }
+
+    @Test
+    void givenImportedItems_whenOnItemsImported_thenAllFound() {
+        itemSearchIndex.onItemsImported(new ItemsImportedEvent(owner2.getId(), List.of(
+                new ItemDto(8L, "Пила", "Циркулярная", true, null),
+                new ItemDto(9L, "Пила", "Ножовка", false, null),
+                new ItemDto(10L, "Лобзик", "Пила по дереву", true, null))));
+
+        assertEquals(List.of(8L, 10L), itemSearchIndex.search("пила", FIRST_PAGE));
+
+        itemSearchIndex.onUserDeleted(new UserDeletedEvent(owner2.getId()));
+
+        assertEquals(List.of(), itemSearchIndex.search("пила", FIRST_PAGE));
+    }
+
+    @Test
+    void givenOwnerDeleted_whenOnUserDeleted_thenOwnerItemsNotFound() {
+        itemSearchIndex.onUserDeleted(new UserDeletedEvent(owner2.getId()));
+
+        assertEquals(List.of(1L, 2L), itemSearchIndex.search("дрел", FIRST_PAGE));
+    }
+
+    @Test
+    void givenDisabledIndex_whenAfterSingletonsInstantiated_thenNotReady() {
+        ItemSearchIndex disabledIndex = new ItemSearchIndex(itemRepository, false);
+        disabledIndex.afterSingletonsInstantiated();
+
+        assertFalse(disabledIndex.isReady());
+    }
+
+    @Test
+    void givenItemIdsBeyondIntRange_whenIndexed_thenFoundByDenseDocumentNumbers() {
+        long bigId = 5_000_000_000L;
+        ItemDto added = new ItemDto(bigId, "Дрель-миксер", "", true, null);
+        itemSearchIndex.onItemChanged(new ItemChangedEvent(owner2.getId(), null, added));
+
+        assertEquals(List.of(bigId), itemSearchIndex.search("миксер", FIRST_PAGE));
+        assertTrue(itemSearchIndex.search("дрел", FIRST_PAGE).contains(bigId));
+
+        ItemDto renamed = new ItemDto(bigId, "Миксер", "", true, null);
+        itemSearchIndex.onItemChanged(new ItemChangedEvent(owner2.getId(), added, renamed));
+
+        assertFalse(itemSearchIndex.search("дрел", FIRST_PAGE).contains(bigId));
+        assertEquals(List.of(bigId), itemSearchIndex.search("миксер", FIRST_PAGE));
+    }
+
+    @Test
+    void givenChangeCommittedDuringRebuild_whenRebuildFinishes_thenChangeApplied() throws InterruptedException {
+        ItemDto added = new ItemDto(10L, "Пила", "Циркулярная", true, null);
+        Thread listener = new Thread(() ->
+                itemSearchIndex.onItemChanged(new ItemChangedEvent(owner1.getId(), null, added)));
+        Mockito.when(itemRepository.findAllByIdGreaterThanOrderByIdAsc(Mockito.eq(0L), Mockito.any(Pageable.class)))
+                .thenAnswer(invocation -> {
+                    listener.start();
+                    while (listener.getState() != Thread.State.WAITING) {
+                        Thread.onSpinWait();
+                    }
+                    return List.of(ItemBuilderTestUtil.defaultBuilder().id(1L).owner(owner1).name("Дрель")
+                            .description("Ударная дрель Bosch").itemBuilder());
+                });
+
+        itemSearchIndex.rebuild();
+        listener.join();
+
+        assertEquals(List.of(10L), itemSearchIndex.search("пила", FIRST_PAGE));
+        assertEquals(List.of(1L), itemSearchIndex.search("дрел", FIRST_PAGE));
+    }
+
+    @Test
+    void givenDisabledIndex_whenItemChanged_thenIgnored() {
+        ItemSearchIndex disabledIndex = new ItemSearchIndex(itemRepository, false);
+        ItemDto added = new ItemDto(7L, "Дрель", "", true, null);
+        disabledIndex.onItemChanged(new ItemChangedEvent(owner1.getId(), null, added));
+
+        assertEquals(List.of(), disabledIndex.search("дрель", FIRST_PAGE));
+    }
+}
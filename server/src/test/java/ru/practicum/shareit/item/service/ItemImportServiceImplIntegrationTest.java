@@ -0,0 +1,172 @@
+package ru.practicum.shareit.item.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
+import ru.practicum.shareit.item.dto.ItemImportRowDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.model.ItemRequestBuilderTestUtil;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.model.UserBuildersTestUtil;
+
+import javax.persistence.EntityManager;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Transactional
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+class ItemImportServiceImplIntegrationTest {
+
+    private final ItemImportService itemImportService;
+
+    private final EntityManager entityManager;
+
+    private final ObjectMapper objectMapper;
+
+    private User owner;
+
+    private ItemRequest request;
+
+    @BeforeEach
+    void setUp() {
+        owner = UserBuildersTestUtil.all(null, "owner", "import-owner@mail.ru").userBuild();
+        User requester = UserBuildersTestUtil.all(null, "requester", "import-requester@mail.ru").userBuild();
+        entityManager.persist(owner);
+        entityManager.persist(requester);
+        request = ItemRequestBuilderTestUtil.defaultBuilder().requester(requester).created(LocalDateTime.now())
+                .itemRequestBuilder();
+        entityManager.persist(request);
+    }
+
+    @Test
+    void givenNdjsonWithInvalidRows_whenImportItems_thenImportValidRowsAndReportEveryRow() throws IOException {
+        String body = "{\"name\":\"drill\",\"description\":\"hammer drill\",\"available\":true}\n" +
+                "{\"name\":\" \",\"description\":\"no name\",\"available\":true}\n" +
+                "{\"name\":\"saw\",\"description\":\"unknown request\",\"available\":true,\"requestId\":-1}\n" +
+                "{\"name\":\"ladder\",\"description\":\"wrong flag\",\"available\":[1]}\n" +
+                "{\"name\":\"screwdriver\",\"description\":\"requested\",\"available\":false,\"requestId\":" +
+                request.getId() + "}\n";
+        ByteArrayOutputStream results = new ByteArrayOutputStream();
+
+        ItemImportResultDto result = itemImportService.importItems(stream(body), owner.getId(), results);
+
+        assertEquals(new ItemImportResultDto(2, 3), result);
+        List<Item> items = entityManager.createQuery("SELECT i FROM Item i WHERE i.owner.id = :ownerId ORDER BY i.id",
+                        Item.class)
+                .setParameter("ownerId", owner.getId())
+                .getResultList();
+        assertEquals(List.of("drill", "screwdriver"), items.stream().map(Item::getName).collect(Collectors.toList()));
+        assertEquals(request.getId(), items.get(1).getRequest().getId());
+
+        List<ItemImportRowDto> rows = rows(results);
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L), rows.stream().map(ItemImportRowDto::getRow)
+                .collect(Collectors.toList()));
+        assertEquals(ItemImportRowDto.imported(1, items.get(0).getId()), rows.get(0));
+        assertEquals(ItemImportRowDto.failed(2, "ItemServiceImpl: item name is blank."), rows.get(1));
+        assertEquals(ItemImportRowDto.failed(3, "ItemServiceImpl: item request with id=-1 not found."), rows.get(2));
+        assertNotNull(rows.get(3).getError());
+        assertNull(rows.get(3).getId());
+        assertEquals(ItemImportRowDto.imported(5, items.get(1).getId()), rows.get(4));
+        assertEquals(result, totals(results));
+    }
+
+    @Test
+    void givenJsonArrayLargerThanBatch_whenImportItems_thenReportIdOfEveryRow() throws IOException {
+        String body = IntStream.range(0, 1200)
+                .mapToObj(i -> "{\"name\":\"item" + i + "\",\"description\":\"d\",\"available\":true}")
+                .collect(Collectors.joining(",", "[", "]"));
+        ByteArrayOutputStream results = new ByteArrayOutputStream();
+
+        ItemImportResultDto result = itemImportService.importItems(stream(body), owner.getId(), results);
+
+        assertEquals(new ItemImportResultDto(1200, 0), result);
+        List<ItemImportRowDto> rows = rows(results);
+        assertEquals(1200, rows.size());
+        assertEquals(1200, rows.stream().map(ItemImportRowDto::getId).distinct().count());
+        assertEquals("item1199", entityManager.find(Item.class, rows.get(1199).getId()).getName());
+    }
+
+    @Test
+    void givenMoreInvalidRowsThanOneBatch_whenImportItems_thenReportEveryFailedRow() throws IOException {
+        String body = IntStream.range(0, 1500)
+                .mapToObj(i -> "{\"name\":\"\",\"description\":\"d\",\"available\":true}")
+                .collect(Collectors.joining("\n"));
+        ByteArrayOutputStream results = new ByteArrayOutputStream();
+
+        ItemImportResultDto result = itemImportService.importItems(stream(body), owner.getId(), results);
+
+        assertEquals(new ItemImportResultDto(0, 1500), result);
+        List<ItemImportRowDto> rows = rows(results);
+        assertEquals(1500, rows.size());
+        assertEquals(ItemImportRowDto.failed(1500, "ItemServiceImpl: item name is blank."), rows.get(1499));
+    }
+
+    @Test
+    void givenMalformedJson_whenImportItems_thenKeepImportedRowsAndStop() throws IOException {
+        String body = "{\"name\":\"drill\",\"description\":\"d\",\"available\":true}\n" +
+                "{\"name\":\"saw\",,}\n" +
+                "{\"name\":\"ladder\",\"description\":\"d\",\"available\":true}\n";
+        ByteArrayOutputStream results = new ByteArrayOutputStream();
+
+        ItemImportResultDto result = itemImportService.importItems(stream(body), owner.getId(), results);
+
+        assertEquals(new ItemImportResultDto(1, 1), result);
+        List<ItemImportRowDto> rows = rows(results);
+        assertEquals(2, rows.size());
+        assertNotNull(rows.get(0).getId());
+        assertEquals(2L, rows.get(1).getRow());
+        assertThat(rows.get(1).getError()).startsWith("Malformed input, import stopped");
+        assertEquals(result, totals(results));
+    }
+
+    @Test
+    void givenUnknownOwner_whenImportItems_thenThrowNotFoundExceptionBeforeWriting() {
+        ByteArrayOutputStream results = new ByteArrayOutputStream();
+
+        assertThrows(NotFoundException.class,
+                () -> itemImportService.importItems(stream("[]"), -1L, results));
+        assertEquals(0, results.size());
+    }
+
+    private static InputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static List<String> lines(ByteArrayOutputStream results) {
+        return List.of(results.toString(StandardCharsets.UTF_8).split("\n"));
+    }
+
+    // every line but the last one is a row
+    private List<ItemImportRowDto> rows(ByteArrayOutputStream results) throws IOException {
+        List<String> lines = lines(results);
+        List<ItemImportRowDto> rows = new ArrayList<>();
+        for (String line : lines.subList(0, lines.size() - 1)) {
+            rows.add(objectMapper.readValue(line, ItemImportRowDto.class));
+        }
+        return rows;
+    }
+
+    private ItemImportResultDto totals(ByteArrayOutputStream results) throws IOException {
+        List<String> lines = lines(results);
+        return objectMapper.readValue(lines.get(lines.size() - 1), ItemImportResultDto.class);
+    }
+}
@@ -1,16 +1,26 @@
 package ru.practicum.shareit.item.service;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.model.BookingBuilderTestUtils;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.cache.ItemCardCache;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemDtoResponse;
+import ru.practicum.shareit.item.dto.TimeSlotDto;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemBuilderTestUtil;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.model.UserBuildersTestUtil;
+import ru.practicum.shareit.util.SqlStatementCounter;
 
 import javax.persistence.EntityManager;
+import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -24,6 +34,8 @@ public class ItemServiceImplIntegrationTest {
 
     private final EntityManager entityManager;
 
+    private final MeterRegistry meterRegistry;
+
     @Test
     void add() {
         List<User> users = List.of(
@@ -49,4 +61,101 @@ public class ItemServiceImplIntegrationTest {
         assertThat(item.getAvailable()).isEqualTo(true);
         assertThat(item.getRequest()).isEqualTo(null);
     }
+
+    @Test
+    void getByIdTwiceByNonOwner() {
+        User owner = UserBuildersTestUtil.all(null, "owner", "owner@mail.ru").userBuild();
+        User viewer = UserBuildersTestUtil.all(null, "viewer", "viewer@mail.ru").userBuild();
+        entityManager.persist(owner);
+        entityManager.persist(viewer);
+        ItemDto itemDto = itemService.add(new ItemDto(null, "itemName", "itemDescription", true, null),
+                owner.getId());
+        entityManager.flush();
+        entityManager.clear();
+        double hits = cacheGets(ItemCardCache.ITEM_CARDS, "hit");
+
+        itemService.getById(itemDto.getId(), viewer.getId());
+        entityManager.clear();
+        SqlStatementCounter.reset();
+        itemService.getById(itemDto.getId(), viewer.getId());
+
+        assertThat(SqlStatementCounter.get()).isEqualTo(1);
+        assertThat(cacheGets(ItemCardCache.ITEM_CARDS, "hit")).isEqualTo(hits + 1);
+    }
+
+    @Test
+    void givenFromNotMultipleOfSize_whenGetAll_thenSkipExactlyFromItems() {
+        User owner = UserBuildersTestUtil.all(null, "owner", "offset-owner@mail.ru").userBuild();
+        entityManager.persist(owner);
+        List<Item> items = List.of(
+                ItemBuilderTestUtil.defaultBuilder().name("first").owner(owner).itemBuilder(),
+                ItemBuilderTestUtil.defaultBuilder().name("second").owner(owner).itemBuilder(),
+                ItemBuilderTestUtil.defaultBuilder().name("third").owner(owner).itemBuilder(),
+                ItemBuilderTestUtil.defaultBuilder().name("fourth").owner(owner).itemBuilder()
+        );
+        items.forEach(entityManager::persist);
+        entityManager.flush();
+        entityManager.clear();
+
+        assertThat(itemService.getAll(owner.getId(), 1, 2)).extracting(ItemDtoResponse::getId)
+                .containsExactly(items.get(1).getId(), items.get(2).getId());
+    }
+
+    @Test
+    void givenOverlappingAndRejectedBookings_whenGetAvailability_thenMergeBusyAndReturnGapsInOneQuery() {
+        User owner = UserBuildersTestUtil.all(null, "owner", "calendar-owner@mail.ru").userBuild();
+        User booker = UserBuildersTestUtil.all(null, "booker", "calendar-booker@mail.ru").userBuild();
+        entityManager.persist(owner);
+        entityManager.persist(booker);
+        Item tent = ItemBuilderTestUtil.defaultBuilder().name("tent").owner(owner).itemBuilder();
+        Item boat = ItemBuilderTestUtil.defaultBuilder().name("boat").owner(owner).itemBuilder();
+        Item idle = ItemBuilderTestUtil.defaultBuilder().name("idle").owner(owner).itemBuilder();
+        List.of(tent, boat, idle).forEach(entityManager::persist);
+        LocalDateTime from = LocalDateTime.of(2030, 1, 10, 0, 0);
+        LocalDateTime to = LocalDateTime.of(2030, 1, 20, 0, 0);
+        List.of(
+                BookingBuilderTestUtils.all(null, from.minusDays(2), from.plusDays(1), tent, booker,
+                        BookingStatus.APPROVED).bookingBuild(),
+                BookingBuilderTestUtils.all(null, from.plusDays(3), from.plusDays(5), tent, booker,
+                        BookingStatus.WAITING).bookingBuild(),
+                BookingBuilderTestUtils.all(null, from.plusDays(4), from.plusDays(6), tent, booker,
+                        BookingStatus.APPROVED).bookingBuild(),
+                BookingBuilderTestUtils.all(null, from.plusDays(6), from.plusDays(7), tent, booker,
+                        BookingStatus.WAITING).bookingBuild(),
+                BookingBuilderTestUtils.all(null, from.plusDays(8), from.plusDays(9), tent, booker,
+                        BookingStatus.REJECTED).bookingBuild(),
+                BookingBuilderTestUtils.all(null, to.minusDays(1), to.plusDays(3), boat, booker,
+                        BookingStatus.APPROVED).bookingBuild(),
+                BookingBuilderTestUtils.all(null, to, to.plusDays(1), idle, booker, BookingStatus.APPROVED)
+                        .bookingBuild()
+        ).forEach(entityManager::persist);
+        entityManager.flush();
+        entityManager.clear();
+
+        SqlStatementCounter.reset();
+        List<ItemAvailabilityDto> availabilities = itemService.getAvailability(
+                List.of(boat.getId(), tent.getId(), idle.getId(), boat.getId(), -1L), from, to);
+
+        assertThat(SqlStatementCounter.get()).isEqualTo(2);
+        assertThat(availabilities).extracting(ItemAvailabilityDto::getItemId)
+                .containsExactly(boat.getId(), tent.getId(), idle.getId());
+        assertThat(availabilities.get(0).getBusy()).containsExactly(new TimeSlotDto(to.minusDays(1), to));
+        assertThat(availabilities.get(0).getFree()).containsExactly(new TimeSlotDto(from, to.minusDays(1)));
+        assertThat(availabilities.get(1).getBusy()).containsExactly(
+                new TimeSlotDto(from, from.plusDays(1)),
+                new TimeSlotDto(from.plusDays(3), from.plusDays(7)));
+        assertThat(availabilities.get(1).getFree()).containsExactly(
+                new TimeSlotDto(from.plusDays(1), from.plusDays(3)),
+                new TimeSlotDto(from.plusDays(7), to));
+        assertThat(availabilities.get(2).getBusy()).isEmpty();
+        assertThat(availabilities.get(2).getFree()).containsExactly(new TimeSlotDto(from, to));
+    }
+
+    private double cacheGets(String cacheName, String result) {
+        return meterRegistry.get("cache.gets")
+                .tag("cache", cacheName)
+                .tag("result", result)
+                .functionCounter()
+                .count();
+    }
 }
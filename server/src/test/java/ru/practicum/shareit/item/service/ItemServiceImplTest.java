@@ -1,5 +1,6 @@
 package ru.practicum.shareit.item.service;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import lombok.AllArgsConstructor;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
@@ -7,11 +8,14 @@ import lombok.experimental.Accessors;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.support.NoOpCacheManager;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.test.util.ReflectionTestUtils;
@@ -24,25 +28,34 @@ import ru.practicum.shareit.booking.storage.BookingRepository;
 import ru.practicum.shareit.exception.AuthenticationErrorException;
 import ru.practicum.shareit.exception.CustomValidationException;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.cache.ItemCardCache;
+import ru.practicum.shareit.item.cache.ItemSearchCache;
 import ru.practicum.shareit.item.dto.*;
+import ru.practicum.shareit.item.event.CommentAddedEvent;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
+import ru.practicum.shareit.item.event.ItemsImportedEvent;
 import ru.practicum.shareit.item.mapper.CommentMapper;
 import ru.practicum.shareit.item.mapper.CommentMapperImpl;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.mapper.ItemMapperImpl;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
 import ru.practicum.shareit.item.storage.CommentRepository;
 import ru.practicum.shareit.item.storage.ItemRepository;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.storage.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.storage.UserRepository;
+import ru.practicum.shareit.util.OffsetPageRequest;
+import ru.practicum.shareit.util.PageCursor;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -61,6 +74,14 @@ class ItemServiceImplTest {
     private CommentRepository commentRepository;
     @Mock
     private ItemRequestRepository itemRequestRepository;
+    @Mock
+    private ItemSearchIndex itemSearchIndex;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Spy
+    private ItemCardCache itemCardCache = new ItemCardCache(new NoOpCacheManager());
+    @Spy
+    private ItemSearchCache itemSearchCache = new ItemSearchCache(new NoOpCacheManager(), new SimpleMeterRegistry());
     @Spy
     private static ItemMapper itemMapper = new ItemMapperImpl();
     @Spy
@@ -81,6 +102,8 @@ class ItemServiceImplTest {
         private Long ownerId = 20L;
         private Long lastBookingId = 30L;
         private Long nextBookingId = 40L;
+        private LocalDateTime lastBookingStart;
+        private LocalDateTime nextBookingStart;
         private List<TestCommentBuilder> testCommentBuilders = List.of(
                 TestCommentBuilder.all(50L, "Comment1", LocalDateTime.now().minusDays(1),
                         60L, "author1", id),
@@ -111,6 +134,7 @@ class ItemServiceImplTest {
             }
             Booking lastBooking = new Booking();
             lastBooking.setId(lastBookingId);
+            lastBooking.setStart(lastBookingStart);
             Item item = new Item();
             item.setId(id);
             lastBooking.setItem(item);
@@ -123,6 +147,7 @@ class ItemServiceImplTest {
             }
             Booking nextBooking = new Booking();
             nextBooking.setId(nextBookingId);
+            nextBooking.setStart(nextBookingStart);
             Item item = new Item();
             item.setId(id);
             nextBooking.setItem(item);
@@ -142,9 +167,9 @@ class ItemServiceImplTest {
         public ItemDtoResponse buildDtoResponse() {
             return new ItemDtoResponse(id, name, description, available, requestId,
                     Objects.isNull(lastBookingId) ? null :
-                            new BookingDtoShort(lastBookingId, null, null, null, null),
+                            new BookingDtoShort(lastBookingId, lastBookingStart, null, null, null),
                     Objects.isNull(nextBookingId) ? null :
-                            new BookingDtoShort(nextBookingId, null, null, null, null),
+                            new BookingDtoShort(nextBookingId, nextBookingStart, null, null, null),
                     testCommentBuilders.stream().map(TestCommentBuilder::buildDtoResponse).collect(Collectors.toList()));
         }
     }
@@ -281,6 +306,43 @@ class ItemServiceImplTest {
         assertThrows(NotFoundException.class, () -> itemService.add(requestDto, ownerId));
     }
 
+    @Test
+    void givenImportBatchLargerThanEventSize_whenImportBatch_thenPublishOneEventPerChunkAndReturnRowResults() {
+        long ownerId = 1L;
+        User owner = new User();
+        owner.setId(ownerId);
+        List<ItemDto> itemDtos = IntStream.range(0, 701)
+                .mapToObj(i -> new ItemDto(null, i == 3 ? " " : "item" + i, "d", true, null))
+                .collect(Collectors.toList());
+
+        Mockito.when(userRepository.findById(ownerId))
+                .thenReturn(Optional.of(owner));
+        Mockito.when(itemRepository.saveAll(Mockito.anyList()))
+                .thenAnswer(invocation -> {
+                    List<Item> items = invocation.getArgument(0);
+                    for (int i = 0; i < items.size(); i++) {
+                        items.get(i).setId(i + 1L);
+                    }
+                    return items;
+                });
+
+        List<ItemImportRowDto> rows = itemService.importBatch(itemDtos, 1, ownerId);
+
+        assertEquals(701, rows.size());
+        assertEquals(ItemImportRowDto.imported(3, 3), rows.get(2));
+        assertEquals(ItemImportRowDto.failed(4, "ItemServiceImpl: item name is blank."), rows.get(3));
+        assertEquals(ItemImportRowDto.imported(5, 4), rows.get(4));
+        assertEquals(ItemImportRowDto.imported(701, 700), rows.get(700));
+
+        ArgumentCaptor<ItemsImportedEvent> events = ArgumentCaptor.forClass(ItemsImportedEvent.class);
+        Mockito.verify(eventPublisher, Mockito.times(2)).publishEvent(events.capture());
+        assertEquals(List.of(500, 200), events.getAllValues().stream()
+                .map(event -> event.getItems().size())
+                .collect(Collectors.toList()));
+        assertEquals(ownerId, events.getValue().getOwnerId());
+        assertEquals(700L, events.getValue().getItems().get(199).getId());
+    }
+
     @Test
     void givenPatchWithName_whenPatch_thenReturnPatchedDto() {
         TestItemBuilder itemBuilder = TestItemBuilder.defaultBuilder();
@@ -288,6 +350,7 @@ class ItemServiceImplTest {
         String patchName = item.getName() + " updated";
         itemBuilder.name(patchName);
         ItemDto responseDto = itemBuilder.buildDto();
+        ItemDto beforeDto = TestItemBuilder.defaultBuilder().buildDto();
         long itemId = item.getId();
         long ownerId = item.getOwner().getId();
 
@@ -296,6 +359,8 @@ class ItemServiceImplTest {
 
         assertEquals(responseDto,
                 itemService.patch(itemId, new ItemPatchDto(patchName, null, null), ownerId));
+
+        Mockito.verify(eventPublisher).publishEvent(new ItemChangedEvent(ownerId, beforeDto, responseDto));
     }
 
     @Test
@@ -377,7 +442,9 @@ class ItemServiceImplTest {
 
     @Test
     void givenGetByIdCorrectWithOwnerUserId_whenGetById_thenReturnExtendedDtoWithBookings() {
-        TestItemBuilder itemBuilder = TestItemBuilder.defaultBuilder();
+        TestItemBuilder itemBuilder = TestItemBuilder.defaultBuilder()
+                .lastBookingStart(LocalDateTime.now().minusDays(1))
+                .nextBookingStart(LocalDateTime.now().plusDays(1));
         Item itemBuild = itemBuilder.buildItem();
         ItemDtoResponse responseItemDto = itemBuilder.buildDtoResponse();
         Long itemId = itemBuild.getId();
@@ -387,40 +454,23 @@ class ItemServiceImplTest {
                 .thenReturn(Optional.of(itemBuild.getOwner()));
         Mockito.when(itemRepository.findById(itemId))
                 .thenReturn(Optional.of(itemBuild));
-        Mockito.when(bookingRepository.findFirstByItemAndStartLessThanEqualAndStatusIsOrderByStartDesc(
-                        Mockito.any(Item.class), Mockito.any(LocalDateTime.class),
-                        Mockito.any(BookingStatus.class)))
-                .thenReturn(Optional.ofNullable(itemBuilder.buildLastBooking()));
-        Mockito.when(bookingRepository.findFirstByItemAndStartAfterAndStatusIsOrderByStartDesc(
-                        Mockito.any(Item.class), Mockito.any(LocalDateTime.class),
-                        Mockito.any(BookingStatus.class)))
-                .thenReturn(Optional.ofNullable(itemBuilder.buildNextBooking()));
         Mockito.when(commentRepository.findAllByItem(Mockito.any(Item.class)))
                 .thenReturn(itemBuilder.buildComments());
+        Mockito.when(commentRepository.findAllByItemIn(Mockito.anyList()))
+                .thenReturn(itemBuilder.buildComments());
+        Mockito.when(bookingRepository.findLastAndNextByItemIds(
+                        Mockito.anyList(), Mockito.any(LocalDateTime.class), Mockito.anyString()))
+                .thenReturn(List.of(itemBuilder.buildLastBooking(), itemBuilder.buildNextBooking()));
 
         LocalDateTime minCurTime = LocalDateTime.now();
         assertEquals(responseItemDto, itemService.getById(itemId, userId));
         LocalDateTime maxCurTime = LocalDateTime.now();
 
-        Mockito.verify(bookingRepository).findFirstByItemAndStartLessThanEqualAndStatusIsOrderByStartDesc(
-                Mockito.argThat(item -> Objects.nonNull(item) &&
-                        Objects.equals(item.getId(), item.getId())),
+        Mockito.verify(bookingRepository).findLastAndNextByItemIds(
+                Mockito.eq(List.of(itemId)),
                 Mockito.argThat(localDateTime -> !minCurTime.isAfter(localDateTime) &&
                         !maxCurTime.isBefore(localDateTime)),
-                Mockito.eq(BookingStatus.APPROVED)
-        );
-
-        Mockito.verify(bookingRepository).findFirstByItemAndStartAfterAndStatusIsOrderByStartDesc(
-                Mockito.argThat(item -> Objects.nonNull(item) &&
-                        Objects.equals(item.getId(), item.getId())),
-                Mockito.argThat(localDateTime -> !minCurTime.isAfter(localDateTime) &&
-                        !maxCurTime.isBefore(localDateTime)),
-                Mockito.eq(BookingStatus.APPROVED)
-        );
-
-        Mockito.verify(commentRepository).findAllByItem(
-                Mockito.argThat(item -> Objects.nonNull(item) &&
-                        Objects.equals(item.getId(), item.getId()))
+                Mockito.eq(BookingStatus.APPROVED.name())
         );
     }
 
@@ -483,7 +533,9 @@ class ItemServiceImplTest {
 
     @Test
     void givenGetAllCorrectWithPagination_whenGetAll_thenReturnDtoList() {
-        TestItemBuilder itemBuilder = TestItemBuilder.defaultBuilder();
+        TestItemBuilder itemBuilder = TestItemBuilder.defaultBuilder()
+                .lastBookingStart(LocalDateTime.now().minusDays(1))
+                .nextBookingStart(LocalDateTime.now().plusDays(1));
         Item item = itemBuilder.buildItem();
         long from = 0;
         int size = 1;
@@ -494,14 +546,10 @@ class ItemServiceImplTest {
                 .thenReturn(List.of(item));
         Mockito.when(commentRepository.findAllByItemIn(Mockito.anyList()))
                 .thenReturn(itemBuilder.buildComments());
-        Mockito.when(bookingRepository.findAllByItemInAndStartLessThanEqualAndStatusIsOrderByStartDesc(
-                        Mockito.anyList(), Mockito.any(LocalDateTime.class),
-                        Mockito.any(BookingStatus.class)))
-                .thenReturn(List.of(itemBuilder.buildLastBooking()));
-        Mockito.when(bookingRepository.findAllByItemInAndStartAfterAndStatusIsOrderByStartAsc(
-                        Mockito.anyList(), Mockito.any(LocalDateTime.class),
-                        Mockito.any(BookingStatus.class)))
-                .thenReturn(List.of(itemBuilder.buildNextBooking()));
+        Mockito.when(bookingRepository.findLastAndNextByItemIds(
+                        Mockito.eq(List.of(item.getId())), Mockito.any(LocalDateTime.class),
+                        Mockito.eq(BookingStatus.APPROVED.name())))
+                .thenReturn(List.of(itemBuilder.buildNextBooking(), itemBuilder.buildLastBooking()));
 
         assertEquals(List.of(itemBuilder.buildDtoResponse()),
                 itemService.getAll(item.getOwner().getId(), from, size));
@@ -524,7 +572,7 @@ class ItemServiceImplTest {
         long from = 0;
         int size = 1;
 
-        Mockito.when(itemRepository.searchByNameOrDescription(lowerCaseText, PageRequest.of((int) (from / size), size)))
+        Mockito.when(itemRepository.searchByNameOrDescription(lowerCaseText, OffsetPageRequest.of(from, size)))
                 .thenReturn(List.of(item));
 
         assertEquals(List.of(itemBuilder.buildDto()),
@@ -534,6 +582,70 @@ class ItemServiceImplTest {
                 .searchByNameOrDescription(Mockito.any(String.class), Mockito.eq(Pageable.unpaged()));
     }
 
+    @Test
+    void givenSearchWithReadyIndex_whenSearch_thenReturnItemsInIndexOrder() {
+        TestItemBuilder itemBuilder = TestItemBuilder.defaultBuilder();
+        Item item1 = itemBuilder.id(1L).buildItem();
+        ItemDto dto1 = itemBuilder.buildDto();
+        Item item2 = itemBuilder.id(2L).buildItem();
+        ItemDto dto2 = itemBuilder.buildDto();
+        Pageable pageable = OffsetPageRequest.of(0, 10);
+
+        Mockito.when(itemSearchIndex.isReady()).thenReturn(true);
+        Mockito.when(itemSearchIndex.search("text", pageable)).thenReturn(List.of(2L, 3L, 1L));
+        Mockito.when(itemRepository.findAllById(List.of(2L, 3L, 1L))).thenReturn(List.of(item1, item2));
+
+        assertEquals(List.of(dto2, dto1), itemService.search("TeXt", 0, 10));
+
+        Mockito.verify(itemRepository, Mockito.never())
+                .searchByNameOrDescription(Mockito.any(String.class), Mockito.any(Pageable.class));
+    }
+
+    @Test
+    void givenSearchWithTrigramIndex_whenSearch_thenUseTrigramQueryOnlyForLongText() {
+        TestItemBuilder itemBuilder = TestItemBuilder.defaultBuilder();
+        Item item = itemBuilder.buildItem();
+        Pageable pageable = OffsetPageRequest.of(0, 10);
+        ReflectionTestUtils.setField(itemService, "trigramIndexSearch", true);
+        ReflectionTestUtils.setField(itemService, "trigramMaxSelectivity", 0.01);
+
+        Mockito.when(itemRepository.estimateSearchSelectivity("text")).thenReturn(0.001);
+        Mockito.when(itemRepository.searchByNameOrDescriptionTrigram("text", pageable))
+                .thenReturn(List.of(item));
+        Mockito.when(itemRepository.searchByNameOrDescription("te", pageable))
+                .thenReturn(List.of(item));
+
+        assertEquals(List.of(itemBuilder.buildDto()), itemService.search("TeXt", 0, 10));
+        assertEquals(List.of(itemBuilder.buildDto()), itemService.search("Te", 0, 10));
+
+        Mockito.verify(itemRepository, Mockito.never())
+                .searchByNameOrDescription(Mockito.eq("text"), Mockito.any(Pageable.class));
+        Mockito.verify(itemRepository, Mockito.never())
+                .searchByNameOrDescriptionTrigram(Mockito.eq("te"), Mockito.any(Pageable.class));
+    }
+
+    @Test
+    void givenFrequentSearchText_whenSearch_thenPageAlongIdsWithoutTrigramQuery() {
+        TestItemBuilder itemBuilder = TestItemBuilder.defaultBuilder();
+        Item item = itemBuilder.buildItem();
+        ReflectionTestUtils.setField(itemService, "trigramIndexSearch", true);
+        ReflectionTestUtils.setField(itemService, "trigramMaxSelectivity", 0.01);
+
+        Mockito.when(itemRepository.estimateSearchSelectivity("drill")).thenReturn(0.06);
+        Mockito.when(itemRepository.searchByNameOrDescription("drill", OffsetPageRequest.of(40, 20)))
+                .thenReturn(List.of(item));
+        Mockito.when(itemRepository.searchByNameOrDescriptionAfter("drill", 5L, PageRequest.of(0, 20)))
+                .thenReturn(List.of(item));
+
+        assertEquals(List.of(itemBuilder.buildDto()), itemService.search("Drill", 40, 20));
+        assertEquals(List.of(itemBuilder.buildDto()), itemService.search("Drill", PageCursor.of(5L), 20));
+
+        Mockito.verify(itemRepository, Mockito.never())
+                .searchByNameOrDescriptionTrigram(Mockito.any(String.class), Mockito.any(Pageable.class));
+        Mockito.verify(itemRepository, Mockito.never()).searchByNameOrDescriptionTrigramAfter(
+                Mockito.any(String.class), Mockito.any(Long.class), Mockito.any(Pageable.class));
+    }
+
     @Test
     void givenAddCommentCorrect_whenAddComment_thenReturnDto() {
         TestCommentBuilder builder = TestCommentBuilder.defaultBuilder();
@@ -579,6 +691,8 @@ class ItemServiceImplTest {
                         Objects.equals(user.getName(), requestComment.getAuthor().getName())),
                 Mockito.any(LocalDateTime.class)
         );
+
+        Mockito.verify(eventPublisher).publishEvent(new CommentAddedEvent(itemId));
     }
 
     @Test
@@ -635,4 +749,33 @@ class ItemServiceImplTest {
         assertThrows(CustomValidationException.class,
                 () -> itemService.addComment(new CommentDtoRequest(text), itemId, authorId));
     }
-}
\ No newline at end of file
+
+    @Test
+    void givenUnavailableItem_whenGetAvailability_thenNoFreeSlots() {
+        Item item = TestItemBuilder.defaultBuilder().available(false).buildItem();
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        LocalDateTime to = from.plusDays(10);
+
+        Mockito.when(itemRepository.findById(item.getId()))
+                .thenReturn(Optional.of(item));
+        Mockito.when(bookingRepository.findPeriodsByItemIds(List.of(item.getId()),
+                        List.of(BookingStatus.WAITING, BookingStatus.APPROVED), from, to))
+                .thenReturn(List.of());
+
+        assertEquals(new ItemAvailabilityDto(item.getId(), false, List.of(), List.of()),
+                itemService.getAvailability(item.getId(), from, to));
+    }
+
+    @Test
+    void givenRangeEndBeforeStart_whenGetAvailability_thenThrowCustomValidationException() {
+        Item item = TestItemBuilder.defaultBuilder().buildItem();
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+        Mockito.when(itemRepository.findById(item.getId()))
+                .thenReturn(Optional.of(item));
+
+        assertThrows(CustomValidationException.class,
+                () -> itemService.getAvailability(item.getId(), from, from.minusDays(1)));
+        Mockito.verifyNoInteractions(bookingRepository);
+    }
+}
@@ -0,0 +1,127 @@
+package ru.practicum.shareit.item.storage;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.util.PageCursor;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// "drill" is frequent and paged along the primary key, "theodolite" is rare and read through the trigram indexes,
+// both have to page in id order without repeating or skipping items; the search cache is off
+@SpringBootTest(properties = {
+        "spring.datasource.driver-class-name=org.postgresql.Driver",
+        "shareit.item.search.trigram-index=true",
+        "shareit.item.search.trigram-max-selectivity=0.01",
+        "shareit.item.search.cache.maximum-size=0"
+})
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+class ItemTrigramSearchTest {
+    private static final int ITEMS = 2000;
+
+    private static final EmbeddedPostgres POSTGRES = start();
+
+    private final ItemRepository itemRepository;
+
+    private final ItemService itemService;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> POSTGRES.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+    }
+
+    private static EmbeddedPostgres start() {
+        try {
+            return EmbeddedPostgres.builder().start();
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    // every 250th item is a theodolite, every other one a drill, every 10th one is unavailable
+    @BeforeEach
+    void seed() {
+        if (itemRepository.count() > 0) {
+            return;
+        }
+        jdbcTemplate.update("INSERT INTO users (id, name, email) VALUES (1, 'owner', 'owner@mail.ru')");
+        jdbcTemplate.update("INSERT INTO items (id, name, description, available, owner_id) "
+                + "SELECT g, CASE WHEN g % 250 = 0 THEN 'Theodolite ' ELSE 'saw ' END || g, "
+                + "CASE WHEN g % 2 = 0 THEN 'cordless DRILL' ELSE 'hand saw' END, g % 10 <> 4, 1 "
+                + "FROM generate_series(1, ?) g", ITEMS);
+        jdbcTemplate.execute("ANALYZE items");
+    }
+
+    private List<Long> expectedIds(String text) {
+        return jdbcTemplate.queryForList("SELECT id FROM items WHERE (lower(name) LIKE ? OR lower(description) "
+                + "LIKE ?) AND available = TRUE ORDER BY id", Long.class, "%" + text + "%", "%" + text + "%");
+    }
+
+    private List<Long> searchByOffset(String text, int size) {
+        List<Long> ids = new ArrayList<>();
+        for (long from = 0; ; from += size) {
+            List<Long> page = ids(itemService.search(text, from, size));
+            ids.addAll(page);
+            if (page.size() < size) {
+                return ids;
+            }
+        }
+    }
+
+    private List<Long> searchByCursor(String text, int size) {
+        List<Long> ids = new ArrayList<>();
+        PageCursor after = null;
+        while (true) {
+            List<Long> page = ids(itemService.search(text, after, size));
+            ids.addAll(page);
+            if (page.size() < size) {
+                return ids;
+            }
+            after = PageCursor.of(page.get(page.size() - 1));
+        }
+    }
+
+    private static List<Long> ids(List<ItemDto> items) {
+        return items.stream().map(ItemDto::getId).collect(Collectors.toList());
+    }
+
+    @Test
+    void givenFrequentText_whenSearchPageByPage_thenEveryMatchOnceInIdOrder() {
+        assertThat(itemRepository.estimateSearchSelectivity("drill")).isGreaterThanOrEqualTo(0.01);
+
+        List<Long> expected = expectedIds("drill");
+
+        assertThat(expected).hasSize(800);
+        assertThat(searchByOffset("Drill", 70)).isEqualTo(expected);
+        assertThat(searchByCursor("Drill", 70)).isEqualTo(expected);
+    }
+
+    @Test
+    void givenRareText_whenSearchPageByPage_thenEveryMatchOnceInIdOrder() {
+        assertThat(itemRepository.estimateSearchSelectivity("theodolite")).isLessThan(0.01);
+
+        List<Long> expected = expectedIds("theodolite");
+
+        assertThat(expected).hasSize(8);
+        assertThat(searchByOffset("theoDOLITE", 3)).isEqualTo(expected);
+        assertThat(searchByCursor("theoDOLITE", 3)).isEqualTo(expected);
+    }
+}
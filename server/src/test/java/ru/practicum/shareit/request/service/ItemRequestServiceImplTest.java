@@ -12,7 +12,6 @@ import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.test.util.ReflectionTestUtils;
 import ru.practicum.shareit.booking.mapper.BookingShortMapperImpl;
@@ -32,6 +31,7 @@ import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.storage.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.storage.UserRepository;
+import ru.practicum.shareit.util.OffsetPageRequest;
 
 import java.time.LocalDateTime;
 import java.util.Collections;
@@ -277,7 +277,7 @@ class ItemRequestServiceImplTest {
         Mockito.when(itemRequestRepository.findAllByRequesterIsNot(
                         Mockito.argThat(requester -> Objects.nonNull(requester) &&
                                 Objects.equals(requester.getId(), userId)),
-                        Mockito.eq(PageRequest.of(0, 1, sort))))
+                        Mockito.eq(OffsetPageRequest.of(0, 1, sort))))
                 .thenReturn(List.of(itemRequest));
         Mockito.when(itemRepository.findAllByRequestIn(Mockito.argThat(itemRequestList ->
                         Objects.nonNull(itemRequestList) &&
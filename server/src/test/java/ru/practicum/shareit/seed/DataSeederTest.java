@@ -0,0 +1,66 @@
+package ru.practicum.shareit.seed;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:seed",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.springframework.transaction.interceptor=INFO",
+        "logging.level.org.springframework.orm.jpa.JpaTransactionManager=INFO",
+        "shareit.seed.enabled=true",
+        "shareit.seed.users=200",
+        "shareit.seed.requests=20",
+        "shareit.seed.items=500",
+        "shareit.seed.bookings=5000",
+        "shareit.seed.max-bookings-per-item=100",
+        "shareit.seed.history-days=365",
+        "shareit.seed.future-days=30"
+})
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+class DataSeederTest {
+    private final JdbcTemplate jdbcTemplate;
+
+    private final DataSeeder dataSeeder;
+
+    private final UserService userService;
+
+    @Test
+    void givenEmptyDatabase_whenApplicationReady_thenSeedSkewedDataConsistentWithServices() {
+        assertEquals(200, count("SELECT COUNT(*) FROM users"));
+        assertEquals(20, count("SELECT COUNT(*) FROM requests"));
+        assertEquals(500, count("SELECT COUNT(*) FROM items"));
+        assertEquals(5000, count("SELECT COUNT(*) FROM bookings"));
+        assertThat(count("SELECT COUNT(*) FROM comments")).isPositive();
+
+        assertEquals(100, count("SELECT MAX(c) FROM (SELECT COUNT(*) AS c FROM bookings GROUP BY item_id) AS t"));
+        assertThat(count("SELECT MAX(c) FROM (SELECT COUNT(*) AS c FROM items GROUP BY owner_id) AS t"))
+                .isGreaterThan(10);
+        assertEquals(0, count("SELECT COUNT(*) FROM bookings AS b JOIN items AS i ON i.id = b.item_id " +
+                "WHERE b.booker_id = i.owner_id"));
+        assertEquals(0, count("SELECT COUNT(*) FROM bookings AS a JOIN bookings AS b ON a.item_id = b.item_id " +
+                "AND a.id < b.id AND a.start_time < b.end_time AND b.start_time < a.end_time"));
+        assertEquals(0, count("SELECT COUNT(*) FROM users AS u WHERE u.booker_waiting_count <> " +
+                "(SELECT COUNT(*) FROM bookings AS b WHERE b.booker_id = u.id AND b.status = 'WAITING') " +
+                "OR u.owner_rejected_count <> (SELECT COUNT(*) FROM bookings AS b JOIN items AS i ON i.id = b.item_id " +
+                "WHERE i.owner_id = u.id AND b.status = 'REJECTED')"));
+
+        dataSeeder.seed();
+
+        assertEquals(200, count("SELECT COUNT(*) FROM users"));
+        UserDto added = userService.add(new UserDto(null, "after seed", "after-seed@mail.ru"));
+        assertThat(added.getId()).isGreaterThan(200);
+    }
+
+    private long count(String sql) {
+        return jdbcTemplate.queryForObject(sql, Long.class);
+    }
+}
@@ -11,10 +11,13 @@ import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.EmptyResultDataAccessException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserPatchDto;
+import ru.practicum.shareit.user.event.UserChangedEvent;
+import ru.practicum.shareit.user.event.UserDeletedEvent;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.mapper.UserMapperImpl;
 import ru.practicum.shareit.user.model.User;
@@ -32,6 +35,8 @@ class UserServiceImplTest {
     private UserServiceImpl userService;
     @Mock
     private UserRepository userRepository;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
     @Spy
     private static UserMapper userMapper = new UserMapperImpl();
 
@@ -87,6 +92,7 @@ class UserServiceImplTest {
                 .thenReturn(Optional.of(initialUser));
 
         assertEquals(patchedDto, userService.patch(id, requestDto));
+        Mockito.verify(eventPublisher).publishEvent(new UserChangedEvent(id));
     }
 
     @Test
@@ -110,6 +116,7 @@ class UserServiceImplTest {
         long id = 1;
         assertDoesNotThrow(() -> userService.delete(id));
         Mockito.verify(userRepository).deleteById(id);
+        Mockito.verify(eventPublisher).publishEvent(new UserDeletedEvent(id));
     }
 
     @Test
@@ -0,0 +1,59 @@
+package ru.practicum.shareit.util;
+
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.mock.env.MockEnvironment;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DataSourceProxyConfigTest {
+    private final DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:proxy", "sa", "password");
+
+    private Object postProcess(boolean countRows, QueryExecutionListener... listeners) {
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+        for (int i = 0; i < listeners.length; i++) {
+            beanFactory.addBean("listener" + i, listeners[i]);
+        }
+        BeanPostProcessor postProcessor = DataSourceProxyConfig.dataSourceProxyPostProcessor(
+                new MockEnvironment().withProperty(DataSourceProxyConfig.ROW_COUNT_PROPERTY, String.valueOf(countRows)),
+                beanFactory.getBeanProvider(QueryExecutionListener.class));
+        return postProcessor.postProcessAfterInitialization(dataSource, "dataSource");
+    }
+
+    private int countedRows(Object proxied) {
+        SqlRowCounter.reset();
+        new JdbcTemplate((DataSource) proxied).queryForList("SELECT x FROM system_range(1, 3)", Long.class);
+        return SqlRowCounter.get();
+    }
+
+    @Test
+    void givenRowCountOn_whenQuery_thenRowsCounted() {
+        Object proxied = postProcess(true);
+
+        assertInstanceOf(ProxyDataSource.class, proxied);
+        assertEquals(3, countedRows(proxied));
+    }
+
+    @Test
+    void givenRowCountOffAndNoListeners_whenPostProcess_thenDataSourceNotProxied() {
+        assertSame(dataSource, postProcess(false));
+    }
+
+    @Test
+    void givenRowCountOffAndQueryListener_whenQuery_thenListenerCalledAndRowsNotCounted() {
+        SlowQueryLog slowQueryLog = new SlowQueryLog(Duration.ZERO, 0, 10);
+        Object proxied = postProcess(false, slowQueryLog);
+
+        assertInstanceOf(ProxyDataSource.class, proxied);
+        assertEquals(0, countedRows(proxied));
+        assertEquals(1, slowQueryLog.getTop().size());
+    }
+}
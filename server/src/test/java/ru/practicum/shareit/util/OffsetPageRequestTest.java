@@ -0,0 +1,33 @@
+package ru.practicum.shareit.util;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OffsetPageRequestTest {
+
+    @Test
+    void givenOffsetNotMultipleOfSize_whenCreate_thenSkipExactlyOffsetRows() {
+        Sort sort = Sort.by(Sort.Direction.ASC, "id");
+        OffsetPageRequest pageable = OffsetPageRequest.of(3, 2, sort);
+
+        assertEquals(3, pageable.getOffset());
+        assertEquals(2, pageable.getPageSize());
+        assertEquals(1, pageable.getPageNumber());
+        assertEquals(sort, pageable.getSort());
+        assertTrue(pageable.hasPrevious());
+        assertEquals(OffsetPageRequest.of(5, 2, sort), pageable.next());
+        assertEquals(OffsetPageRequest.of(1, 2, sort), pageable.previousOrFirst());
+        assertEquals(OffsetPageRequest.of(0, 2, sort), pageable.previousOrFirst().previousOrFirst());
+        assertEquals(OffsetPageRequest.of(0, 2, sort), pageable.first());
+        assertEquals(OffsetPageRequest.of(8, 2, sort), pageable.withPage(4));
+        assertFalse(OffsetPageRequest.of(0, 2).hasPrevious());
+    }
+
+    @Test
+    void givenInvalidOffsetOrSize_whenCreate_thenThrowIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> OffsetPageRequest.of(-1, 2));
+        assertThrows(IllegalArgumentException.class, () -> OffsetPageRequest.of(0, 0));
+    }
+}
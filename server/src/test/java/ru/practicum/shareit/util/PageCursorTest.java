@@ -0,0 +1,42 @@
+package ru.practicum.shareit.util;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import ru.practicum.shareit.exception.CustomValidationException;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PageCursorTest {
+
+    @Test
+    void givenCursor_whenEncodeAndDecode_thenSameCursor() {
+        PageCursor withTime = PageCursor.of(LocalDateTime.of(2023, 3, 1, 12, 30, 15), 42L);
+        PageCursor withoutTime = PageCursor.of(7L);
+
+        assertEquals(withTime, PageCursor.decodeWithTime(withTime.encode()));
+        assertEquals(withoutTime, PageCursor.decode(withoutTime.encode()));
+        assertNull(PageCursor.decode(""));
+        assertNull(PageCursor.decodeWithTime(null));
+    }
+
+    @Test
+    void givenInvalidCursor_whenDecode_thenThrowCustomValidationException() {
+        assertThrows(CustomValidationException.class, () -> PageCursor.decode("###"));
+        assertThrows(CustomValidationException.class, () -> PageCursor.decode("bm90LWEtY3Vyc29y"));
+        assertThrows(CustomValidationException.class,
+                () -> PageCursor.decodeWithTime(PageCursor.of(7L).encode()));
+    }
+
+    @Test
+    void givenPage_whenToResponse_thenNextCursorOnlyForFullPage() {
+        ResponseEntity<List<Long>> fullPage = PageCursor.toResponse(List.of(3L, 4L), 2, PageCursor::of);
+        ResponseEntity<List<Long>> lastPage = PageCursor.toResponse(List.of(5L), 2, PageCursor::of);
+
+        assertEquals(PageCursor.of(4L).encode(), fullPage.getHeaders().getFirst(PageCursor.NEXT_CURSOR_HEADER));
+        assertFalse(lastPage.getHeaders().containsKey(PageCursor.NEXT_CURSOR_HEADER));
+        assertEquals(List.of(5L), lastPage.getBody());
+    }
+}
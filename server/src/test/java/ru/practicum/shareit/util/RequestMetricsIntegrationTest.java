@@ -0,0 +1,89 @@
+package ru.practicum.shareit.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:metrics")
+@AutoConfigureMockMvc
+@AutoConfigureMetrics
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+class RequestMetricsIntegrationTest {
+    private final MockMvc mvc;
+
+    private final ObjectMapper mapper;
+
+    private final MeterRegistry meterRegistry;
+
+    @Test
+    void givenRequests_whenServed_thenMethodTimersAndSqlSummariesRecorded() throws Exception {
+        String body = mvc.perform(post("/users")
+                        .content(mapper.writeValueAsString(new UserDto(null, "metrics", "metrics@mail.ru")))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        long userId = mapper.readValue(body, UserDto.class).getId();
+
+        mvc.perform(get("/users/{id}", userId))
+                .andExpect(status().isOk());
+        mvc.perform(get("/bookings")
+                        .param("state", "WAITING")
+                        .param("from", "0")
+                        .param("size", "10")
+                        .header("X-Sharer-User-Id", userId))
+                .andExpect(status().isOk());
+        mvc.perform(get("/bookings")
+                        .param("state", "SOMETIMES")
+                        .param("from", "0")
+                        .param("size", "10")
+                        .header("X-Sharer-User-Id", userId))
+                .andExpect(status().isBadRequest());
+
+        assertEquals(1, meterRegistry.get("controller.calls")
+                .tags("class", "BookingController", "method", "getAllBookingsByBooker", "state", "WAITING",
+                        "exception", "none")
+                .timer().count());
+        assertEquals(1, meterRegistry.get("controller.calls")
+                .tags("class", "BookingController", "state", "UNKNOWN",
+                        "exception", "CustomValidationException")
+                .timer().count());
+        assertEquals(1, meterRegistry.get("service.calls")
+                .tags("class", "BookingServiceImpl", "method", "getAllBookingsByBooker", "state", "WAITING")
+                .timer().count());
+        assertEquals(1, meterRegistry.get("service.calls")
+                .tags("class", "UserServiceImpl", "method", "add", "state", "none")
+                .timer().count());
+
+        DistributionSummary statements = meterRegistry.get("sql.statements")
+                .tags("method", "GET", "uri", "/bookings").summary();
+        assertEquals(2, statements.count());
+        assertThat(statements.totalAmount()).isPositive();
+        assertThat(meterRegistry.get("sql.rows").tags("method", "GET", "uri", "/users/{id}").summary()
+                .totalAmount()).isGreaterThanOrEqualTo(1);
+
+        String scrape = mvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertThat(scrape)
+                .contains("controller_calls_seconds_bucket{class=\"BookingController\"")
+                .contains("service_calls_seconds_bucket{class=\"BookingServiceImpl\"")
+                .contains("sql_statements_bucket{")
+                .contains("sql_rows_bucket{")
+                .contains("http_server_requests_seconds_bucket{");
+    }
+}
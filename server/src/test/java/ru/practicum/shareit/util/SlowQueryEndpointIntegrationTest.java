@@ -0,0 +1,52 @@
+package ru.practicum.shareit.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import static org.hamcrest.Matchers.hasItem;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:slowqueries",
+        "shareit.sql.log.enabled=true",
+        "shareit.sql.log.slow-threshold=0ms",
+        "management.endpoints.web.exposure.include=slowqueries"
+})
+@AutoConfigureMockMvc
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+class SlowQueryEndpointIntegrationTest {
+    private final MockMvc mvc;
+
+    private final ObjectMapper mapper;
+
+    @Test
+    void givenSlowThresholdZero_whenRequestServed_thenEndpointListsStatementsWithCallSite() throws Exception {
+        String body = mvc.perform(post("/users")
+                        .content(mapper.writeValueAsString(new UserDto(null, "slow", "slow@mail.ru")))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        long userId = mapper.readValue(body, UserDto.class).getId();
+        mvc.perform(delete("/actuator/slowqueries"))
+                .andExpect(status().isNoContent());
+
+        mvc.perform(get("/users/{id}", userId))
+                .andExpect(status().isOk());
+
+        mvc.perform(get("/actuator/slowqueries"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].maxCallSite", hasItem("UserController.getById > UserServiceImpl.getById")))
+                .andExpect(jsonPath("$[0].count").value(1));
+    }
+}
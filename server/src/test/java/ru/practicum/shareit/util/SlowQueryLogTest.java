@@ -0,0 +1,51 @@
+package ru.practicum.shareit.util;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SlowQueryLogTest {
+    private final SlowQueryLog slowQueryLog = new SlowQueryLog(Duration.ofMillis(100), 0, 2);
+
+    private void execute(String sql, long millis) {
+        ExecutionInfo execution = new ExecutionInfo();
+        execution.setElapsedTime(millis);
+        slowQueryLog.afterQuery(execution, List.of(new QueryInfo(sql)));
+    }
+
+    @Test
+    void givenStatements_whenExecuted_thenOnlySlowOnesAggregatedByTotalTimeWithCallSite() {
+        execute("select fast", 50);
+        SqlCallSite.enter("BookingController.getAllBookingsByOwner");
+        SqlCallSite.enter("BookingServiceImpl.getAllBookingsByOwner");
+        execute("select bookings", 300);
+        execute("select bookings", 400);
+        SqlCallSite.exit();
+        SqlCallSite.exit();
+        execute("select items", 150);
+        execute("select users", 500);
+
+        List<SlowQueryLog.SlowStatementDto> top = slowQueryLog.getTop();
+
+        assertEquals(2, top.size());
+        SlowQueryLog.SlowStatementDto bookings = top.get(0);
+        assertEquals("select bookings", bookings.getSql());
+        assertEquals(2, bookings.getCount());
+        assertEquals(700, bookings.getTotalMillis());
+        assertEquals(400, bookings.getMaxMillis());
+        assertEquals("BookingController.getAllBookingsByOwner > BookingServiceImpl.getAllBookingsByOwner",
+                bookings.getMaxCallSite());
+        assertEquals("select users", top.get(1).getSql());
+        assertEquals("unknown", top.get(1).getMaxCallSite());
+
+        slowQueryLog.reset();
+
+        assertThat(slowQueryLog.getTop()).isEmpty();
+    }
+}